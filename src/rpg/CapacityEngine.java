@@ -0,0 +1,105 @@
+package rpg;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import rpg.value.Unit;
+import rpg.value.Weight;
+
+/**
+ * A utility class that computes the capacity of a hero from its strength.
+ *
+ * The capacity follows these rules, with s the strength of the hero:
+ * - a strength of zero or less can carry nothing;
+ * - up to a strength of 10 the capacity is 10 kg per unit of strength;
+ * - from 10 up to 20 the capacity is looked up per whole unit of strength in a table;
+ * - every 10 units of strength above that multiply the capacity by 4.
+ *
+ * The capacities of the first MEMOIZED_STRENGTH whole units of strength are computed once
+ * and shared by all heroes. Higher capacities are computed with a shift, since a power of
+ * four is a power of two.
+ *
+ * @author Robbe, Elias
+ */
+public final class CapacityEngine {
+
+	/**
+	 * This class only offers static methods.
+	 */
+	private CapacityEngine(){
+	}
+
+	/**
+	 * The capacities in kg for the whole strengths 10 up to 19.
+	 */
+	private static final int[] TABLE = {100, 115, 130, 150, 175, 200, 230, 260, 300, 350};
+
+	/**
+	 * The whole strengths below this bound have a memoized capacity.
+	 */
+	private static final int MEMOIZED_STRENGTH = 320;
+
+	/**
+	 * The memoized capacities, indexed by whole strength minus 10.
+	 */
+	private static final Weight[] MEMOIZED = new Weight[MEMOIZED_STRENGTH - 10];
+
+	static {
+		for (int strength = 10; strength < MEMOIZED_STRENGTH; strength++) {
+			MEMOIZED[strength - 10] = computeCapacity(strength);
+		}
+	}
+
+	/**
+	 * The largest number of times a capacity of the table may be doubled, which allows a
+	 * strength of well over 300 000.
+	 */
+	public static final int MAX_DOUBLINGS = 1 << 16;
+
+	/**
+	 * A capacity of 0 kg, with two decimal places.
+	 */
+	private static final Weight ZERO = new Weight(BigDecimal.ZERO.setScale(2), Unit.kg);
+
+	/**
+	 * Returns the capacity for the given strength.
+	 *
+	 * @param hundredths
+	 * 		  The strength in hundredths.
+	 * @return Zero kg if the strength is not positive.
+	 * 		   | if (hundredths <= 0) then result.getNumeral().signum() == 0
+	 * @return Ten kg per unit of strength up to a strength of 10.
+	 * 		   | if (0 < hundredths && hundredths <= 1000)
+	 * 		   | then result.getNumeral().equals(BigDecimal.valueOf(hundredths * 10, 2))
+	 * @return Four times the capacity of ten units of strength less above a strength of 20.
+	 * 		   | if (hundredths >= 2000)
+	 * 		   | then result.getNumeral().equals(
+	 * 		   |	getCapacity(hundredths - 1000).getNumeral().multiply(BigDecimal.valueOf(4)))
+	 * @return The result is expressed in kg with two decimal places.
+	 * 		   | result.getUnit() == Unit.kg && result.getNumeral().scale() == 2
+	 * @throws ArithmeticException
+	 * 		   The capacity would need more than MAX_DOUBLINGS doublings of the table.
+	 */
+	public static Weight getCapacity(long hundredths){
+		if (hundredths <= 0)
+			return ZERO;
+		if (hundredths <= 1000)
+			return new Weight(BigDecimal.valueOf(hundredths * 10, 2), Unit.kg);
+		long strength = hundredths / 100;
+		if (strength < MEMOIZED_STRENGTH)
+			return MEMOIZED[(int) strength - 10];
+		return computeCapacity(strength);
+	}
+
+	/**
+	 * Computes the capacity for the given whole strength of at least 10.
+	 */
+	private static Weight computeCapacity(long strength) throws ArithmeticException {
+		long base = TABLE[(int) ((strength - 10) % 10)];
+		long doublings = 2 * ((strength - 10) / 10);
+		if (doublings > MAX_DOUBLINGS)
+			throw new ArithmeticException("Capacity too large for strength " + strength);
+		BigInteger hundredths = BigInteger.valueOf(base * 100).shiftLeft((int) doublings);
+		return new Weight(new BigDecimal(hundredths, 2), Unit.kg);
+	}
+}
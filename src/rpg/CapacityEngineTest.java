@@ -0,0 +1,55 @@
+package rpg;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+
+import org.junit.Test;
+
+import rpg.value.Unit;
+import rpg.value.Weight;
+
+public class CapacityEngineTest {
+
+	private static Weight kg(String numeral) {
+		return new Weight(new BigDecimal(numeral), Unit.kg);
+	}
+
+	@Test
+	public void notPositive() {
+		assertEquals(kg("0.00"), CapacityEngine.getCapacity(0));
+		assertEquals(kg("0.00"), CapacityEngine.getCapacity(-500));
+	}
+
+	@Test
+	public void upToTen() {
+		assertEquals(kg("5.00"), CapacityEngine.getCapacity(50));
+		assertEquals(kg("87.50"), CapacityEngine.getCapacity(875));
+		assertEquals(kg("100.00"), CapacityEngine.getCapacity(1000));
+	}
+
+	@Test
+	public void tenToTwenty() {
+		assertEquals(kg("115.00"), CapacityEngine.getCapacity(1100));
+		assertEquals(kg("115.00"), CapacityEngine.getCapacity(1199));
+		assertEquals(kg("350.00"), CapacityEngine.getCapacity(1900));
+		assertEquals(kg("400.00"), CapacityEngine.getCapacity(2000));
+	}
+
+	@Test
+	public void aboveTwenty() {
+		assertEquals(kg("800.00"), CapacityEngine.getCapacity(2500));
+		assertEquals(kg("1600.00"), CapacityEngine.getCapacity(3000));
+		assertEquals(kg("5600.00"), CapacityEngine.getCapacity(3900));
+		for (long strength = 2000; strength < 50000; strength += 100) {
+			BigDecimal expected = CapacityEngine.getCapacity(strength - 1000).getNumeral()
+					.multiply(BigDecimal.valueOf(4));
+			assertEquals(0, expected.compareTo(CapacityEngine.getCapacity(strength).getNumeral()));
+		}
+	}
+
+	@Test (expected = ArithmeticException.class)
+	public void tooStrong() {
+		CapacityEngine.getCapacity(Long.MAX_VALUE);
+	}
+}
@@ -12,9 +12,10 @@ import rpg.value.Weight;
 
 import java.math.BigDecimal;
 import java.util.EnumMap;
-import java.util.concurrent.ThreadLocalRandom;
+import rpg.utility.RandomSource;
 import rpg.exception.InvalidContentException;
 import rpg.inventory.Backpack;
+import rpg.simulation.BattleSimulator;
 
 
 public class Game {
@@ -68,28 +69,11 @@ public class Game {
 
 		// Battle
 
-		int random = ThreadLocalRandom.current().nextInt(0, 2);
-		while (Jimmie.getCurrentHitpoints() > 0 && HillGiant.getCurrentHitpoints() > 0) {
-			System.out.println(Jimmie.getCurrentHitpoints() + " Jimmies Hitpoints");
-			System.out.println(HillGiant.getCurrentHitpoints() + " HillGiant's Hitpoints");
-			if (random == 0) {
-				HillGiant.hit(Jimmie);
-			} else {
-
-				Jimmie.hit(HillGiant);
-			}
-		}
-		if (Jimmie.getCurrentHitpoints() <= 0) {
-			System.out.println("HillGiant won");
-			winner = HillGiant;
+		winner = BattleSimulator.duel(Jimmie, HillGiant, RandomSource.threadLocal(), System.out);
+		if (winner == null) {
+			return;
 		}
-		else{
-			System.out.println("Jimmie won");
-			winner = Jimmie;
-		}
-		
-		
-		
+
 		winnerValue = new DucatAmount(BigDecimal.ZERO);
 		for (EnumMap.Entry<Anchorpoint, Item> entry : winner.getAnchorpoints().entrySet()) {
 			Item item = entry.getValue();
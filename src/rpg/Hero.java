@@ -1,13 +1,8 @@
 package rpg;
 
 import java.math.BigDecimal;
-import java.util.ArrayList;
 import java.util.EnumMap;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ThreadLocalRandom;
-import java.util.regex.*;
 import be.kuleuven.cs.som.annotate.*;
 import rpg.exception.InvalidContentException;
 import rpg.inventory.*;
@@ -39,6 +34,8 @@ public class Hero extends Mobile {
 	 * 		  The strength of the hero.
 	 * @param items
 	 * 		  The items to initialize the hero.
+	 * @effect Every anchorpoint is valid for the hero.
+	 * 		  | setValidAnchorpointMask(HERO_ANCHORPOINTS)
 	 * @effect  The anchorpoints of the hero are set with the given items.
 	 * 	      | for item in items
 	 * 		  | 	setItemAt(item,anchorpoint)
@@ -52,14 +49,7 @@ public class Hero extends Mobile {
 	{
 		super(name,hitpoints,strength);
 		assert isValidEnumMap(items);
-		List<Anchorpoint> validAnchorpoints = new ArrayList<Anchorpoint>();
-		validAnchorpoints.add(Anchorpoint.BACK);
-		validAnchorpoints.add(Anchorpoint.BELT);
-		validAnchorpoints.add(Anchorpoint.BODY);
-		validAnchorpoints.add(Anchorpoint.LEFT);
-		validAnchorpoints.add(Anchorpoint.RIGHT);
-		setValidAnchorpoints(validAnchorpoints);
-		initializeAvailableCapacities();
+		setValidAnchorpointMask(HERO_ANCHORPOINTS);
 		for (EnumMap.Entry<Anchorpoint, Item> entry : items.entrySet()){
 			setItemAt(entry.getValue(),entry.getKey());
 		}
@@ -68,6 +58,11 @@ public class Hero extends Mobile {
 		}
 		
 	}
+	
+	/**
+	 * The mask of the anchorpoints that are valid for every hero.
+	 */
+	private static final int HERO_ANCHORPOINTS = Anchorpoint.ALL_MASK;
 
 	/**
 	 * Initialized a hero with a name, two hitpoints, zero strength 
@@ -105,53 +100,14 @@ public class Hero extends Mobile {
 	/**
 	 * Checks whether the given name is a valid one.
 	 * 
-	 * @return True if the given names satisfies the validNamePattern.
-	 * 		   | result == validNamePattern.matcher(name).matches()
+	 * @return True if the given name is valid for a hero.
+	 * 		   | result == NameValidator.HERO.isValid(heroName)
 	 */
 	@Override
 	public boolean isValidName(String heroName){
-		boolean nameIsValid = firstPattern.matcher(heroName).matches();
-		int numberOfApos = getNumberOfMatches(patternApo,heroName);
-		boolean colonNotSpace = patternColonSpace.matcher(heroName).matches();
-		return  nameIsValid && numberOfApos<=2 && !colonNotSpace;
+		return NameValidator.HERO.isValid(heroName);
 	}
 	
-	/**
-	 * Gets the number of matches with a given pattern.
-	 * 
-	 * @param pattern
-	 * 		  The pattern to check the string against.
-	 * @param string
-	 * 		  The string to check against the pattern.
-	 * @return The number of matches.
-	 * 	       | let count = 0
-	 * 		   | 	matcher = pattern.matcher(string)
-	 * 	       | 	while (matcher.find())
-	 *	       |		count++
-	 *		   | result.equals(count) 
-	 *
-	 */
-	private int getNumberOfMatches(Pattern pattern, String string){
-		int count = 0;
-		Matcher matcher = pattern.matcher(string);
-		while (matcher.find())
-		    count++;
-		return count;
-	}
-	
-	/**
-	 * The first pattern to check the name against.
-	 */
-	private static final Pattern firstPattern = Pattern.compile("[A-Z][:'A-Za-z\\s]+");
-	/**
-	 * The second pattern to check the name against.
-	 */
-	private static final Pattern patternApo = Pattern.compile("'");
-	/**
-	 * The third pattern to check the name against.
-	 */
-	private static final Pattern patternColonSpace = Pattern.compile(":^\\s");
-	
 	
 	/************************************************
 	 * Capacity
@@ -160,131 +116,29 @@ public class Hero extends Mobile {
 	/**
 	 * Return the capacity of this hero in kg.
 	 * 
-	 * @return Zero if strength is zero or less.
-	 * 		   | if (this.getRawStrength().compareTo(BigDecimal.ZERO) == -1 || 
-	 *		   | this.getRawStrength().compareTo(BigDecimal.ZERO) == 0)
-	 *		   | 	result == 0kg
-	 * @return Strength multiplied with 10 if strength between 1 and 10.
-	 * 		   | if (this.getRawStrength().compareTo(BigDecimal.ONE) == 1 &&
-	 *		   | 	this.getRawStrength().compareTo(BigDecimal.TEN) == -1)
-	 *		   | 	result == this.getRawStrength().multiply(BigDecimal.TEN)
-	 * @return getCapacityByStrengthBetweenTenAndTwenty if between 10 and 20
-	 * 		   | result == getCapacityByStrengthBetweenTenAndTwenty()
-	 * @return getCapacityByStrengthAboveTwenty(getRawStrength())
-	 * 		   | getCapacityByStrengthAboveTwenty(getRawStrength())
+	 * @return The capacity for the strength of this hero.
+	 * 		   | result.equals(CapacityEngine.getCapacity(getRawStrengthHundredths()))
+	 * @note The capacity is remembered together with the strength it belongs to, so it
+	 * 		 is only looked up again after the strength has changed.
 	 */
 	public Weight getCapacity(){
-		BigDecimal calculatedCapacity;
-		BigDecimal rawStrength = this.getRawStrength();
-		if (rawStrength.compareTo(BigDecimal.ZERO) == -1 || 
-				rawStrength.compareTo(BigDecimal.ZERO) == 0)
-			calculatedCapacity = BigDecimal.ZERO;
-		else if(rawStrength.compareTo(BigDecimal.ONE) == 1 &&
-				rawStrength.compareTo(BigDecimal.TEN) == -1)
-			calculatedCapacity = rawStrength.multiply(BigDecimal.TEN);
-		else if(rawStrength.compareTo(BigDecimal.TEN) == 1 &&
-				rawStrength.compareTo(BigDecimal.valueOf(20)) == -1)
-			calculatedCapacity = getCapacityByStrengthBetweenTenAndTwenty(getRawStrength());
-		else{
-			calculatedCapacity =getCapacityByStrengthAboveTwenty(rawStrength);
-		}
-		return new Weight(calculatedCapacity,Unit.kg);
-	}
-	
-	/**
-	 * A variable storing the availableCapacities if strength is between 10 and 20.
-	 */
-	private Map<BigDecimal, BigDecimal> availableCapacities;
-	
-	/**
-	 * Initializes the capacities for values of strength between 10 and 20.
-	 * 
-	 * @post Puts the values with corresponding weights in availableCapacities.
-	 * 		| for I in 1...10
-	 * 	    | 	 availableCapacities.put(BigDecimal.valueOf(value), 
-	 * 		|		BigDecimal.valueOf(corresponding));
-	 * 
-	 */
-	@Model
-	private void initializeAvailableCapacities(){
-		availableCapacities = new HashMap<BigDecimal, BigDecimal>();
-		availableCapacities.put(BigDecimal.valueOf(11), BigDecimal.valueOf(115));
-		availableCapacities.put(BigDecimal.valueOf(12), BigDecimal.valueOf(130));
-		availableCapacities.put(BigDecimal.valueOf(13), BigDecimal.valueOf(150));
-		availableCapacities.put(BigDecimal.valueOf(14), BigDecimal.valueOf(175));
-		availableCapacities.put(BigDecimal.valueOf(15), BigDecimal.valueOf(200));
-		availableCapacities.put(BigDecimal.valueOf(16), BigDecimal.valueOf(230));
-		availableCapacities.put(BigDecimal.valueOf(17), BigDecimal.valueOf(260));
-		availableCapacities.put(BigDecimal.valueOf(18), BigDecimal.valueOf(300));
-		availableCapacities.put(BigDecimal.valueOf(19), BigDecimal.valueOf(350));
-		availableCapacities.put(BigDecimal.valueOf(20), BigDecimal.valueOf(400));
-	}
-	
-	/**
-	 * Gets the capacities if strength is between 10 than 20.
-	 * 
-	 * @param strength
-	 * 	     The strength.
-	 * @return The capactity with the corresponding value of availableCapacities.
-	 * 		   | let capacity = BigDecimal.ZERO
-	 * 		   | 			for (Map.Entry<BigDecimal, BigDecimal> entry : availableCapacities.entrySet()){
-	 *		   |				if (strength.compareTo(entry.getKey()) == -1)
-	 *		   |					capacity = entry.getValue();
-	 *		   | result == capacity.
-	 */
-	private BigDecimal getCapacityByStrengthBetweenTenAndTwenty(BigDecimal strength){
-		BigDecimal capacity = BigDecimal.ZERO;
-		for (Map.Entry<BigDecimal, BigDecimal> entry : availableCapacities.entrySet()){
-			if (strength.compareTo(entry.getKey()) == -1)
-				capacity = entry.getValue();
+		long rawStrength = this.getRawStrengthHundredths();
+		if (capacity == null || capacityStrength != rawStrength){
+			capacity = CapacityEngine.getCapacity(rawStrength);
+			capacityStrength = rawStrength;
 		}
 		return capacity;
 	}
 	
 	/**
-	 * Gets the capacities if strength is higher than 20.
-	 * 
-	 * @param strength
-	 * 		  The strength to get the capacity from.
-	 * @return the capacity of ten units less multiplied with four.
-	 * 		  | let pow = strength.min(BigDecimal.TEN).divideToIntegralValue(BigDecimal.TEN)
-	 * 		  | let strengthModTen = strength.remainder(BigDecimal.TEN).add(BigDecimal.TEN)
-	 * 		  | let baseResult = getCapacityByStrengthBetweenTenAndTwenty(strengthModTen)
-	 * 		  | let result = powerOfBigDecimal(BigDecimal.valueOf(4),pow)
-	 * 		  | result == result.multiply(baseResult)
+	 * A variable storing the capacity of the last lookup.
 	 */
-	private BigDecimal getCapacityByStrengthAboveTwenty(BigDecimal strength){
-		BigDecimal pow = strength.min(BigDecimal.TEN).divideToIntegralValue(BigDecimal.TEN);
-		BigDecimal strengthModTen = strength.remainder(BigDecimal.TEN).add(BigDecimal.TEN); 
-		BigDecimal baseResult = getCapacityByStrengthBetweenTenAndTwenty(strengthModTen);
-		BigDecimal result = powerOfBigDecimal(BigDecimal.valueOf(4),pow);
-		return result.multiply(baseResult);
-	}
+	private Weight capacity = null;
 	
 	/**
-	 * Return the power of a BigDecimal by iterating the multiplication.
-	 * 
-	 * @param bigdecimal
-	 * 	      The bigdecimal you want the power of.
-	 * @param power
-	 * 		  The power.
-	 * @return The bigdecimal^pow
-	 * 	      | let result = BigDecimal.ONE;
-	 * 		  | let i = BigDecimal.ZERO; 
-	 * 		  |	while (power.compareTo(i) == 1)
-	 *		  | 	result = result.multiply(bigdecimal);
-	 *		  | 	i.add(BigDecimal.ONE);
-	 * 		  | result == result
+	 * A variable storing the strength in hundredths that the capacity belongs to.
 	 */
-	private BigDecimal powerOfBigDecimal(BigDecimal bigdecimal,BigDecimal power){
-		BigDecimal result = BigDecimal.ONE;
-		BigDecimal i = BigDecimal.ZERO; 
-		while (power.compareTo(i) == 1){
-			result = result.multiply(bigdecimal);
-			i.add(BigDecimal.ONE);
-		}
-		return result;
-	}
+	private long capacityStrength;
 	
 	/************************************************
 	 * Protection
@@ -314,7 +168,7 @@ public class Hero extends Mobile {
 	/**
 	 * Return the total strength.
 	 * @return The total strength.
-	 * 	       | let result = this.getRawStrength()
+	 * 	       | let result = this.getRawStrengthIntValue()
 	 *         | if (getItemAt(Anchorpoint.LEFT) instanceof Weapon)
 	 *		   |	result += ((Weapon)getItemAt(Anchorpoint.LEFT)).getStrength();
 	 *		   | if (getItemAt(Anchorpoint.RIGHT) instanceof Weapon)
@@ -322,7 +176,7 @@ public class Hero extends Mobile {
 	 * 		   | result == result
 	 */	   
 	protected int getTotalStrength(){
-		int result = this.getRawStrength().intValue();
+		int result = this.getRawStrengthIntValue();
 		if (getItemAt(Anchorpoint.LEFT) instanceof Weapon)
 			result += ((Weapon)getItemAt(Anchorpoint.LEFT)).getDamage();
 		if (getItemAt(Anchorpoint.RIGHT) instanceof Weapon)
@@ -372,40 +226,57 @@ public class Hero extends Mobile {
 	 * 
 	 * @param other
 	 * 		  The other mobile that is killed.
-	 * @effect The hero collects a random number of treasures and puts them
-	 * 		   in his backpack.
-	 * 		   | let random = ThreadLocalRandom.current().
-	 * 		   |	nextInt(0, other.getNbAnchorpoints() + 1)
-	 * 		   | let otherAnchorpoints = other.getAnchorpoints()
-	 * 		   | let I = 0
-	 * 		   | for entries in otherAnchorpoints
-	 * 		   | 	if (i>random)
-	 * 		   |		break
-	 * 		   | 	if (this.getItemAt(Anchorpoint.BACK) instanceof Backpack)
-	 * 		   | 		try
-	 * 		   |    		((Backpack)this.getItemAt(Anchorpoint.BACK)).addToContents(entry.getValue())
-	 * 		   |        catch 	(InvalidContentException) print("Contens cannot be added to backpack.")
+	 * @effect The hero puts the most valuable treasures of the other that fit in
+	 * 		   his backpack, all at once.
+	 * 		   | if (this.getItemAt(Anchorpoint.BACK) instanceof Backpack)
+	 * 		   | 	let backpack = (Backpack)this.getItemAt(Anchorpoint.BACK)
+	 * 		   | 	let loot = LootPlanner.plan(other, backpack.getFreeMilligrams())
+	 * 		   | 	for each item in loot:
+	 * 		   | 		if (item.getContainer() != null)
+	 * 		   | 			item.getContainer().removeFromContents(item)
+	 * 		   | 		else other.removeItemAt(anchorpoint of item)
+	 * 		   | 	backpack.addAllToContents(loot)
+	 * @post The hero holds every treasure that was added to the backpack, and the
+	 * 		 other no longer holds any treasure it lost.
+	 * 		 | for each item in loot: if (item.getContainer() == backpack)
+	 * 		 | 	item.getHolder() == this
+	 * @return The number of treasures that were added to the backpack.
 	 */
 	@Override
-	protected void collectTreasures(Mobile other)
+	protected int collectTreasures(Mobile other)
 			throws InvalidContentException
 	{
-		int random = ThreadLocalRandom.current().nextInt(0, other.getNbAnchorpoints() + 1);
-		EnumMap<Anchorpoint,Item> otherAnchorpoints = other.getAnchorpoints();
-		int i = 0;
-		for (EnumMap.Entry<Anchorpoint, Item> entry : otherAnchorpoints.entrySet()){
-			if (i>random){
-				break;
+		Item back = this.getItemAt(Anchorpoint.BACK);
+		if (!(back instanceof Backpack))
+			return 0;
+		Backpack backpack = (Backpack) back;
+		List<Item> loot = LootPlanner.plan(other, backpack.getFreeMilligrams());
+		for (Item item : loot){
+			if (item.getContainer() != null)
+				item.getContainer().removeFromContents(item);
+			else {
+				Anchorpoint anchorpoint = anchorpointOf(other, item);
+				assert anchorpoint != null;
+				other.removeItemAt(anchorpoint);
 			}
-			if (this.getItemAt(Anchorpoint.BACK) instanceof Backpack)
-				try{
-					((Backpack)this.getItemAt(Anchorpoint.BACK)).addToContents(entry.getValue());
-				}
-				catch (InvalidContentException ex){
-					System.out.println("Contens cannot be added to backpack.");
-				}
-			i++;
 		}
+		List<Item> accepted = backpack.addAllToContents(loot).getAccepted();
+		for (Item item : accepted)
+			item.setHolder(this);
+		return accepted.size();
+	}
+	
+	/**
+	 * Returns the anchor point the given mobile holds the given item at, or null if it
+	 * does not hold the item at any of its anchor points.
+	 */
+	private static Anchorpoint anchorpointOf(Mobile mobile, Item item){
+		for (Anchorpoint anchorpoint : Anchorpoint.values()){
+			if ((mobile.getOccupiedAnchorpointMask() & anchorpoint.getMask()) != 0
+					&& mobile.getItemAt(anchorpoint) == item)
+				return anchorpoint;
+		}
+		return null;
 	}
 	
 	
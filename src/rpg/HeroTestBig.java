@@ -60,11 +60,30 @@ public class HeroTestBig {
 	}
 	@Test
 	public void getCapacity(){
-	    assertEquals(new Weight(BigDecimal.valueOf(0),Unit.kg), Jimmie.getCapacity());
+	    // 100 strength is 9 times 10 strength above 10: 4^9 times 100 kg.
+	    assertEquals(new Weight(BigDecimal.valueOf(26214400).setScale(2),Unit.kg), Jimmie.getCapacity());
 	}
 	@Test
 	public void getCapacityOfAnchorpoints(){
-	    assertEquals(new Weight(BigDecimal.valueOf(0),Unit.kg), Jimmie.getCapacityOfAnchorpoints());
+	    assertEquals(new Weight(BigDecimal.valueOf(2000, 2),Unit.kg), Jimmie.getCapacityOfAnchorpoints());
+	}
+	@Test
+	public void carriedWeightFollowsItems(){
+		assertEquals(20000000L, Jimmie.getCarriedMilligrams());
+		Jimmie.removeItemAt(Anchorpoint.LEFT);
+		assertEquals(10000000L, Jimmie.getCarriedMilligrams());
+		Jimmie.setItemAt(new Weapon(new Weight(BigDecimal.TEN, Unit.lbs), 14), Anchorpoint.LEFT);
+		assertEquals(14535924L, Jimmie.getCarriedMilligrams());
+		Jimmie.setItemAt(new Weapon(new Weight(500, Unit.g), 7), Anchorpoint.RIGHT);
+		assertEquals(new Weight(BigDecimal.valueOf(1504, 2),Unit.kg), Jimmie.getCapacityOfAnchorpoints());
+	}
+	@Test
+	public void canHaveAsItemAtMixedUnits(){
+		Jimmie.removeItemAt(Anchorpoint.LEFT);
+		Weapon light = new Weapon(new Weight(BigDecimal.TEN, Unit.lbs), 14);
+		Weapon heavy = new Weapon(new Weight(BigDecimal.valueOf(26214390), Unit.kg), 14);
+		assertTrue(Jimmie.canHaveAsItemAt(light, Anchorpoint.LEFT));
+		assertFalse(Jimmie.canHaveAsItemAt(heavy, Anchorpoint.LEFT));
 	}
 	@Test
 	public void getCurrentHitpoints(){
@@ -91,6 +110,27 @@ public class HeroTestBig {
 	    assertEquals(2, Jimmie.getNbAnchorpoints());
 	}
 	@Test
+	public void anchorpointMasks(){
+		int occupied = Anchorpoint.BODY.getMask() | Anchorpoint.LEFT.getMask();
+		assertEquals(occupied, Jimmie.getOccupiedAnchorpointMask());
+		assertEquals(Anchorpoint.ALL_MASK, Jimmie.getValidAnchorpointMask());
+		assertEquals(Anchorpoint.BACK, Jimmie.getFirstFreeAnchorpoint());
+		Jimmie.removeItemAt(Anchorpoint.BODY);
+		assertEquals(Anchorpoint.BODY, Jimmie.getFirstFreeAnchorpoint());
+		assertEquals(1, Jimmie.getNbAnchorpoints());
+	}
+	@Test
+	public void firstFreeAnchorpointWhenFull(){
+		Jimmie.setValidAnchorpointMask(Anchorpoint.BODY.getMask() | Anchorpoint.LEFT.getMask());
+		assertNull(Jimmie.getFirstFreeAnchorpoint());
+		assertFalse(Jimmie.canHaveAsAnchorpoint(Anchorpoint.RIGHT));
+		assertFalse(Jimmie.canHaveAsAnchorpoint(null));
+	}
+	@Test (expected = IllegalArgumentException.class)
+	public void setValidAnchorpointMaskInvalid(){
+		Jimmie.setValidAnchorpointMask(1 << 5);
+	}
+	@Test
 	public void getNbValidAnchorpoints(){
 	    assertEquals(5, Jimmie.getNbValidAnchorpoints());
 	}
@@ -156,5 +196,21 @@ public class HeroTestBig {
 		assertEquals(new Weight(BigDecimal.valueOf(80).setScale(2),Unit.kg),Jimmie.getCapacity());	
 	}
 	
-
+	@Test
+	public void rawStrengthRounding(){
+		Jimmie.setRawStrength(new BigDecimal("12.345"));
+		assertEquals(1235L, Jimmie.getRawStrengthHundredths());
+		assertEquals(new BigDecimal("12.35"), Jimmie.getRawStrength());
+		assertEquals(12, Jimmie.getRawStrengthIntValue());
+	}
+	
+	@Test
+	public void multiplyRawStrengthOverflow(){
+		Jimmie.multiplyRawStrength(3);
+		assertEquals(BigDecimal.valueOf(300).setScale(2), Jimmie.getRawStrength());
+		Jimmie.setRawStrength(BigDecimal.valueOf(Long.MAX_VALUE / 1000));
+		long before = Jimmie.getRawStrengthHundredths();
+		Jimmie.multiplyRawStrength(1000);
+		assertEquals(before, Jimmie.getRawStrengthHundredths());
+	}
 }
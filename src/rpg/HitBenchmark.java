@@ -0,0 +1,82 @@
+package rpg;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+
+import rpg.exception.InvalidContentException;
+import rpg.inventory.Anchorpoint;
+import rpg.inventory.Armor;
+import rpg.inventory.ArmorType;
+import rpg.inventory.Item;
+import rpg.inventory.Weapon;
+import rpg.utility.SplittableRandomSource;
+import rpg.value.DucatAmount;
+import rpg.value.Unit;
+import rpg.value.Weight;
+
+/**
+ * A benchmark of Mobile.hit that compares hits with the cached combat stats against
+ * hits that compute the stats again every time, as every hit did before the stats
+ * were cached.
+ *
+ * @author Robbe, Elias
+ */
+public class HitBenchmark {
+
+	/**
+	 * The number of hits per measurement.
+	 */
+	private static final int HITS = 10000000;
+
+	/**
+	 * The number of measurements of each kind; the first ones warm up the JIT.
+	 */
+	private static final int ROUNDS = 5;
+
+	/**
+	 * A prime so large that the defender survives a whole measurement.
+	 */
+	private static final long HITPOINTS = 1000000007L;
+
+	public static void main(String[] args) throws InvalidContentException {
+		Weight weight = new Weight(BigDecimal.TEN, Unit.kg);
+		DucatAmount value = new DucatAmount(BigDecimal.TEN);
+		EnumMap<Anchorpoint, Item> items = new EnumMap<Anchorpoint, Item>(Anchorpoint.class);
+		items.put(Anchorpoint.BODY, new Armor(weight, value, 10, ArmorType.STANDARD));
+		items.put(Anchorpoint.LEFT, new Weapon(weight, 14));
+		items.put(Anchorpoint.RIGHT, new Weapon(weight, 21));
+		Hero hero = new Hero("Jimmie", HITPOINTS, BigDecimal.valueOf(40), items);
+		hero.setRandomSource(new SplittableRandomSource(1L));
+		Hero target = new Hero("Dummy", HITPOINTS, BigDecimal.ONE,
+				new EnumMap<Anchorpoint, Item>(items));
+
+		for (int round = 0; round < ROUNDS; round++) {
+			double uncached = measure(hero, target, true);
+			double cached = measure(hero, target, false);
+			System.out.println(String.format("round %d: recomputed %,.0f hits/s, cached %,.0f hits/s",
+					round, uncached, cached));
+		}
+	}
+
+	/**
+	 * Lets the hero hit the target HITS times and returns the number of hits per second.
+	 * If recompute is true, the stats of both are invalidated before every hit.
+	 */
+	private static double measure(Hero hero, Hero target, boolean recompute)
+			throws InvalidContentException
+	{
+		long start = System.nanoTime();
+		for (int i = 0; i < HITS; i++) {
+			if (recompute) {
+				hero.invalidateCombatStats();
+				target.invalidateCombatStats();
+			}
+			hero.hit(target);
+			if (target.getCurrentHitpoints() < HITPOINTS / 2) {
+				target.setCurrentHitpoints(HITPOINTS);
+			}
+		}
+		long elapsed = System.nanoTime() - start;
+		return HITS / (elapsed / 1e9);
+	}
+}
@@ -76,13 +76,29 @@ public class HitTest {
 
 	}
 	
+	@Test
+	public void cachedStatsFollowArmor() {
+		assertEquals(18, Jimmie.getCachedTotalProtection());
+		chestplate.setCurrentProtection(3);
+		assertEquals(13, Jimmie.getCachedTotalProtection());
+		Jimmie.removeItemAt(Anchorpoint.BODY);
+		assertEquals(10, Jimmie.getCachedTotalProtection());
+	}
 	
+	@Test
+	public void cachedStatsFollowStrength() {
+		assertEquals(70, Jimmie.getCachedDamage());
+		Jimmie.multiplyRawStrength(2);
+		assertEquals(145, Jimmie.getCachedDamage());
+	}
 	
-	
-	
-	
-	
-	
-	
-
+	@Test
+	public void cachedStatsFollowMonsterGear() {
+		assertEquals(7, HillGiant.getCachedTotalProtection());
+		assertEquals(10, HillGiant.getCachedDamage());
+		skin.setCurrentProtection(2);
+		claws.setDamage(35);
+		assertEquals(2, HillGiant.getCachedTotalProtection());
+		assertEquals(17, HillGiant.getCachedDamage());
+	}
 }
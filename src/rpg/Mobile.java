@@ -1,14 +1,19 @@
 package rpg;
 
+import java.util.ArrayList;
 import java.util.EnumMap;
 import java.util.List;
-import java.util.concurrent.ThreadLocalRandom;
 import be.kuleuven.cs.som.annotate.*;
 import rpg.inventory.Anchorpoint;
 import rpg.inventory.Item;
 import rpg.exception.InvalidContentException;
 import rpg.inventory.*;
+import rpg.log.CombatLog;
+import rpg.log.CombatMetrics;
+import rpg.utility.MobileIDGenerator;
 import rpg.utility.PrimeGenerator;
+import rpg.utility.Primality;
+import rpg.utility.RandomSource;
 import java.math.*;
 import rpg.value.*;
 
@@ -62,16 +67,74 @@ abstract public class Mobile {
 	 * 	       | this.setCurrentHitpoints(hitpoints)
 	 * @effect The rawStrength is set to the given strenth.
 	 *   	   | this.setRawStrength(strength)
+	 * @effect The mobile draws its random numbers from the ThreadLocalRandom of the
+	 * 		   calling thread.
+	 * 		   | this(name, hitpoints, strength, RandomSource.threadLocal())
 	 */
 	public Mobile(String name,long hitpoints, BigDecimal strength) 
+	{
+		this(name, hitpoints, strength, RandomSource.threadLocal());
+	}
+	
+	/**
+	 * Initialializes a new Mobile that draws its random numbers from the given source.
+	 * 
+	 * @param name
+	 * 		  The name for the mobile.
+	 * @param hitpoints
+	 * 		  The hitpoints for the mobile.
+	 * @param strength
+	 * 	      The strength for the mobile.
+	 * @param random
+	 * 		  The source of the random numbers of the mobile.
+	 * @pre The name must be valid.
+	 * 		| isValidName(name)
+	 * @pre The hitpoints must be valid
+	 *      | isValidMaximumHitpoints(hitpoints);
+	 *      | canHaveAsCurrentHitpoints(hitpoints);
+	 * @effect The name is set to the given name.
+	 * 		   | this.setName(name)
+	 * @effect The current- and maximum hitpoints is set to the given hitpoints.
+	 * 		   | this.setMaximumHitpoints(hitpoints)
+	 * 	       | this.setCurrentHitpoints(hitpoints)
+	 * @effect The rawStrength is set to the given strenth.
+	 *   	   | this.setRawStrength(strength)
+	 * @effect The random source is set to the given source.
+	 * 		   | this.setRandomSource(random)
+	 */
+	public Mobile(String name,long hitpoints, BigDecimal strength, RandomSource random) 
 	{
 		assert isValidName(name);		
 		this.setName(name);
 		this.setMaximumHitpoints(hitpoints);
 		this.setCurrentHitpoints(hitpoints);
 		this.setRawStrength(strength);
+		this.setRandomSource(random);
 	}
 	
+	/************************************************
+	 * Identifier
+	 ************************************************/
+	
+	/**
+	 * Return the identifier of this mobile. Every mobile of the process gets a
+	 * different one, and a mobile that is revived from a pool gets a new one.
+	 */
+	@Basic @Raw
+	public long getID(){
+		return this.ID;
+	}
+	
+	/**
+	 * A variable referencing the identifier of this mobile.
+	 */
+	private long ID = idGenerator.generateID();
+	
+	/**
+	 * The generator that numbers all mobiles.
+	 */
+	private static final MobileIDGenerator idGenerator = new MobileIDGenerator();
+	
 	/************************************************
 	 * Name - defensive programming
 	 ************************************************/
@@ -175,11 +238,11 @@ abstract public class Mobile {
 	 * @param hitpoints
 	 * 		  The hitpoints to check.
 	 * @return true if the given hitpoints is greater than 1 and prime.
-	 * 		   | result == (hitpoints>1 && primeGen.isPrime(hitpoints))
+	 * 		   | result == (hitpoints>1 && Primality.isPrime(hitpoints))
 	 */
 	@Raw
 	public static boolean isValidMaximumHitpoints(long hitpoints){
-		return ((hitpoints > 1) && (primeGen.isPrime(hitpoints)));
+		return ((hitpoints > 1) && (Primality.isPrime(hitpoints)));
 	}
 	
 	
@@ -234,12 +297,35 @@ abstract public class Mobile {
 	
 	/**
 	 * Returns the rawStrength of the mobile.
+	 * 
+	 * @return The rawStrength as a decimal number with two decimal places.
+	 * 		   | result.equals(BigDecimal.valueOf(getRawStrengthHundredths(), 2))
+	 * @note The strength is stored as a number of hundredths; the decimal number is
+	 * 		 only made when it is asked for.
 	 */
-	@Raw @Basic
+	@Raw
 	public BigDecimal getRawStrength(){
+		return BigDecimal.valueOf(this.rawStrength, rawStrengthPrecision);
+	}
+	
+	/**
+	 * Returns the rawStrength of the mobile in hundredths.
+	 */
+	@Raw @Basic
+	public long getRawStrengthHundredths(){
 		return this.rawStrength;
 	}
 	
+	/**
+	 * Returns the integral part of the rawStrength, rounded towards zero.
+	 * 
+	 * @return | result == getRawStrength().intValue()
+	 */
+	@Raw
+	public int getRawStrengthIntValue(){
+		return (int) (this.rawStrength / STRENGTH_UNIT);
+	}
+	
 	/**
 	 * Multiplies the rawStrenth with an int.
 	 * 
@@ -247,14 +333,12 @@ abstract public class Mobile {
 	 * 		  The multiplier of rawStrength.
 	 * @post The new rawStrenth is the product of amount and getRawStrength.
 	 * 		 | new.rawStrength.equals(getRawStrength*amount)
-	 * @post  If there is not enough memory to store the new rawStrength
+	 * @post  If the new rawStrength does not fit in a long number of hundredths
 	 * 		  nothing happens.
 	 */
 	public void multiplyRawStrength(int amount){
 		try{
-			BigDecimal multiplier = 
-			BigDecimal.valueOf(amount).setScale(rawStrengthPrecision, RoundingMode.HALF_UP);
-			setRawStrength(getRawStrength().multiply(multiplier));
+			setRawStrengthHundredths(Math.multiplyExact(this.rawStrength, (long) amount));
 		}
 		catch (ArithmeticException ex){}
 
@@ -268,22 +352,46 @@ abstract public class Mobile {
 	 * @post sets the rawStrength to the given amount with two decimal places.
 	 * 	     | new.getRawStrenth() == 
 	 * 		 | amount.setScale(strenthPrecision, RoundingMode.HALF_UP)
+	 * @effect The cached combat stats are invalidated.
+	 * 		   | invalidateCombatStats()
+	 * @throws ArithmeticException
+	 * 		   The amount in hundredths does not fit in a long.
 	 */
-	protected void setRawStrength(BigDecimal amount){
-		this.rawStrength = amount.setScale(rawStrengthPrecision, RoundingMode.HALF_UP);
+	protected void setRawStrength(BigDecimal amount) throws ArithmeticException {
+		setRawStrengthHundredths(amount.setScale(rawStrengthPrecision, RoundingMode.HALF_UP)
+				.unscaledValue().longValueExact());
+	}
+	
+	/**
+	 * Sets the RawStrength to the given number of hundredths.
+	 * 
+	 * @param hundredths
+	 * 		  The new rawStrength in hundredths.
+	 * @post | new.getRawStrengthHundredths() == hundredths
+	 * @effect The cached combat stats are invalidated.
+	 * 		   | invalidateCombatStats()
+	 */
+	protected void setRawStrengthHundredths(long hundredths){
+		this.rawStrength = hundredths;
+		invalidateCombatStats();
 	}
 	
 
 	/**
-	 * A variable that stores the rawStrength of a mobile.
+	 * A variable that stores the rawStrength of a mobile in hundredths.
 	 */
-	private BigDecimal rawStrength = new BigDecimal("0").setScale(rawStrengthPrecision, RoundingMode.HALF_UP);
+	private long rawStrength = 0L;
 
 	/**
 	 * A variable that stores the precision of the strength.
 	 */
 	private static final int rawStrengthPrecision = 2;
 	
+	/**
+	 * The number of hundredths in one unit of strength.
+	 */
+	protected static final long STRENGTH_UNIT = 100L;
+	
 	
 	/************************************************
 	 * Capacity
@@ -323,25 +431,22 @@ abstract public class Mobile {
 	
 	/**
 	 * Return the number of anchor points ascribed to this mobile.
+	 * 
+	 * @return | result == Integer.bitCount(getOccupiedAnchorpointMask())
 	 */
-	@Basic @Raw
+	@Raw
 	public int getNbAnchorpoints(){
-		int result = 0;
-		for (EnumMap.Entry<Anchorpoint, Item> entry : anchorpoints.entrySet()){
-			if (entry.getValue() != null)
-				result++;
-		}
-		return result;
+		return Integer.bitCount(occupiedAnchorpointMask);
 	}
 	
 	/**
 	 * Return the number of valid anchor points ascribed to this mobile.
+	 * 
+	 * @return | result == Integer.bitCount(getValidAnchorpointMask())
 	 */
-	@Basic @Raw
+	@Raw
 	public int getNbValidAnchorpoints(){
-		if (validAnchorpoints != null)
-			return validAnchorpoints.size();
-		return 0;
+		return Integer.bitCount(validAnchorpointMask);
 	}
 	
 	/**
@@ -444,10 +549,21 @@ abstract public class Mobile {
 	 * @param anchorpoint
 	 * 		  The anchor point to check.
 	 * @return True iff the valid anchor points contains the given anchor point.
-	 * 	       | result == alidAnchorpoints.contains(anchorpoint)
+	 * 	       | result == (anchorpoint != null &&
+	 * 	       |	(getValidAnchorpointMask() & anchorpoint.getMask()) != 0)
 	 */
 	public boolean canHaveAsAnchorpoint(Anchorpoint anchorpoint){
-		return validAnchorpoints.contains(anchorpoint);
+		return anchorpoint != null && (validAnchorpointMask & anchorpoint.getMask()) != 0;
+	}
+	
+	/**
+	 * Returns the first valid anchor point of this mobile that holds no item.
+	 * 
+	 * @return Null if every valid anchor point holds an item.
+	 * 		   | result == Anchorpoint.lowestIn(getValidAnchorpointMask() & ~getOccupiedAnchorpointMask())
+	 */
+	public Anchorpoint getFirstFreeAnchorpoint(){
+		return Anchorpoint.lowestIn(validAnchorpointMask & ~occupiedAnchorpointMask);
 	}
 	
 	/**
@@ -471,45 +587,40 @@ abstract public class Mobile {
 	}
 	
 	/**
-	 * Returns the total capacity of the anchor points.
+	 * Returns the total weight of the items in the anchor points, in kg.
+	 * 
+	 * @return The carried weight expressed in kg.
+	 * 		   | result.equals(new Weight(BigDecimal.valueOf(getCarriedMilligrams(), 6), Unit.kg))
+	 * @note The weight is not summed over the anchor points, it is the running
+	 * 		 total that is kept up to date by setItemAt and removeItemAt. Items of
+	 * 		 different units can be mixed.
+	 */ 
+	public Weight getCapacityOfAnchorpoints(){
+		return new Weight(BigDecimal.valueOf(carriedMilligrams, 6), Unit.kg);
+	}
+	
+	/**
+	 * Returns the total weight of the items in the anchor points in milligrams.
 	 * 
-	 * @pre The items in the anchor points should have the unit kg.
-	 *      | alItemsInUnit(Unit.kg)
-	 * @return The total capacity of the anchorpoints if they all have the same unit.
-	 * 		   | if (alItemsInUnit(Unit.kg)
-	 * 	       | then 
+	 * @return The sum of the weights in milligrams of all items in the anchor points.
 	 * 		   | let total = 0
 	 *         | for (Item w: anchorpoints.values())
-	 *         | 	total = total.add(w.getWeight().getNumeral())
-	 *         | result.equals(total)
-	 * @throws IllegalArgumentException
-	 * 	       The items have different units.
-	 * 		   |  (!alItemsInUnit(Unit.kg)
-	 */ 
-	public Weight getCapacityOfAnchorpoints()
-		throws IllegalArgumentException
-	{
-		if (alItemsInUnit(Unit.kg)){
-			Weight total = new Weight(BigDecimal.ZERO,Unit.kg);
-			for (Item w: anchorpoints.values()){
-				if (w != null){
-					total = total.add(w.getWeight());
-				}
-			}
-			return total;
-		}
-		else{
-			throw new IllegalArgumentException("Put the items in kg.");
-		}
-			
+	 *         | 	total = total + w.getWeight().getMilligrams()
+	 *         | result == total
+	 */
+	@Basic @Raw
+	public long getCarriedMilligrams(){
+		return this.carriedMilligrams;
 	}
+	
+	/**
+	 * A variable storing the total weight of the items in the anchor points in milligrams.
+	 */
+	private long carriedMilligrams = 0L;
 
 	/**
 	 * Checks whether the item can be set at the given anchor point.
 	 * 
-	 * @pre Everything should be in kg.
-	 * 		| getCapacityOfAnchorpoints().getUnit() == Unit.kg &&
-	 * 		| 	item.getWeigh().getUnit() == Unit.kg
 	 * @param item
 	 *        The item to check.
 	 * @param anchorpoint
@@ -517,18 +628,15 @@ abstract public class Mobile {
 	 * @return True if the current weight of the anchor points plus the 
 	 * 		   weight of the item is less than this capacity.
 	 * 		  | if (canHaveAsAnchorpoint(anchorpoint) && isValidItemAt(item,anchorpoint))
-	 * 		  | then let currentCapacityOfAnchorpoints =  getCapacityOfAnchorpoints()
-	 *        | 	if ((currentCapacityOfAnchorpoints.add(item.getWeight()))
-	 *		  |			.compareTo(GetCapacity()) == -1)
-	 *		  | 	then	result == true
+	 * 		  | then result == (getCarriedMilligrams() + item.getWeight().getMilligrams()
+	 *		  |			< getCapacity().getMilligrams())
+	 * @note The check compares whole milligrams, so it takes constant time and does not
+	 * 		 convert or allocate any weight.
 	 */
 	public boolean canHaveAsItemAt(Item item, Anchorpoint anchorpoint){
 		if (canHaveAsAnchorpoint(anchorpoint) && isValidItemAt(item,anchorpoint)){
-			Weight currentCapacityOfAnchorpoints =  getCapacityOfAnchorpoints();
-			if ((currentCapacityOfAnchorpoints.add(item.getWeight()))
-					.compareTo(getCapacity()) == -1){
-				return true;
-			}
+			long remaining = getCapacity().getMilligrams() - carriedMilligrams;
+			return item.getWeight().getMilligrams() < remaining;
 		}
 		return false;
 	}
@@ -546,14 +654,21 @@ abstract public class Mobile {
 	 * 		  The anchor point to set te given item.
 	 * @post The item is set at the given anchor point.
 	 * 	     | anchorpoints.put(anchorpoint, item);
-	 * 
+	 * @post The weight of the item is added to the carried weight.
+	 * 		 | new.getCarriedMilligrams() ==
+	 * 		 |	getCarriedMilligrams() + item.getWeight().getMilligrams()
+	 * @effect The cached combat stats are invalidated.
+	 * 		   | invalidateCombatStats()
 	 */
 	public void setItemAt(Item item,Anchorpoint anchorpoint){
 		assert (getItemAt(anchorpoint) == null);
 		assert canHaveAsAnchorpoint(anchorpoint);
 		assert isValidItemAt(item,anchorpoint);
+		carriedMilligrams = Math.addExact(carriedMilligrams, item.getWeight().getMilligrams());
 		anchorpoints.put(anchorpoint, item);
+		occupiedAnchorpointMask |= anchorpoint.getMask();
 		item.setHolder(this);
+		invalidateCombatStats();
 	}
 	
 	/**
@@ -565,27 +680,82 @@ abstract public class Mobile {
 	 * 		 | item.removeHolder()
 	 * @post The item at the anchorpoint is removed.
 	 *       | anchorpoints.remove(anchorpoint)
+	 * @post The weight of the item is subtracted from the carried weight.
+	 * 		 | new.getCarriedMilligrams() ==
+	 * 		 |	getCarriedMilligrams() - item.getWeight().getMilligrams()
+	 * @effect The cached combat stats are invalidated.
+	 * 		   | invalidateCombatStats()
 	 */
 	public void removeItemAt(Anchorpoint anchorpoint){
 		Item item = anchorpoints.get(anchorpoint);
 		anchorpoints.remove(anchorpoint);
+		occupiedAnchorpointMask &= ~anchorpoint.getMask();
+		carriedMilligrams -= item.getWeight().getMilligrams();
 		item.setHolder(null);
+		invalidateCombatStats();
 	}
 	
 	
 
 	/**
 	 * Sets the valid anchor points to the given list.
+	 * 
+	 * @effect | setValidAnchorpointMask(Anchorpoint.maskOf(validAnchorpoints))
 	 */
 	public void setValidAnchorpoints(List<Anchorpoint> validAnchorpoints){
-		this.validAnchorpoints = validAnchorpoints;
+		setValidAnchorpointMask(Anchorpoint.maskOf(validAnchorpoints));
+	}
+	
+	/**
+	 * Sets the valid anchor points to the anchor points in the given mask.
+	 * 
+	 * @param mask
+	 * 		  The mask of valid anchor points, with the bit of each anchor point as
+	 * 		  given by Anchorpoint.getMask().
+	 * @post | new.getValidAnchorpointMask() == mask
+	 * @throws IllegalArgumentException
+	 * 		   The mask contains bits that are no anchor point.
+	 * 		   | (mask & ~Anchorpoint.ALL_MASK) != 0
+	 */
+	public void setValidAnchorpointMask(int mask) throws IllegalArgumentException {
+		if ((mask & ~Anchorpoint.ALL_MASK) != 0)
+			throw new IllegalArgumentException("Invalid anchor point mask: " + mask);
+		this.validAnchorpointMask = mask;
 	}
 	
 	/**
-	 * Returns the valid anchorpoints.
+	 * Returns the valid anchorpoints, in the order of the enumeration.
+	 * 
+	 * @return A new list with the anchor points in the valid mask.
+	 * 		   | for each anchorpoint in Anchorpoint:
+	 * 		   |	result.contains(anchorpoint) == canHaveAsAnchorpoint(anchorpoint)
 	 */
 	public List<Anchorpoint> getValidAnchorpoints(){
-		return this.validAnchorpoints;
+		List<Anchorpoint> result = new ArrayList<Anchorpoint>(getNbValidAnchorpoints());
+		for (Anchorpoint anchorpoint : Anchorpoint.values()){
+			if (canHaveAsAnchorpoint(anchorpoint))
+				result.add(anchorpoint);
+		}
+		return result;
+	}
+	
+	/**
+	 * Returns the mask of the valid anchor points of this mobile.
+	 */
+	@Basic @Raw
+	public int getValidAnchorpointMask(){
+		return this.validAnchorpointMask;
+	}
+	
+	/**
+	 * Returns the mask of the anchor points of this mobile that hold an item.
+	 * 
+	 * @return | for each anchorpoint in Anchorpoint:
+	 * 		   |	((result & anchorpoint.getMask()) != 0) == (getItemAt(anchorpoint) != null)
+	 */
+	@Basic @Raw
+	public int getOccupiedAnchorpointMask(){
+		return this.occupiedAnchorpointMask;
 	}
 	
 	/**
@@ -603,9 +773,15 @@ abstract public class Mobile {
 	
 	/**
 	 * A variable referencing the valid anchor points of this mobile,
-	 * if the anchor point is in the list the anchor point is valid.
+	 * if the bit of an anchor point is set the anchor point is valid.
 	 */
-	private List<Anchorpoint> validAnchorpoints;
+	private int validAnchorpointMask = 0;
+	
+	/**
+	 * A variable referencing the anchor points of this mobile that hold an item,
+	 * if the bit of an anchor point is set the anchor point holds an item.
+	 */
+	private int occupiedAnchorpointMask = 0;
 	
 	/************************************************
 	 * Hit
@@ -620,32 +796,136 @@ abstract public class Mobile {
 	 * @effect The other mobile is damaged with the calculated damage of the mobile
 	 * 		   if the random number created is greater than the others procection.
 	 * 		   |
+	 * @effect If combat metrics are enabled, the hit is counted in them.
+	 * 		   | if (CombatMetrics.getActive() != null)
+	 * 		   | then CombatMetrics.getActive().recordAttack(this, flags, damage, loot)
+	 * @effect If this mobile has a combat log, the hit is recorded in it.
+	 * 		   | if (getCombatLog() != null)
+	 * 		   | then getCombatLog().record(getID(), other.getID(), roll, damage,
+	 * 		   |	getCurrentHitpoints(), other.getCurrentHitpoints(), loot, flags)
 	 */
 	public void hit(Mobile other) throws InvalidContentException{
+		CombatMetrics metrics = CombatMetrics.getActive();
 		int randomNum = randomZeroToHundred();
+		int damage = 0;
+		int loot = 0;
+		int flags = 0;
 		if (other.isHigherThanProtection(randomNum,other)){
-			int damage = calculateDamage();
+			damage = getCachedDamage();
+			flags = CombatLog.HIT;
 			other.damage(other, damage);
 			if (other.getCurrentHitpoints() <= 0 ){
 				other.setCurrentHitpoints(0);
-				this.heal();
-				this.collectTreasures(other);
-				other.setIsDead(true);
+				loot = this.claimKill(other, metrics);
+				flags |= CombatLog.KILL;
 			}
 		}
+		if (metrics != null)
+			metrics.recordAttack(this, flags, damage, loot);
+		CombatLog log = this.combatLog;
+		if (log != null)
+			log.record(getID(), other.getID(), randomNum, damage,
+					getCurrentHitpoints(), other.getCurrentHitpoints(), loot, flags);
+	}
+	
+	/**
+	 * Heals this mobile after it killed the other one, collects the treasures of the
+	 * other and marks it dead.
+	 * 
+	 * @param other
+	 * 		  The mobile that was killed.
+	 * @param metrics
+	 * 		  The metrics the heal is counted in if it changed the hitpoints, or null if
+	 * 		  metrics are off.
+	 * @effect | heal()
+	 * @effect | collectTreasures(other)
+	 * @effect | other.setIsDead(true)
+	 * @return The number of treasures that were collected.
+	 * 		   | result == collectTreasures(other)
+	 */
+	private int claimKill(Mobile other, CombatMetrics metrics) throws InvalidContentException {
+		long before = getCurrentHitpoints();
+		this.heal();
+		long healed = getCurrentHitpoints() - before;
+		if (metrics != null && healed != 0)
+			metrics.recordHeal(this, healed);
+		int loot = this.collectTreasures(other);
+		other.setIsDead(true);
+		return loot;
+	}
+	
+	/**
+	 * Returns the log the hits of this mobile are recorded in, or null if they are
+	 * not recorded.
+	 */
+	@Basic @Raw
+	public CombatLog getCombatLog(){
+		return this.combatLog;
+	}
+	
+	/**
+	 * Sets the log the hits of this mobile are recorded in.
+	 * 
+	 * @param log
+	 * 		  The new log, or null to stop recording.
+	 * @post | new.getCombatLog() == log
+	 * @note A combat log accepts records of one thread only, so mobiles that share a
+	 * 		 log must fight in the same thread.
+	 */
+	@Raw
+	public void setCombatLog(CombatLog log){
+		this.combatLog = log;
 	}
 	
+	/**
+	 * A variable referencing the log the hits of this mobile are recorded in.
+	 */
+	private CombatLog combatLog = null;
+	
 	/**
 	 * Return a pseudorandom number between 0 and 100 including both ends.
 	 * 
-	 * @return A number between 0 and 100.
-	 * 		   | for one I in 1..100 
-	 * 	       | 	result == I.  
+	 * @return A number between 0 and 100, drawn from the random source.
+	 * 		   | result == getRandomSource().nextInt(0, 100 + 1)
 	 */		
 	protected int randomZeroToHundred(){
-		return ThreadLocalRandom.current().nextInt(0, 100 + 1);
+		return getRandomSource().nextInt(0, 100 + 1);
+	}
+	
+	/************************************************
+	 * Randomness
+	 ************************************************/
+	
+	/**
+	 * Returns the source of the random numbers of this mobile.
+	 */
+	@Basic @Raw
+	public RandomSource getRandomSource(){
+		return this.randomSource;
+	}
+	
+	/**
+	 * Sets the source of the random numbers of this mobile.
+	 * 
+	 * @param random
+	 * 		  The new source.
+	 * @post | new.getRandomSource() == random
+	 * @throws IllegalArgumentException
+	 * 		   The source is not effective.
+	 * 		   | random == null
+	 */
+	@Raw
+	public void setRandomSource(RandomSource random) throws IllegalArgumentException {
+		if (random == null)
+			throw new IllegalArgumentException("Non-effective random source");
+		this.randomSource = random;
 	}
 	
+	/**
+	 * A variable referencing the source of the random numbers of this mobile.
+	 */
+	private RandomSource randomSource = RandomSource.threadLocal();
+	
 	/**
 	 * Checks if a number is higher than the protection of the other mobile.
 	 * 
@@ -657,7 +937,7 @@ abstract public class Mobile {
 	 * 	       | result == amount > other.getTotalProtection()
 	 */
 	protected boolean isHigherThanProtection(int amount, Mobile other){
-		return amount > other.getTotalProtection();
+		return amount > other.getCachedTotalProtection();
 			 
 	}
 	
@@ -696,6 +976,72 @@ abstract public class Mobile {
 	 */
 	protected abstract void heal();
 	
+	/************************************************
+	 * Cached combat stats
+	 ************************************************/
+	
+	/**
+	 * Returns the total protection of this mobile, computed again only if something it
+	 * depends on has changed since the last time.
+	 * 
+	 * @return | result == getTotalProtection()
+	 */
+	protected long getCachedTotalProtection(){
+		if (!combatStatsValid)
+			refreshCombatStats();
+		return this.cachedTotalProtection;
+	}
+	
+	/**
+	 * Returns the damage of this mobile, computed again only if something it depends
+	 * on has changed since the last time.
+	 * 
+	 * @return | result == calculateDamage()
+	 */
+	protected int getCachedDamage(){
+		if (!combatStatsValid)
+			refreshCombatStats();
+		return this.cachedDamage;
+	}
+	
+	/**
+	 * Marks the cached combat stats as outdated. Called when an item is equipped or
+	 * removed, when the strength changes and by the items held by this mobile when
+	 * their protection or damage changes.
+	 * 
+	 * @post | new.getCachedTotalProtection() == getTotalProtection() &&
+	 * 		 | new.getCachedDamage() == calculateDamage()
+	 */
+	@Raw
+	public void invalidateCombatStats(){
+		this.combatStatsValid = false;
+	}
+	
+	/**
+	 * Computes the combat stats and stores them in the cache.
+	 */
+	@Model
+	private void refreshCombatStats(){
+		this.cachedTotalProtection = getTotalProtection();
+		this.cachedDamage = calculateDamage();
+		this.combatStatsValid = true;
+	}
+	
+	/**
+	 * A variable that indicates whether the cached combat stats are up to date.
+	 */
+	private boolean combatStatsValid = false;
+	
+	/**
+	 * A variable that stores the total protection of the last refresh.
+	 */
+	private long cachedTotalProtection;
+	
+	/**
+	 * A variable that stores the damage of the last refresh.
+	 */
+	private int cachedDamage;
+	
 	/************************************************
 	 * Collect Treasures
 	 ************************************************/
@@ -705,9 +1051,10 @@ abstract public class Mobile {
 	 * 
 	 * @param other
 	 * 		 The other mobile to collect items from.
+	 * @return The number of items that were collected.
 	 * @throws InvalidContentException 
 	 */
-	protected abstract void collectTreasures(Mobile other)
+	protected abstract int collectTreasures(Mobile other)
 			throws InvalidContentException;
 	
 	/************************************************
@@ -744,4 +1091,63 @@ abstract public class Mobile {
 	 */
 	private boolean isDead = false;
 	
+	/************************************************
+	 * Recycling
+	 ************************************************/
+	
+	/**
+	 * Empties the anchor points of this dead mobile, so it can be pooled.
+	 * 
+	 * An item at an anchor point is still owned by this mobile only if this mobile is
+	 * its holder and no backpack contains it; an item a killer took has another holder
+	 * or a container. Every item this mobile still holds loses it as its holder, so no
+	 * item refers to this mobile once it is revived. Owned items are released, items
+	 * taken by others are left where they are.
+	 * 
+	 * @pre | getIsDead()
+	 * @post | getNbAnchorpoints() == 0 && getCarriedMilligrams() == 0
+	 * @post | for each item in old.anchorpoints.values():
+	 * 		 |	item.getHolder() != this
+	 * @post | for each item in result:
+	 * 		 |	item.getHolder() == null && item.getContainer() == null
+	 * @return The items this mobile still owned.
+	 */
+	List<Item> releaseItems(){
+		assert getIsDead();
+		List<Item> owned = new ArrayList<Item>(Integer.bitCount(occupiedAnchorpointMask));
+		for (Item item : anchorpoints.values()){
+			if (item.getHolder() != this)
+				continue;
+			item.setHolder(null);
+			if (item.getContainer() == null)
+				owned.add(item);
+		}
+		anchorpoints.clear();
+		occupiedAnchorpointMask = 0;
+		carriedMilligrams = 0L;
+		invalidateCombatStats();
+		return owned;
+	}
+	
+	/**
+	 * Brings this dead mobile back as a new one with full hitpoints, a new identifier,
+	 * no combat log and the given source of random numbers.
+	 * 
+	 * @pre | getIsDead() && getNbAnchorpoints() == 0
+	 * @post | !new.getIsDead()
+	 * @post | new.getCurrentHitpoints() == getMaximumHitpoints()
+	 * @post | new.getID() != getID()
+	 * @post | new.getCombatLog() == null
+	 * @effect | setRandomSource(random)
+	 */
+	void revive(RandomSource random){
+		assert getIsDead() && anchorpoints.isEmpty();
+		setRandomSource(random);
+		this.ID = idGenerator.generateID();
+		this.isDead = false;
+		this.combatLog = null;
+		setCurrentHitpoints(getMaximumHitpoints());
+		invalidateCombatStats();
+	}
+	
 }
@@ -1,11 +1,7 @@
 package rpg;
 
 import java.math.BigDecimal;
-import java.util.ArrayList;
 import java.util.EnumMap;
-import java.util.List;
-import java.util.concurrent.ThreadLocalRandom;
-import java.util.regex.Pattern;
 
 import be.kuleuven.cs.som.annotate.*;
 import rpg.exception.InvalidContentException;
@@ -13,6 +9,7 @@ import rpg.inventory.Anchorpoint;
 import rpg.inventory.Armor;
 import rpg.inventory.Item;
 import rpg.inventory.Weapon;
+import rpg.utility.RandomSource;
 import rpg.value.Unit;
 import rpg.value.Weight;
 
@@ -44,37 +41,112 @@ public class Monster extends Mobile {
 	 *            The items that the monster may possibly wear.
 	 * @post the skin is set to the given skin | this.skin = skin
 	 * @post the claws is set to the given claws. | this.claws = claws
+	 * @post the monster holds its skin and claws, so changes to them reach its
+	 *       combat stats. | skin.getHolder() == this && claws.getHolder() == this
 	 * @effect A random number of anchorpoints are valid for the monster. | let
-	 *         valid = new ArrayList<Anchorpoint>() | for (Anchorpoint
-	 *         anchorpoint: Anchorpoint) | valid.add(Anchorpoint(anchorpoint)) |
-	 *         let random = ThreadLocalRandom.current().nextInt(0, 6); | let
-	 *         ableToSet = valid.subList(0, random+1) |
-	 *         this.setValidAnchorpoints(ableToSet)
+	 *         random = RandomSource.threadLocal().nextInt(0, 6) |
+	 *         this.setValidAnchorpointMask(MONSTER_ANCHORPOINTS[random])
 	 * @effect The items that can be set on a anchorpoint are set. | for
 	 *         (EnumMap.Entry<Anchorpoint, Item> entry : items.entrySet()){ | if
-	 *         (ableToSet.contains(entry.getKey())) |
+	 *         (canHaveAsAnchorpoint(entry.getKey())) |
 	 *         setItemAt(entry.getValue(),entry.getKey())
 	 */
 	public Monster(String name, long hitpoints, BigDecimal strength, Weapon claws, Armor skin,
 			EnumMap<Anchorpoint, Item> items) throws IllegalArgumentException {
-		super(name, hitpoints, strength);
+		this(name, hitpoints, strength, claws, skin, items, RandomSource.threadLocal());
+	}
+
+	/**
+	 * Initialiazes a new monster like the constructor above, but draws the random
+	 * numbers of the monster, including those of its valid anchorpoints, from the given
+	 * source.
+	 * 
+	 * @param random
+	 *            The source of the random numbers of the monster.
+	 * @effect | super(name, hitpoints, strength, random)
+	 * @effect The number of valid anchorpoints is drawn from the given source. |
+	 *         this.setValidAnchorpointMask(MONSTER_ANCHORPOINTS[random.nextInt(0, 6)])
+	 */
+	public Monster(String name, long hitpoints, BigDecimal strength, Weapon claws, Armor skin,
+			EnumMap<Anchorpoint, Item> items, RandomSource random) throws IllegalArgumentException {
+		super(name, hitpoints, strength, random);
+		this.template = null;
 		this.skin = skin;
 		this.claws = claws;
-		List<Anchorpoint> valid = new ArrayList<Anchorpoint>();
-		valid.add(Anchorpoint.LEFT);
-		valid.add(Anchorpoint.RIGHT);
-		valid.add(Anchorpoint.BODY);
-		valid.add(Anchorpoint.BELT);
-		valid.add(Anchorpoint.BACK);
-		int random = ThreadLocalRandom.current().nextInt(0, 6);
-		List<Anchorpoint> ableToSet = valid.subList(0, random);
-		this.setValidAnchorpoints(ableToSet);
+		skin.setHolder(this);
+		claws.setHolder(this);
+		this.setValidAnchorpointMask(MONSTER_ANCHORPOINTS[random.nextInt(0, 6)]);
 		for (EnumMap.Entry<Anchorpoint, Item> entry : items.entrySet()) {
-			if (ableToSet.contains(entry.getKey()))
+			if (canHaveAsAnchorpoint(entry.getKey()))
 				setItemAt(entry.getValue(), entry.getKey());
 		}
 	}
 
+	/**
+	 * Initializes a new monster of the kind of the given template. The monster only
+	 * holds its own hitpoints, items and skin wear; its claws and skin are made from
+	 * the definitions of the template the first time they are asked for.
+	 * 
+	 * @param template
+	 *            The template to spawn the monster from.
+	 * @param random
+	 *            The source of the random numbers of the monster.
+	 * @effect | super(template.getName(), template.getHitpoints(),
+	 *         | 	template.getStrength(), random)
+	 * @effect | this.setValidAnchorpointMask(template.getAnchorpointMask())
+	 * @post | new.getTemplate() == template
+	 * @post | new.getTotalProtection() == template.getSkinProtection()
+	 */
+	Monster(MonsterTemplate template, RandomSource random) {
+		super(template.getName(), template.getHitpoints(), template.getStrength(), random);
+		this.template = template;
+		this.skinProtection = template.getSkinProtection();
+		this.setValidAnchorpointMask(template.getAnchorpointMask());
+	}
+
+	/**
+	 * Returns the template this monster was spawned from, or null if it was made with
+	 * its own claws and skin.
+	 */
+	@Basic
+	@Raw
+	@Immutable
+	public MonsterTemplate getTemplate() {
+		return this.template;
+	}
+
+	/**
+	 * A variable referencing the template this monster was spawned from.
+	 */
+	private final MonsterTemplate template;
+
+	/**
+	 * Returns the mask of the first given number of anchorpoints a monster can use.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             | nbAnchorpoints < 0 || nbAnchorpoints > 5
+	 */
+	static int getAnchorpointMask(int nbAnchorpoints) throws IllegalArgumentException {
+		if (nbAnchorpoints < 0 || nbAnchorpoints >= MONSTER_ANCHORPOINTS.length)
+			throw new IllegalArgumentException("Invalid number of anchorpoints: " + nbAnchorpoints);
+		return MONSTER_ANCHORPOINTS[nbAnchorpoints];
+	}
+
+	/**
+	 * The masks of valid anchorpoints a monster can get, indexed by their number of
+	 * anchorpoints. A monster with n anchorpoints can use the first n of LEFT, RIGHT,
+	 * BODY, BELT and BACK.
+	 */
+	private static final int[] MONSTER_ANCHORPOINTS = new int[6];
+
+	static {
+		Anchorpoint[] order = { Anchorpoint.LEFT, Anchorpoint.RIGHT, Anchorpoint.BODY,
+				Anchorpoint.BELT, Anchorpoint.BACK };
+		for (int i = 0; i < order.length; i++) {
+			MONSTER_ANCHORPOINTS[i + 1] = MONSTER_ANCHORPOINTS[i] | order[i].getMask();
+		}
+	}
+
 	/************************************************
 	 * Name
 	 ************************************************/
@@ -82,20 +154,14 @@ public class Monster extends Mobile {
 	/**
 	 * Checks whether the given name is a valid one.
 	 * 
-	 * @return True if the given names satisfies the validNamePattern. | result
-	 *         == validNamePattern.matcher(name).matches()
+	 * @return True if the given name is valid for a monster.
+	 *         | result == NameValidator.MONSTER.isValid(heroName)
 	 */
 	@Override
 	public boolean isValidName(String heroName) {
-		return pattern.matcher(heroName).matches();
-
+		return NameValidator.MONSTER.isValid(heroName);
 	}
 
-	/**
-	 * A pattern with the valid name pattern for a monster.
-	 */
-	private static final Pattern pattern = Pattern.compile("['A-Za-z\\s]+");
-
 	/************************************************
 	 * Capacity
 	 ************************************************/
@@ -109,49 +175,86 @@ public class Monster extends Mobile {
 	 *         Weigth(result,Unit.kg)
 	 */
 	public Weight getCapacity() {
-		BigDecimal strength = this.getRawStrength();
-		BigDecimal result = strength.multiply(BigDecimal.valueOf(9));
-		return new Weight(result, Unit.kg);
+		long rawStrength = this.getRawStrengthHundredths();
+		if (capacity == null || capacityStrength != rawStrength) {
+			long result = Math.multiplyExact(rawStrength, 9L);
+			capacity = new Weight(BigDecimal.valueOf(result, 2), Unit.kg);
+			capacityStrength = rawStrength;
+		}
+		return capacity;
 	}
 
+	/**
+	 * A variable storing the capacity of the last computation.
+	 */
+	private Weight capacity = null;
+
+	/**
+	 * A variable storing the strength in hundredths that the capacity belongs to.
+	 */
+	private long capacityStrength;
+
 	/************************************************
 	 * Protection And Damage
 	 ************************************************/
 
 	/**
 	 * Returns the total protection
+	 * 
+	 * @return | result == getSkin().getCurrentProtection()
 	 */
-	@Basic
 	@Raw
 	public long getTotalProtection() {
-		return getSkin().getCurrentProtection();
+		Armor skin = this.skin;
+		return (skin == null) ? skinProtection : skin.getCurrentProtection();
 	}
 
 	/**
-	 * Returns the skin.
+	 * Returns the skin. A monster spawned from a template gets its own skin, with the
+	 * wear it has now, the first time this is called.
+	 * 
+	 * @return | result.getHolder() == this
 	 */
-	@Basic
 	@Raw
 	public Armor getSkin() {
+		if (this.skin == null) {
+			Armor skin = template.createSkin(skinProtection);
+			skin.setHolder(this);
+			this.skin = skin;
+		}
 		return this.skin;
 	}
 
 	/**
-	 * Returns the claws.
+	 * Returns the claws. A monster spawned from a template gets its own claws the first
+	 * time this is called.
+	 * 
+	 * @return | result.getHolder() == this
 	 */
-	@Basic
 	@Raw
 	public Weapon getClaws() {
+		if (this.claws == null) {
+			Weapon claws = template.createClaws();
+			claws.setHolder(this);
+			this.claws = claws;
+		}
 		return this.claws;
 	}
 
 	/**
-	 * A variable referencing the skin of this monster.
+	 * A variable referencing the skin of this monster, or null if it is spawned from a
+	 * template and nobody asked for its skin yet.
 	 */
 	private Armor skin;
 
 	/**
-	 * A variable referencing the claws of this monster.
+	 * A variable storing the protection of the skin as long as the skin is not made.
+	 */
+	private int skinProtection;
+
+	/**
+	 * A variable referencing the claws of this monster, or null if it is spawned from a
+	 * template and nobody asked for its claws yet.
 	 */
 	private Weapon claws;
 
@@ -189,13 +292,13 @@ public class Monster extends Mobile {
 	 * 		   | for one I in 1..100 
 	 * 	       | 	result == I.
 	 * @return CurrentHitpoints
-	 * 		  | let random = ThreadLocalRandom.current().nextInt(0, 100 + 1);
+	 * 		  | let random = getRandomSource().nextInt(0, 100 + 1);
 	 * 		  | 	if (random>=this.getCurrentHitpoints()){
 	 *		  |	 		 result == (int)this.getCurrentHitpoints();
 	 */		
 	@Override
 	protected int randomZeroToHundred(){
-		int random = ThreadLocalRandom.current().nextInt(0, 100 + 1);
+		int random = getRandomSource().nextInt(0, 100 + 1);
 		if (random>=this.getCurrentHitpoints()){
 			return (int)this.getCurrentHitpoints();
 		}
@@ -207,12 +310,13 @@ public class Monster extends Mobile {
 	 * Gets the total strength of this a monter.
 	 * 
 	 * @return The total strength of the monser. | let result =
-	 *         this.getRawStrength().intValue() | result ==
+	 *         this.getRawStrengthIntValue() | result ==
 	 *         getClaws().getStrength() + result
 	 */
 	protected int getTotalStrength() {
-		int result = this.getRawStrength().intValue();
-		return getClaws().getDamage() + result;
+		int result = this.getRawStrengthIntValue();
+		Weapon claws = this.claws;
+		return ((claws == null) ? template.getClawDamage() : claws.getDamage()) + result;
 	}
 
 	/**
@@ -238,28 +342,30 @@ public class Monster extends Mobile {
 	 * @param other
 	 *            The other mobile.
 	 * @effect The monster switches a random number of his items with the dead
-	 *         other. | let random = ThreadLocalRandom.current().nextInt(0,
+	 *         other. | let random = getRandomSource().nextInt(0,
 	 *         other.getNbAnchorpoints() + 1) | let otherAnchorpoints =
 	 *         other.getAnchorpoints() | let i = 0 | for
 	 *         (EnumMap.Entry<Anchorpoint, Item> entry :
 	 *         otherAnchorpoints.entrySet()) | if (i>random) | break | else
 	 *         changeItem(entry.getValue(),entry.getKey()) | i++
+	 * @return The number of items that were taken from the other.
 	 */
 	@Override
-	protected void collectTreasures(Mobile other) throws InvalidContentException {
-		int random = ThreadLocalRandom.current().nextInt(0, other.getNbAnchorpoints() + 1);
+	protected int collectTreasures(Mobile other) throws InvalidContentException {
+		int random = getRandomSource().nextInt(0, other.getNbAnchorpoints() + 1);
 		EnumMap<Anchorpoint, Item> otherAnchorpoints = other.getAnchorpoints();
 		int i = 0;
+		int collected = 0;
 
 		for (EnumMap.Entry<Anchorpoint, Item> entry : otherAnchorpoints.entrySet()) {
 			if (i >= random) {
 				break;
-			} else {
-				changeItem(entry.getValue(), entry.getKey());
+			} else if (changeItem(entry.getValue(), entry.getKey())) {
+				collected++;
 			}
 			i++;
 		}
-
+		return collected;
 	}
 
 	/**
@@ -272,15 +378,49 @@ public class Monster extends Mobile {
 	 * @effect The old item is removed and the new is added. |
 	 *         this.removeItemAt(anchorpoint) | this.setItemAt(item,
 	 *         anchorpoint)
+	 * @return True iff the anchorpoint is valid for this monster and the item was set.
+	 *         | result == this.canHaveAsAnchorpoint(anchorpoint)
 	 */
-	private void changeItem(Item item, Anchorpoint anchorpoint) throws IllegalArgumentException {
-		if (this.getValidAnchorpoints().contains(anchorpoint)){
+	private boolean changeItem(Item item, Anchorpoint anchorpoint) throws IllegalArgumentException {
+		if (this.canHaveAsAnchorpoint(anchorpoint)){
 			if (this.getItemAt(anchorpoint)!= null){
 				this.removeItemAt(anchorpoint);
 			}
 			this.setItemAt(item, anchorpoint);
+			return true;
 		}
+		return false;
+	}
 
+	/************************************************
+	 * Recycling
+	 ************************************************/
+
+	/**
+	 * Brings this dead monster back as a new monster of its template. The claws and
+	 * skin it already made are kept, repaired to the definitions of the template.
+	 * 
+	 * @pre | getTemplate() != null
+	 * @effect | super.revive(random)
+	 * @post | new.getMaximumHitpoints() == getTemplate().getHitpoints()
+	 * @post | new.getRawStrength().compareTo(getTemplate().getStrength()) == 0
+	 * @post | new.getValidAnchorpointMask() == getTemplate().getAnchorpointMask()
+	 * @post | new.getTotalProtection() == getTemplate().getSkinProtection()
+	 * @post | new.calculateDamage() == (int) (getTemplate().getStrength().intValue()
+	 *       |	+ getTemplate().getClawDamage() - 10) / 2
+	 */
+	@Override
+	void revive(RandomSource random) {
+		assert template != null;
+		setMaximumHitpoints(template.getHitpoints());
+		setRawStrength(template.getStrength());
+		setValidAnchorpointMask(template.getAnchorpointMask());
+		skinProtection = template.getSkinProtection();
+		if (skin != null && skin.getCurrentProtection() != skinProtection)
+			skin.setCurrentProtection(skinProtection);
+		if (claws != null && claws.getDamage() != template.getClawDamage())
+			claws.setDamage(template.getClawDamage());
+		super.revive(random);
 	}
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,165 @@
+package rpg;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import be.kuleuven.cs.som.annotate.*;
+import rpg.inventory.Item;
+import rpg.inventory.ItemPool;
+import rpg.simulation.MobileTemplate;
+import rpg.utility.RandomSource;
+
+/**
+ * An opt-in pool of dead monsters of one template, which hands them out again as new
+ * monsters instead of spawning fresh ones.
+ *
+ * Ownership is passed along with every call:
+ * - release takes a dead monster from the caller, who must drop every reference to
+ *   it, as the pool will hand it out again as another monster with another identifier;
+ * - the items the dead monster still owned, those it holds itself and no backpack
+ *   contains, go to the item pool of this pool, free of holder and container; items a
+ *   killer took stay with the killer and are only forgotten by the dead monster;
+ * - create hands a monster to the caller, as if it was spawned from the template.
+ *
+ * A pool is not thread-safe; give every spawning thread its own pool.
+ *
+ * @invar | getSize() <= getCapacity()
+ * @author Robbe, Elias
+ */
+public final class MonsterPool implements MobileTemplate<Monster> {
+
+	/**
+	 * Creates an empty pool of monsters of the given template.
+	 *
+	 * @param template
+	 *            The template of every monster of the pool.
+	 * @param capacity
+	 *            The largest number of dead monsters the pool holds.
+	 * @param items
+	 *            The pool the items owned by released monsters go to, or null if they
+	 *            are left to the garbage collector.
+	 * @throws IllegalArgumentException
+	 *             | template == null || capacity < 0
+	 */
+	public MonsterPool(MonsterTemplate template, int capacity, ItemPool items) throws IllegalArgumentException {
+		if (template == null)
+			throw new IllegalArgumentException("Non-effective template");
+		if (capacity < 0)
+			throw new IllegalArgumentException("Negative capacity: " + capacity);
+		this.template = template;
+		this.capacity = capacity;
+		this.items = items;
+	}
+
+	/**
+	 * Returns the template of every monster of this pool.
+	 */
+	@Basic
+	@Immutable
+	public MonsterTemplate getTemplate() {
+		return this.template;
+	}
+
+	/**
+	 * Returns the largest number of dead monsters in this pool.
+	 */
+	@Basic
+	@Immutable
+	public int getCapacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * Returns the pool the items of released monsters go to, or null.
+	 */
+	@Basic
+	@Immutable
+	public ItemPool getItemPool() {
+		return this.items;
+	}
+
+	/**
+	 * Returns the number of dead monsters in this pool.
+	 */
+	public int getSize() {
+		return free.size();
+	}
+
+	/**
+	 * Hands out a monster of the template of this pool, revived from a dead one if
+	 * there is one and spawned from the template otherwise.
+	 *
+	 * @return A monster with full hitpoints that is not referenced by anything else.
+	 *         | result.getTemplate() == getTemplate() && !result.getIsDead()
+	 *         | && result.getNbAnchorpoints() == 0
+	 */
+	@Override
+	public Monster create(RandomSource random) {
+		Monster monster = free.pollFirst();
+		if (monster == null)
+			return template.create(random);
+		pooled.remove(monster);
+		monster.revive(random);
+		return monster;
+	}
+
+	/**
+	 * Takes the given dead monster into this pool, if there is room for it.
+	 *
+	 * @param monster
+	 *            The monster to pool. The caller gives up its references to it.
+	 * @effect The items the monster still owned are released to the item pool, if
+	 *         there is one.
+	 *         | for each item in monster.releaseItems():
+	 *         |	if (getItemPool() != null) then getItemPool().release(item)
+	 * @return True iff the monster was pooled.
+	 *         | result == (getSize() < getCapacity())
+	 * @throws IllegalArgumentException
+	 *             The monster is not effective, not dead, not of the template of this
+	 *             pool or already in this pool.
+	 */
+	public boolean release(Monster monster) throws IllegalArgumentException {
+		if (monster == null || !monster.getIsDead())
+			throw new IllegalArgumentException("Only dead monsters can be pooled");
+		if (monster.getTemplate() != template)
+			throw new IllegalArgumentException("Monster of another template: " + monster.getTemplate());
+		if (pooled.contains(monster))
+			throw new IllegalArgumentException("Monster is already pooled");
+		for (Item item : monster.releaseItems()) {
+			if (items != null)
+				items.release(item);
+		}
+		if (free.size() >= capacity)
+			return false;
+		free.addLast(monster);
+		pooled.add(monster);
+		return true;
+	}
+
+	/**
+	 * The template of every monster of this pool.
+	 */
+	private final MonsterTemplate template;
+
+	/**
+	 * The largest number of dead monsters in this pool.
+	 */
+	private final int capacity;
+
+	/**
+	 * The pool the items of released monsters go to, or null.
+	 */
+	private final ItemPool items;
+
+	/**
+	 * The dead monsters, in the order they were released.
+	 */
+	private final ArrayDeque<Monster> free = new ArrayDeque<Monster>();
+
+	/**
+	 * The dead monsters, to find monsters that are released twice.
+	 */
+	private final Set<Monster> pooled = Collections.newSetFromMap(new IdentityHashMap<Monster, Boolean>());
+}
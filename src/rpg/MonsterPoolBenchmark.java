@@ -0,0 +1,104 @@
+package rpg;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+
+import rpg.inventory.Anchorpoint;
+import rpg.inventory.ItemPool;
+import rpg.inventory.Weapon;
+import rpg.simulation.MobileTemplate;
+import rpg.utility.RandomSource;
+import rpg.utility.SplittableRandomSource;
+import rpg.value.DucatAmount;
+import rpg.value.Unit;
+import rpg.value.Weight;
+
+/**
+ * A small benchmark of the pressure a high-churn simulation puts on the garbage
+ * collector, with and without pools.
+ *
+ * A population of armed goblins is kept alive; every step one of them dies and is
+ * replaced by a new goblin that is armed again. It prints the bytes allocated per
+ * replacement, the collections they caused and the replacements per second.
+ *
+ * @author Robbe, Elias
+ */
+public class MonsterPoolBenchmark {
+
+	/**
+	 * The number of goblins that are alive at any time.
+	 */
+	private static final int POPULATION = 10000;
+
+	/**
+	 * The number of goblins that die and are replaced per measurement.
+	 */
+	private static final int REPLACEMENTS = 5000000;
+
+	private static final Weight TEN_KG = new Weight(BigDecimal.TEN, Unit.kg);
+
+	private static final MonsterTemplate GOBLIN = new MonsterTemplate("Goblin", 61L, BigDecimal.valueOf(20),
+			TEN_KG, 14, TEN_KG, new DucatAmount(BigDecimal.TEN), 7, 2);
+
+	public static void main(String[] args) {
+		for (int round = 0; round < 3; round++) {
+			System.out.println(String.format("round %d, %,d replacements", round, REPLACEMENTS));
+			measure("  no pool", null, null);
+			ItemPool items = new ItemPool(POPULATION);
+			measure("  pooled ", new MonsterPool(GOBLIN, POPULATION, items), items);
+		}
+	}
+
+	/**
+	 * Runs the churn with the given pools, or without pools if they are null.
+	 */
+	private static void measure(String label, MonsterPool monsters, ItemPool items) {
+		MobileTemplate<Monster> spawner = (monsters == null) ? GOBLIN : monsters;
+		RandomSource random = new SplittableRandomSource(1L);
+		Monster[] population = new Monster[POPULATION];
+		for (int i = 0; i < POPULATION; i++)
+			population[i] = arm(spawner.create(random), items);
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long allocated = threads.getCurrentThreadAllocatedBytes();
+		long[] collections = collections();
+		long start = System.nanoTime();
+		for (int i = 0; i < REPLACEMENTS; i++) {
+			int slot = i % POPULATION;
+			Monster dead = population[slot];
+			dead.setIsDead(true);
+			if (monsters != null)
+				monsters.release(dead);
+			population[slot] = arm(spawner.create(random), items);
+		}
+		long elapsed = System.nanoTime() - start;
+		allocated = threads.getCurrentThreadAllocatedBytes() - allocated;
+		long[] after = collections();
+		System.out.println(String.format("%s: %6.1f bytes/replacement, %4d collections, %5d ms in gc, %,12.0f replacements/s",
+				label, (double) allocated / REPLACEMENTS, after[0] - collections[0], after[1] - collections[1],
+				REPLACEMENTS / (elapsed / 1e9)));
+	}
+
+	/**
+	 * Arms the given goblin with a weapon from the given pool, or a new one.
+	 */
+	private static Monster arm(Monster goblin, ItemPool items) {
+		Weapon weapon = (items == null) ? null : items.acquire(Weapon.class);
+		if (weapon == null)
+			weapon = new Weapon(TEN_KG, 7);
+		goblin.setItemAt(weapon, Anchorpoint.LEFT);
+		return goblin;
+	}
+
+	/**
+	 * Returns the number of collections and the milliseconds spent in them so far.
+	 */
+	private static long[] collections() {
+		long[] result = new long[2];
+		for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+			result[0] += Math.max(0L, collector.getCollectionCount());
+			result[1] += Math.max(0L, collector.getCollectionTime());
+		}
+		return result;
+	}
+}
@@ -0,0 +1,142 @@
+package rpg;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import rpg.exception.InvalidContentException;
+import rpg.inventory.Anchorpoint;
+import rpg.inventory.Armor;
+import rpg.inventory.Backpack;
+import rpg.inventory.Item;
+import rpg.inventory.ItemPool;
+import rpg.inventory.Weapon;
+import rpg.utility.SplittableRandomSource;
+import rpg.value.DucatAmount;
+import rpg.value.Unit;
+import rpg.value.Weight;
+
+public class MonsterPoolTest {
+
+	private static final Weight TEN_KG = new Weight(BigDecimal.TEN, Unit.kg);
+
+	private static final MonsterTemplate GOBLIN = new MonsterTemplate("Goblin", 61L, BigDecimal.valueOf(20),
+			TEN_KG, 14, TEN_KG, new DucatAmount(BigDecimal.TEN), 7, 2);
+
+	private ItemPool items;
+	private MonsterPool pool;
+
+	@Before
+	public void setUp() {
+		items = new ItemPool(10);
+		pool = new MonsterPool(GOBLIN, 2, items);
+	}
+
+	@Test
+	public void revivedMonsterIsClean() {
+		Monster goblin = pool.create(new SplittableRandomSource(1L));
+		long id = goblin.getID();
+		goblin.getSkin().setCurrentProtection(2);
+		goblin.setCurrentHitpoints(0);
+		goblin.setIsDead(true);
+		assertTrue(pool.release(goblin));
+		assertEquals(1, pool.getSize());
+
+		assertSame(goblin, pool.create(new SplittableRandomSource(2L)));
+		assertEquals(0, pool.getSize());
+		assertFalse(goblin.getIsDead());
+		assertEquals(61L, goblin.getCurrentHitpoints());
+		assertEquals(7L, goblin.getTotalProtection());
+		assertNotEquals(id, goblin.getID());
+		assertEquals(0, goblin.getNbAnchorpoints());
+		assertEquals(0L, goblin.getCarriedMilligrams());
+		assertNull(goblin.getCombatLog());
+	}
+
+	@Test
+	public void ownedItemsGoToTheItemPool() {
+		Monster goblin = pool.create(new SplittableRandomSource(1L));
+		Weapon weapon = new Weapon(TEN_KG, 7);
+		goblin.setItemAt(weapon, Anchorpoint.LEFT);
+		goblin.setIsDead(true);
+		pool.release(goblin);
+		assertNull(weapon.getHolder());
+		assertEquals(1, items.getSize());
+		assertSame(weapon, items.acquire(Weapon.class));
+		assertNull(items.acquire(Weapon.class));
+	}
+
+	@Test
+	public void claimedItemsStayWithTheirOwner() {
+		Monster goblin = pool.create(new SplittableRandomSource(1L));
+		Monster killer = pool.create(new SplittableRandomSource(2L));
+		Weapon taken = new Weapon(TEN_KG, 7);
+		goblin.setItemAt(taken, Anchorpoint.LEFT);
+		killer.setItemAt(taken, Anchorpoint.RIGHT);
+		goblin.setIsDead(true);
+		pool.release(goblin);
+		assertSame(killer, taken.getHolder());
+		assertSame(taken, killer.getItemAt(Anchorpoint.RIGHT));
+		assertEquals(0, items.getSize());
+	}
+
+	@Test
+	public void lootedItemsForgetTheRevivedMonster() throws InvalidContentException {
+		Monster goblin = pool.create(new SplittableRandomSource(1L));
+		Weapon weapon = new Weapon(TEN_KG, 7);
+		goblin.setItemAt(weapon, Anchorpoint.LEFT);
+		Backpack backpack = new Backpack(TEN_KG, new DucatAmount(BigDecimal.TEN),
+				new Weight(BigDecimal.valueOf(100), Unit.kg));
+		EnumMap<Anchorpoint, Item> gear = new EnumMap<Anchorpoint, Item>(Anchorpoint.class);
+		gear.put(Anchorpoint.BACK, backpack);
+		gear.put(Anchorpoint.BODY, new Armor(TEN_KG, new DucatAmount(BigDecimal.TEN), 10));
+		Hero killer = new Hero("Jimmie", 101L, BigDecimal.valueOf(100), gear);
+		killer.setRandomSource(new SplittableRandomSource(2L));
+		for (int i = 0; i < 1000 && !goblin.getIsDead(); i++)
+			killer.hit(goblin);
+		assertTrue(goblin.getIsDead());
+		assertSame(backpack, weapon.getContainer());
+
+		pool.release(goblin);
+		assertNotSame(goblin, weapon.getHolder());
+		assertEquals(0, items.getSize());
+		assertSame(goblin, pool.create(new SplittableRandomSource(3L)));
+		assertNotSame(goblin, weapon.getHolder());
+		assertSame(backpack, weapon.getContainer());
+	}
+
+	@Test
+	public void fullPoolDropsMonsters() {
+		for (int i = 0; i < 3; i++) {
+			Monster goblin = GOBLIN.create(new SplittableRandomSource(i));
+			goblin.setIsDead(true);
+			assertEquals(i < 2, pool.release(goblin));
+		}
+		assertEquals(2, pool.getSize());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void releaseLivingMonster() {
+		pool.release(GOBLIN.create(new SplittableRandomSource(1L)));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void releaseTwice() {
+		Monster goblin = GOBLIN.create(new SplittableRandomSource(1L));
+		goblin.setIsDead(true);
+		pool.release(goblin);
+		pool.release(goblin);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void releaseHeldItem() {
+		Monster goblin = GOBLIN.create(new SplittableRandomSource(1L));
+		Weapon weapon = new Weapon(TEN_KG, 7);
+		goblin.setItemAt(weapon, Anchorpoint.LEFT);
+		items.release(weapon);
+	}
+}
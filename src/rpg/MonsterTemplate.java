@@ -0,0 +1,285 @@
+package rpg;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+
+import be.kuleuven.cs.som.annotate.*;
+import rpg.inventory.Armor;
+import rpg.inventory.ArmorType;
+import rpg.inventory.Weapon;
+import rpg.simulation.MobileTemplate;
+import rpg.utility.RandomSource;
+import rpg.value.DucatAmount;
+import rpg.value.Weight;
+
+/**
+ * A kind of monster, defined once and shared by every monster spawned from it.
+ *
+ * A template holds the stats every monster of the kind starts with, the definitions of
+ * their claws and skin and the anchorpoints they can use. A monster spawned from a
+ * template only holds what is its own: its hitpoints, its items and the wear of its
+ * skin. It gets its own claws and skin objects, and the identifiers that come with
+ * them, only when they are asked for, so a horde of monsters that only fight never
+ * makes them.
+ *
+ * Templates are immutable and can be used by several threads at once. Templates that
+ * are registered can be looked up by their name.
+ *
+ * @invar The name is a valid name for a monster.
+ *        | NameValidator.MONSTER.isValid(getName())
+ * @invar The hitpoints are valid maximum hitpoints.
+ *        | Mobile.isValidMaximumHitpoints(getHitpoints())
+ * @author Robbe, Elias
+ */
+@Value
+public final class MonsterTemplate implements MobileTemplate<Monster> {
+
+	/**
+	 * Initializes a new template of monsters.
+	 *
+	 * @param name
+	 *            The name of every monster of the kind.
+	 * @param hitpoints
+	 *            The current and maximum hitpoints every monster starts with.
+	 * @param strength
+	 *            The strength every monster starts with.
+	 * @param clawWeight
+	 *            The weight of the claws.
+	 * @param clawDamage
+	 *            The damage of the claws.
+	 * @param skinWeight
+	 *            The weight of the skin.
+	 * @param skinValue
+	 *            The maximum value of the skin.
+	 * @param skinProtection
+	 *            The maximum protection of the skin, which every skin starts with.
+	 * @param nbAnchorpoints
+	 *            The number of anchorpoints every monster can use.
+	 * @pre The claws and skin are valid, as for new Weapon(clawWeight, clawDamage) and
+	 *      new Armor(skinWeight, skinValue, skinProtection, ArmorType.STANDARD).
+	 * @effect | Monster.getAnchorpointMask(nbAnchorpoints)
+	 * @throws IllegalArgumentException
+	 *             The name or strength is not effective, the name is not valid for a
+	 *             monster or the hitpoints are not valid maximum hitpoints.
+	 *             | name == null || strength == null || !NameValidator.MONSTER.isValid(name)
+	 *             |	|| !Mobile.isValidMaximumHitpoints(hitpoints)
+	 */
+	public MonsterTemplate(String name, long hitpoints, BigDecimal strength, Weight clawWeight,
+			int clawDamage, Weight skinWeight, DucatAmount skinValue, int skinProtection,
+			int nbAnchorpoints) throws IllegalArgumentException {
+		if (name == null || strength == null)
+			throw new IllegalArgumentException("Non-effective name or strength");
+		if (!NameValidator.MONSTER.isValid(name))
+			throw new IllegalArgumentException("Invalid monster name: " + name);
+		if (!Mobile.isValidMaximumHitpoints(hitpoints))
+			throw new IllegalArgumentException("Invalid maximum hitpoints: " + hitpoints);
+		this.anchorpointMask = Monster.getAnchorpointMask(nbAnchorpoints);
+		this.name = name;
+		this.hitpoints = hitpoints;
+		this.strength = strength;
+		this.clawWeight = clawWeight;
+		this.clawDamage = clawDamage;
+		this.skinWeight = skinWeight;
+		this.skinValue = skinValue;
+		this.skinProtection = skinProtection;
+	}
+
+	/************************************************
+	 * Registry
+	 ************************************************/
+
+	/**
+	 * Registers the given template under its name.
+	 *
+	 * @param template
+	 *            The template to register.
+	 * @return The given template.
+	 *         | result == template
+	 * @post | get(template.getName()) == template
+	 * @throws IllegalArgumentException
+	 *             The template is not effective, or another template is registered
+	 *             under its name.
+	 *             | template == null || (get(template.getName()) != null
+	 *             |	&& get(template.getName()) != template)
+	 */
+	public static MonsterTemplate register(MonsterTemplate template) throws IllegalArgumentException {
+		if (template == null)
+			throw new IllegalArgumentException("Non-effective template");
+		MonsterTemplate previous = registry.putIfAbsent(template.getName(), template);
+		if (previous != null && previous != template)
+			throw new IllegalArgumentException("A template is already registered as " + template.getName());
+		return template;
+	}
+
+	/**
+	 * Returns the template registered under the given name, or null if there is none.
+	 */
+	public static MonsterTemplate get(String name) {
+		return (name == null) ? null : registry.get(name);
+	}
+
+	/**
+	 * Returns the registered templates.
+	 *
+	 * @return A new collection that cannot be modified.
+	 */
+	public static Collection<MonsterTemplate> getRegistered() {
+		return Collections.unmodifiableCollection(new ArrayList<MonsterTemplate>(registry.values()));
+	}
+
+	/**
+	 * The registered templates by their name.
+	 */
+	private static final ConcurrentHashMap<String, MonsterTemplate> registry = new ConcurrentHashMap<String, MonsterTemplate>();
+
+	/************************************************
+	 * Spawning
+	 ************************************************/
+
+	/**
+	 * Spawns a new monster of this kind.
+	 *
+	 * @param random
+	 *            The source of the random numbers of the monster.
+	 * @return A new monster with full hitpoints that was spawned from this template.
+	 *         | result.getTemplate() == this
+	 *         | && result.getCurrentHitpoints() == getHitpoints()
+	 *         | && result.getValidAnchorpointMask() == getAnchorpointMask()
+	 */
+	@Override
+	public Monster create(RandomSource random) {
+		return new Monster(this, random);
+	}
+
+	/**
+	 * Returns new claws as defined by this template.
+	 */
+	Weapon createClaws() {
+		return new Weapon(clawWeight, clawDamage);
+	}
+
+	/**
+	 * Returns a new skin as defined by this template, with the given protection.
+	 */
+	Armor createSkin(int protection) {
+		Armor skin = new Armor(skinWeight, skinValue, skinProtection, ArmorType.STANDARD);
+		if (protection != skinProtection)
+			skin.setCurrentProtection(protection);
+		return skin;
+	}
+
+	/************************************************
+	 * Stats
+	 ************************************************/
+
+	/**
+	 * Returns the name of every monster of this kind.
+	 */
+	@Basic
+	@Immutable
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Returns the hitpoints every monster of this kind starts with.
+	 */
+	@Basic
+	@Immutable
+	public long getHitpoints() {
+		return this.hitpoints;
+	}
+
+	/**
+	 * Returns the strength every monster of this kind starts with.
+	 */
+	@Basic
+	@Immutable
+	public BigDecimal getStrength() {
+		return this.strength;
+	}
+
+	/**
+	 * Returns the damage of the claws.
+	 */
+	@Basic
+	@Immutable
+	public int getClawDamage() {
+		return this.clawDamage;
+	}
+
+	/**
+	 * Returns the protection every skin of this kind starts with.
+	 */
+	@Basic
+	@Immutable
+	public int getSkinProtection() {
+		return this.skinProtection;
+	}
+
+	/**
+	 * Returns the mask of the anchorpoints every monster of this kind can use.
+	 */
+	@Basic
+	@Immutable
+	public int getAnchorpointMask() {
+		return this.anchorpointMask;
+	}
+
+	/**
+	 * Returns a textual representation of this template.
+	 */
+	@Override
+	public String toString() {
+		return String.format("%s [%d hitpoints, %s strength, %d claw damage, %d skin protection]",
+				name, hitpoints, strength, clawDamage, skinProtection);
+	}
+
+	/**
+	 * The name of every monster of this kind.
+	 */
+	private final String name;
+
+	/**
+	 * The hitpoints every monster of this kind starts with.
+	 */
+	private final long hitpoints;
+
+	/**
+	 * The strength every monster of this kind starts with.
+	 */
+	private final BigDecimal strength;
+
+	/**
+	 * The weight of the claws.
+	 */
+	private final Weight clawWeight;
+
+	/**
+	 * The damage of the claws.
+	 */
+	private final int clawDamage;
+
+	/**
+	 * The weight of the skin.
+	 */
+	private final Weight skinWeight;
+
+	/**
+	 * The maximum value of the skin.
+	 */
+	private final DucatAmount skinValue;
+
+	/**
+	 * The maximum protection of the skin.
+	 */
+	private final int skinProtection;
+
+	/**
+	 * The mask of the anchorpoints every monster of this kind can use.
+	 */
+	private final int anchorpointMask;
+}
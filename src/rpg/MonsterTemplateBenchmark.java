@@ -0,0 +1,83 @@
+package rpg;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+
+import rpg.inventory.Anchorpoint;
+import rpg.inventory.Armor;
+import rpg.inventory.ArmorType;
+import rpg.inventory.Item;
+import rpg.inventory.Weapon;
+import rpg.utility.RandomSource;
+import rpg.utility.SplittableRandomSource;
+import rpg.value.DucatAmount;
+import rpg.value.Unit;
+import rpg.value.Weight;
+
+/**
+ * A small benchmark that compares monsters spawned from a template with monsters that
+ * are made with their own claws and skin.
+ *
+ * It prints the heap taken per monster while a horde is alive and the number of
+ * monsters spawned per second.
+ *
+ * @author Robbe, Elias
+ */
+public class MonsterTemplateBenchmark {
+
+	/**
+	 * The number of monsters of a horde.
+	 */
+	private static final int MONSTERS = 200000;
+
+	private static final Weight TEN_KG = new Weight(BigDecimal.TEN, Unit.kg);
+
+	private static final DucatAmount TEN_DUCATS = new DucatAmount(BigDecimal.TEN);
+
+	private static final MonsterTemplate GOBLIN = new MonsterTemplate("Goblin", 61L, BigDecimal.valueOf(20),
+			TEN_KG, 14, TEN_KG, TEN_DUCATS, 7, 2);
+
+	public static void main(String[] args) {
+		for (int round = 0; round < 3; round++) {
+			System.out.println(String.format("round %d, %,d monsters", round, MONSTERS));
+			measure("  own claws and skin", false);
+			measure("  template         ", true);
+		}
+	}
+
+	/**
+	 * Spawns a horde in one of both ways and prints what it cost.
+	 */
+	private static void measure(String label, boolean template) {
+		RandomSource random = new SplittableRandomSource(1L);
+		Monster[] horde = new Monster[MONSTERS];
+		long before = usedMemory();
+		long start = System.nanoTime();
+		for (int i = 0; i < MONSTERS; i++) {
+			horde[i] = template ? GOBLIN.create(random) : spawnOwn(random);
+		}
+		long elapsed = System.nanoTime() - start;
+		long after = usedMemory();
+		System.out.println(String.format("%s: %6d bytes/monster, %,12.0f monsters/s (check %d)", label,
+				(after - before) / MONSTERS, MONSTERS / (elapsed / 1e9), horde[MONSTERS - 1].getTotalProtection()));
+	}
+
+	/**
+	 * Makes a goblin with its own claws and skin.
+	 */
+	private static Monster spawnOwn(RandomSource random) {
+		return new Monster("Goblin", 61L, BigDecimal.valueOf(20), new Weapon(TEN_KG, 14),
+				new Armor(TEN_KG, TEN_DUCATS, 7, ArmorType.STANDARD), new EnumMap<Anchorpoint, Item>(Anchorpoint.class),
+				random);
+	}
+
+	/**
+	 * Returns the heap in use after a garbage collection.
+	 */
+	private static long usedMemory() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++)
+			System.gc();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
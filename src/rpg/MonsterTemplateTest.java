@@ -0,0 +1,94 @@
+package rpg;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+
+import org.junit.Test;
+
+import rpg.inventory.Anchorpoint;
+import rpg.inventory.Armor;
+import rpg.inventory.ArmorType;
+import rpg.inventory.Item;
+import rpg.inventory.Weapon;
+import rpg.utility.SplittableRandomSource;
+import rpg.value.DucatAmount;
+import rpg.value.Unit;
+import rpg.value.Weight;
+
+public class MonsterTemplateTest {
+
+	private static final Weight TEN_KG = new Weight(BigDecimal.TEN, Unit.kg);
+	private static final DucatAmount TEN_DUCATS = new DucatAmount(BigDecimal.TEN);
+
+	private static MonsterTemplate troll(String name) {
+		return new MonsterTemplate(name, 89L, BigDecimal.valueOf(30), TEN_KG, 21, TEN_KG, TEN_DUCATS, 12, 3);
+	}
+
+	@Test
+	public void spawnedMonsterFightsLikeAMadeOne() {
+		MonsterTemplate template = troll("Troll");
+		Monster spawned = template.create(new SplittableRandomSource(1L));
+		Monster made = new Monster("Troll", 89L, BigDecimal.valueOf(30), new Weapon(TEN_KG, 21),
+				new Armor(TEN_KG, TEN_DUCATS, 12, ArmorType.STANDARD), new EnumMap<Anchorpoint, Item>(Anchorpoint.class));
+		assertSame(template, spawned.getTemplate());
+		assertNull(made.getTemplate());
+		assertEquals(made.getTotalProtection(), spawned.getTotalProtection());
+		assertEquals(made.calculateDamage(), spawned.calculateDamage());
+		assertEquals(89L, spawned.getCurrentHitpoints());
+		assertEquals(3, spawned.getNbValidAnchorpoints());
+		assertTrue(spawned.canHaveAsAnchorpoint(Anchorpoint.BODY));
+		assertFalse(spawned.canHaveAsAnchorpoint(Anchorpoint.BELT));
+	}
+
+	@Test
+	public void clawsAndSkinAreOwnedOnceAsked() {
+		MonsterTemplate template = troll("Troll");
+		Monster first = template.create(new SplittableRandomSource(2L));
+		Monster second = template.create(new SplittableRandomSource(3L));
+		Armor skin = first.getSkin();
+		assertSame(skin, first.getSkin());
+		assertSame(first, skin.getHolder());
+		assertNotSame(skin, second.getSkin());
+		assertSame(first, first.getClaws().getHolder());
+		assertEquals(21, first.getClaws().getDamage());
+
+		skin.setCurrentProtection(5);
+		assertEquals(5L, first.getTotalProtection());
+		assertEquals(12L, second.getTotalProtection());
+		first.getClaws().setDamage(7);
+		assertEquals((30 + 7 - 10) / 2, first.calculateDamage());
+		assertEquals((30 + 21 - 10) / 2, second.calculateDamage());
+	}
+
+	@Test
+	public void registry() {
+		MonsterTemplate template = MonsterTemplate.register(troll("Cave troll"));
+		assertSame(template, MonsterTemplate.get("Cave troll"));
+		assertSame(template, MonsterTemplate.register(template));
+		assertTrue(MonsterTemplate.getRegistered().contains(template));
+		assertNull(MonsterTemplate.get("Nobody"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void registerTwoTemplatesUnderOneName() {
+		MonsterTemplate.register(troll("Hill troll"));
+		MonsterTemplate.register(troll("Hill troll"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void tooManyAnchorpoints() {
+		new MonsterTemplate("Hydra", 89L, BigDecimal.TEN, TEN_KG, 21, TEN_KG, TEN_DUCATS, 12, 6);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidName() {
+		troll("Troll 2");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void hitpointsThatAreNotPrime() {
+		new MonsterTemplate("Troll", 90L, BigDecimal.TEN, TEN_KG, 21, TEN_KG, TEN_DUCATS, 12, 3);
+	}
+}
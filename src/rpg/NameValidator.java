@@ -0,0 +1,240 @@
+package rpg;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The rules for the names of each kind of mobile, checked in a single pass over the
+ * characters of a name.
+ *
+ * Every validator gives the same result as the regular expressions the rules were
+ * first written with, which are kept as the reference in matchesPatterns. A name that
+ * is not effective is rejected with a NullPointerException, as by those patterns.
+ *
+ * Validators keep no state and may be used by several threads at once. A roster of
+ * names is checked with validateAll, which splits it over a fork/join pool.
+ *
+ * @author Robbe, Elias
+ */
+public enum NameValidator {
+
+	/**
+	 * A hero name starts with a capital letter, followed by at least one letter,
+	 * white space, colon or apostrophe, and has at most two apostrophes.
+	 */
+	HERO {
+		@Override
+		public boolean isValid(CharSequence name){
+			int length = name.length();
+			if (length < 2)
+				return false;
+			char first = name.charAt(0);
+			if (first < 'A' || first > 'Z')
+				return false;
+			int apostrophes = 0;
+			for (int i = 1; i < length; i++){
+				char c = name.charAt(i);
+				if (c == '\''){
+					if (++apostrophes > 2)
+						return false;
+				} else if (c != ':' && !isLetterOrSpace(c)){
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		boolean matchesPatterns(CharSequence name){
+			boolean nameIsValid = heroPattern.matcher(name).matches();
+			int numberOfApos = 0;
+			Matcher matcher = heroApostrophe.matcher(name);
+			while (matcher.find())
+				numberOfApos++;
+			// Without the MULTILINE flag, ^ only matches at the start of the name, so
+			// this pattern never matches after a colon and never rejects a name.
+			boolean colonNotSpace = heroColonSpace.matcher(name).matches();
+			return nameIsValid && numberOfApos <= 2 && !colonNotSpace;
+		}
+	},
+
+	/**
+	 * A monster name consists of at least one letter, white space or apostrophe.
+	 */
+	MONSTER {
+		@Override
+		public boolean isValid(CharSequence name){
+			int length = name.length();
+			if (length == 0)
+				return false;
+			for (int i = 0; i < length; i++){
+				char c = name.charAt(i);
+				if (c != '\'' && !isLetterOrSpace(c))
+					return false;
+			}
+			return true;
+		}
+
+		@Override
+		boolean matchesPatterns(CharSequence name){
+			return monsterPattern.matcher(name).matches();
+		}
+	};
+
+	/**
+	 * Checks whether the given name is valid for this kind of mobile.
+	 *
+	 * @return | result == matchesPatterns(name)
+	 * @throws NullPointerException
+	 * 		   | name == null
+	 */
+	public abstract boolean isValid(CharSequence name) throws NullPointerException;
+
+	/**
+	 * Checks the given name against the regular expressions of this kind of mobile.
+	 */
+	abstract boolean matchesPatterns(CharSequence name);
+
+	/**
+	 * Checks whether the given character is an ASCII letter or white space as meant by
+	 * \s in a regular expression: a space, tab, line feed, vertical tab, form feed or
+	 * carriage return.
+	 */
+	private static boolean isLetterOrSpace(char c){
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == ' '
+				|| (c >= '\t' && c <= '\r');
+	}
+
+	/************************************************
+	 * Rosters
+	 ************************************************/
+
+	/**
+	 * The number of names a fork/join task checks itself instead of splitting further.
+	 * A multiple of 64, so every task writes its own words of the result.
+	 */
+	private static final int NAMES_PER_TASK = 64 * 256;
+
+	/**
+	 * Checks all given names on the common fork/join pool.
+	 *
+	 * @effect | validateAll(names, ForkJoinPool.commonPool())
+	 */
+	public int[] validateAll(CharSequence[] names) throws IllegalArgumentException {
+		return validateAll(names, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Checks all given names on the given pool.
+	 *
+	 * @param names
+	 * 		  The names to check. Names that are not effective are invalid.
+	 * @param pool
+	 * 		  The pool to check the names on.
+	 * @return The indices of the invalid names, in ascending order.
+	 * 		   | for each i in 0..names.length - 1:
+	 * 		   |	contains(result, i) == (names[i] == null || !isValid(names[i]))
+	 * @throws IllegalArgumentException
+	 * 		   | names == null || pool == null
+	 */
+	public int[] validateAll(CharSequence[] names, ForkJoinPool pool) throws IllegalArgumentException {
+		if (names == null || pool == null)
+			throw new IllegalArgumentException("Non-effective names or pool");
+		long[] invalid = new long[(names.length + 63) >>> 6];
+		ValidateTask task = new ValidateTask(names, invalid, 0, names.length);
+		if (names.length <= NAMES_PER_TASK)
+			task.compute();
+		else
+			pool.invoke(task);
+		int count = 0;
+		for (long word : invalid)
+			count += Long.bitCount(word);
+		int[] result = new int[count];
+		int next = 0;
+		for (int w = 0; w < invalid.length; w++){
+			long word = invalid[w];
+			while (word != 0){
+				result[next++] = (w << 6) + Long.numberOfTrailingZeros(word);
+				word &= word - 1;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * A task that marks the invalid names of a range of a roster.
+	 */
+	private class ValidateTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private ValidateTask(CharSequence[] names, long[] invalid, int from, int to){
+			this.names = names;
+			this.invalid = invalid;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute(){
+			if (to - from <= NAMES_PER_TASK){
+				for (int i = from; i < to; i++){
+					CharSequence name = names[i];
+					if (name == null || !isValid(name))
+						invalid[i >>> 6] |= 1L << i;
+				}
+				return;
+			}
+			// Split on a multiple of 64, so both halves write different words.
+			int middle = ((from + to) >>> 1) & ~63;
+			invokeAll(new ValidateTask(names, invalid, from, middle),
+					new ValidateTask(names, invalid, middle, to));
+		}
+
+		/**
+		 * The roster.
+		 */
+		private final CharSequence[] names;
+
+		/**
+		 * One bit per name of the roster, set if the name is invalid.
+		 */
+		private final long[] invalid;
+
+		/**
+		 * The first name of the range.
+		 */
+		private final int from;
+
+		/**
+		 * The name after the last one of the range.
+		 */
+		private final int to;
+	}
+
+	/************************************************
+	 * Patterns
+	 ************************************************/
+
+	/**
+	 * The pattern of a hero name, apart from the number of apostrophes.
+	 */
+	private static final Pattern heroPattern = Pattern.compile("[A-Z][:'A-Za-z\\s]+");
+
+	/**
+	 * An apostrophe, to count them in a hero name.
+	 */
+	private static final Pattern heroApostrophe = Pattern.compile("'");
+
+	/**
+	 * The pattern of a colon that is not followed by white space in a hero name.
+	 */
+	private static final Pattern heroColonSpace = Pattern.compile(":^\\s");
+
+	/**
+	 * The pattern of a monster name.
+	 */
+	private static final Pattern monsterPattern = Pattern.compile("['A-Za-z\\s]+");
+}
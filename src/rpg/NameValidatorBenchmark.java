@@ -0,0 +1,82 @@
+package rpg;
+
+import java.util.Random;
+
+/**
+ * A small benchmark that compares the single pass name validators with the regular
+ * expressions they replace.
+ *
+ * It prints the names checked per second by the patterns, by the single pass and by a
+ * parallel check of the whole roster.
+ *
+ * @author Robbe, Elias
+ */
+public class NameValidatorBenchmark {
+
+	/**
+	 * The number of names of a roster.
+	 */
+	private static final int NAMES = 1000000;
+
+	/**
+	 * Characters names are made of, mostly valid ones.
+	 */
+	private static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz      ':0";
+
+	public static void main(String[] args) {
+		CharSequence[] names = roster(new Random(1L));
+		for (int round = 0; round < 5; round++) {
+			System.out.println(String.format("round %d, %,d names", round, NAMES));
+			for (NameValidator validator : NameValidator.values()) {
+				measurePatterns("  " + validator + " patterns   ", validator, names);
+				measureSinglePass("  " + validator + " single pass", validator, names);
+				measureRoster("  " + validator + " roster     ", validator, names);
+			}
+		}
+	}
+
+	/**
+	 * Returns a roster of names that start with a capital and are up to 24 characters
+	 * long.
+	 */
+	private static CharSequence[] roster(Random random) {
+		CharSequence[] names = new CharSequence[NAMES];
+		for (int i = 0; i < NAMES; i++) {
+			int length = 2 + random.nextInt(23);
+			StringBuilder name = new StringBuilder(length);
+			name.append((char) ('A' + random.nextInt(26)));
+			for (int k = 1; k < length; k++)
+				name.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+			names[i] = name.toString();
+		}
+		return names;
+	}
+
+	private static void measurePatterns(String label, NameValidator validator, CharSequence[] names) {
+		long start = System.nanoTime();
+		int invalid = 0;
+		for (CharSequence name : names)
+			if (!validator.matchesPatterns(name))
+				invalid++;
+		print(label, System.nanoTime() - start, invalid);
+	}
+
+	private static void measureSinglePass(String label, NameValidator validator, CharSequence[] names) {
+		long start = System.nanoTime();
+		int invalid = 0;
+		for (CharSequence name : names)
+			if (!validator.isValid(name))
+				invalid++;
+		print(label, System.nanoTime() - start, invalid);
+	}
+
+	private static void measureRoster(String label, NameValidator validator, CharSequence[] names) {
+		long start = System.nanoTime();
+		int invalid = validator.validateAll(names).length;
+		print(label, System.nanoTime() - start, invalid);
+	}
+
+	private static void print(String label, long elapsed, int invalid) {
+		System.out.println(String.format("%s: %,14.0f names/s (%d invalid)", label, NAMES / (elapsed / 1e9), invalid));
+	}
+}
@@ -0,0 +1,88 @@
+package rpg;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+public class NameValidatorTest {
+
+	/**
+	 * Characters that are close to the edges of the valid ones.
+	 */
+	private static final String ALPHABET = "AZaz:' \t\n\u000B\f\r@[`{/;\u00E9\u00C9\u00A0\u001C0_-";
+
+	private static String randomName(Random random) {
+		int length = random.nextInt(8);
+		StringBuilder name = new StringBuilder(length);
+		for (int i = 0; i < length; i++)
+			name.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+		return name.toString();
+	}
+
+	@Test
+	public void agreesWithThePatterns() {
+		Random random = new Random(7L);
+		for (int n = 0; n < 200000; n++) {
+			String name = randomName(random);
+			for (NameValidator validator : NameValidator.values())
+				assertEquals(validator + " \"" + name + "\"", validator.matchesPatterns(name), validator.isValid(name));
+		}
+	}
+
+	@Test
+	public void heroNames() {
+		assertTrue(NameValidator.HERO.isValid("Jimmie"));
+		assertTrue(NameValidator.HERO.isValid("James o'Hara: the Bold"));
+		assertTrue(NameValidator.HERO.isValid("D'Ar'tagnan"));
+		assertFalse(NameValidator.HERO.isValid("D'Ar'tag'nan"));
+		assertFalse(NameValidator.HERO.isValid("J"));
+		assertFalse(NameValidator.HERO.isValid("jimmie"));
+		assertFalse(NameValidator.HERO.isValid("Jimmie2"));
+		assertFalse(NameValidator.HERO.isValid(""));
+	}
+
+	@Test
+	public void monsterNames() {
+		assertTrue(NameValidator.MONSTER.isValid("g"));
+		assertTrue(NameValidator.MONSTER.isValid("hill giant's 'kin'"));
+		assertFalse(NameValidator.MONSTER.isValid("Hill: Giant"));
+		assertFalse(NameValidator.MONSTER.isValid(""));
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void nullNameIsRejected() {
+		NameValidator.HERO.isValid(null);
+	}
+
+	@Test
+	public void validateAllReportsInvalidIndicesInOrder() {
+		Random random = new Random(11L);
+		CharSequence[] names = new CharSequence[100003];
+		List<Integer> expected = new ArrayList<Integer>();
+		for (int i = 0; i < names.length; i++) {
+			names[i] = (i % 997 == 0) ? null : randomName(random);
+			if (names[i] == null || !NameValidator.MONSTER.matchesPatterns(names[i]))
+				expected.add(i);
+		}
+		int[] invalid = NameValidator.MONSTER.validateAll(names, new ForkJoinPool(4));
+		assertEquals(expected.size(), invalid.length);
+		for (int k = 0; k < invalid.length; k++)
+			assertEquals(expected.get(k).intValue(), invalid[k]);
+		assertArrayEquals(invalid, NameValidator.MONSTER.validateAll(names));
+	}
+
+	@Test
+	public void validateAllOfAnEmptyRoster() {
+		assertEquals(0, NameValidator.HERO.validateAll(new CharSequence[0]).length);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void validateAllRejectsNonEffectiveRoster() {
+		NameValidator.HERO.validateAll(null);
+	}
+}
@@ -42,5 +42,67 @@ public enum Anchorpoint {
 	 */
 	private final String anchorpoint;
 	
+	/************************************************
+	 * Masks
+	 ************************************************/
+	
+	/**
+	 * Returns the bit of this anchor point in a mask of anchor points.
+	 * 
+	 * @return | result == 1 << ordinal()
+	 */
+	@Raw @Immutable
+	public int getMask(){
+		return 1 << ordinal();
+	}
+	
+	/**
+	 * Returns the mask that contains exactly the given anchor points.
+	 * 
+	 * @param anchorpoints
+	 * 		  The anchor points to put in the mask.
+	 * @return | for each anchorpoint in anchorpoints:
+	 * 		   |	(result & anchorpoint.getMask()) != 0
+	 * @throws IllegalArgumentException
+	 * 		   One of the anchor points is not effective.
+	 * 		   | for some anchorpoint in anchorpoints: anchorpoint == null
+	 */
+	public static int maskOf(Iterable<Anchorpoint> anchorpoints) throws IllegalArgumentException {
+		int mask = 0;
+		for (Anchorpoint anchorpoint : anchorpoints){
+			if (anchorpoint == null)
+				throw new IllegalArgumentException("Non-effective anchor point");
+			mask |= anchorpoint.getMask();
+		}
+		return mask;
+	}
+	
+	/**
+	 * Returns the anchor point with the lowest bit in the given mask.
+	 * 
+	 * @param mask
+	 * 		  The mask to search.
+	 * @return Null if the mask contains no anchor point.
+	 * 		   | if ((mask & ALL_MASK) == 0) then result == null
+	 * @return Otherwise the anchor point in the mask that comes first in this enumeration.
+	 * 		   | else result == values()[Integer.numberOfTrailingZeros(mask)]
+	 */
+	public static Anchorpoint lowestIn(int mask){
+		mask &= ALL_MASK;
+		if (mask == 0)
+			return null;
+		return VALUES[Integer.numberOfTrailingZeros(mask)];
+	}
+	
+	/**
+	 * A variable referencing the anchor points in the order of their bits.
+	 */
+	private static final Anchorpoint[] VALUES = values();
+	
+	/**
+	 * The mask that contains every anchor point.
+	 */
+	public static final int ALL_MASK = (1 << VALUES.length) - 1;
+	
 
 }
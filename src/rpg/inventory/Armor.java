@@ -1,7 +1,10 @@
 package rpg.inventory;
 
+import java.io.File;
+import java.io.IOException;
+
 import rpg.utility.IDGenerator;
-import rpg.utility.PrimeGenerator;
+import rpg.utility.ConcurrentPrimeGenerator;
 import rpg.value.DucatAmount;
 import rpg.value.Weight;
 
@@ -75,7 +78,7 @@ public class Armor extends Item {
 	 * Instance of IDGenerator for generating id's for the instances of
 	 * this class.
 	 */
-	private static PrimeGenerator idGenerator = new PrimeGenerator();
+	private static ConcurrentPrimeGenerator idGenerator = new ConcurrentPrimeGenerator();
 	
 	/**
 	 * Returns the idgenerator this class is using.
@@ -85,6 +88,36 @@ public class Armor extends Item {
 		return idGenerator;
 	}
 	
+	/**
+	 * Returns the idgenerator shared by all pieces of armor.
+	 */
+	static ConcurrentPrimeGenerator getClassIDGenerator(){
+		return idGenerator;
+	}
+	
+	/**
+	 * Writes the primes computed for armor ids so far to the given file.
+	 * @param file
+	 * 		  The file to write to.
+	 * @throws IOException
+	 * 		  The file could not be written.
+	 */
+	public static void saveIDTable(File file) throws IOException {
+		idGenerator.saveTable(file);
+	}
+	
+	/**
+	 * Loads the primes for armor ids from a file written by saveIDTable, instead
+	 * of computing them again.
+	 * @param file
+	 * 		  The file to read from.
+	 * @throws IOException
+	 * 		  The file could not be read or does not hold a table of primes.
+	 */
+	public static void loadIDTable(File file) throws IOException {
+		idGenerator.loadTable(file);
+	}
+	
 	/****************************************
 	 * Protection
 	 ****************************************/
@@ -140,10 +173,14 @@ public class Armor extends Item {
 	 * 		|isValidCurrentProtection(currentProtection)
 	 * @post The attribute current protection is set to the given value
 	 * 		|getCurrentProtection()==currentProtection
+	 * @effect The combat stats of the holder are invalidated.
+	 * 		|if (getHolder() != null) then getHolder().invalidateCombatStats()
 	 */
 	public void setCurrentProtection(int currentProtection){
 		assert isValidCurrentProtection(currentProtection);
 		this.currentProtection = currentProtection;
+		if (getHolder() != null)
+			getHolder().invalidateCombatStats();
 	}
 	
 	/**
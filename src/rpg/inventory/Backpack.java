@@ -2,13 +2,16 @@ package rpg.inventory;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 
 import be.kuleuven.cs.som.annotate.Raw;
 import rpg.Mobile;
 import rpg.exception.InvalidContentException;
 import rpg.exception.ItemTransferException;
-import rpg.utility.BinomialGenerator;
+import rpg.utility.ConcurrentBinomialGenerator;
 import rpg.utility.IDGenerator;
 import rpg.value.DucatAmount;
 import rpg.value.Weight;
@@ -37,9 +40,10 @@ public class Backpack extends Container {
 	 * 			The maximum value of the weight of the contents
 	 */
 	public Backpack(Weight weight, DucatAmount value, Weight capacity) {
-		super(weight,value);
+		super(weight);
 		this.capacity = capacity;
 		this.contents = new HashMap<Long, ArrayList<Item>>();
+		this.setValue(value);
 	}
 
 	/************************************************
@@ -121,7 +125,7 @@ public class Backpack extends Container {
 	/**
 	 * The generator of id's for this class. Generates sequential binomial coefficients.
 	 */
-	private static BinomialGenerator idGenerator = new BinomialGenerator();
+	private static ConcurrentBinomialGenerator idGenerator = new ConcurrentBinomialGenerator();
 	
 	/**
 	 * Returns the idgenerator for this class
@@ -130,6 +134,13 @@ public class Backpack extends Container {
 		return idGenerator;
 	}
 	
+	/**
+	 * Returns the idgenerator shared by all backpacks.
+	 */
+	static ConcurrentBinomialGenerator getClassIDGenerator() {
+		return idGenerator;
+	}
+	
 	/************************************************
 	 * Iteration
 	 ************************************************/
@@ -166,15 +177,40 @@ public class Backpack extends Container {
 	
 	/**
 	 * Checks if the given item can be added to the backpack
+	 * @return Whether the weight of the contents with the item, in milligrams, stays
+	 * 		within the capacity.
+	 * 		|result == (item.getWeight().getMilligrams() <= getFreeMilligrams())
 	 */
 	public boolean canHaveAsContent(Item item) {
-		if(isOverCapacity(this.getWeightOfContents().add(item.getWeight()))){
-			return false;
-		} else {
-			return true;
-		}
+		return item.getWeight().getMilligrams() <= getFreeMilligrams();
 	}
 
+	/**
+	 * Returns the weight that can still be added to this backpack, in milligrams.
+	 * @return
+	 * 		|result == getCapacity().getMilligrams() - getItemMilligrams()
+	 * 		|	- getDucatContent().getWeight().getMilligrams()
+	 */
+	public long getFreeMilligrams() {
+		return getCapacity().getMilligrams() - itemMilligrams
+				- getDucatContent().getWeight().getMilligrams();
+	}
+
+	/**
+	 * Returns the weight of the items in this backpack, in milligrams. The total is
+	 * kept up to date when items are added or removed, so it is not summed again.
+	 * @return
+	 * 		|result == getWeightOfItems().getMilligrams()
+	 */
+	public long getItemMilligrams() {
+		return this.itemMilligrams;
+	}
+
+	/**
+	 * The weight of the items in this backpack, in milligrams.
+	 */
+	private long itemMilligrams = 0L;
+
 	/**
 	 * Adds the item to the backpack
 	 * @param item
@@ -192,6 +228,71 @@ public class Backpack extends Container {
 		}
 	}
 
+	/**
+	 * Adds the given items to this backpack in one pass, with one look at the free
+	 * capacity for all of them.
+	 * 
+	 * The items are taken in the order of the collection. An item is added if it still
+	 * fits next to the items added before it and rejected otherwise, as with a series
+	 * of calls to addToContents, but without an exception per item that does not fit.
+	 * @param items
+	 * 		The items to be added.
+	 * @return The items that were added and the items that were rejected, each in the
+	 * 		order of the collection. Non-effective items are rejected.
+	 * @throws IllegalArgumentException
+	 * 		The collection is not effective.
+	 * 		|items == null
+	 * @effect Every accepted item is now inside the backpack.
+	 */
+	public AddResult addAllToContents(Collection<? extends Item> items) throws IllegalArgumentException {
+		if (items == null)
+			throw new IllegalArgumentException("Non-effective collection of items");
+		long free = getFreeMilligrams();
+		List<Item> accepted = new ArrayList<Item>(items.size());
+		List<Item> rejected = new ArrayList<Item>();
+		for (Item item : items) {
+			long milligrams = (item == null) ? 0L : item.getWeight().getMilligrams();
+			if (item != null && milligrams <= free) {
+				insertIntoContents(item);
+				item.setContainer(this);
+				free -= milligrams;
+				accepted.add(item);
+			} else {
+				rejected.add(item);
+			}
+		}
+		return new AddResult(accepted, rejected);
+	}
+
+	/**
+	 * The items that a bulk addition to a backpack accepted and rejected.
+	 */
+	public static final class AddResult {
+
+		private AddResult(List<Item> accepted, List<Item> rejected) {
+			this.accepted = Collections.unmodifiableList(accepted);
+			this.rejected = Collections.unmodifiableList(rejected);
+		}
+
+		/**
+		 * Returns the items that were added, in the order they were given.
+		 */
+		public List<Item> getAccepted() {
+			return this.accepted;
+		}
+
+		/**
+		 * Returns the items that were not added, in the order they were given.
+		 */
+		public List<Item> getRejected() {
+			return this.rejected;
+		}
+
+		private final List<Item> accepted;
+
+		private final List<Item> rejected;
+	}
+
 	/**
 	 * Inserts an item into the item storage structure.
 	 * @param item
@@ -204,6 +305,7 @@ public class Backpack extends Container {
 			sameIDItems = new ArrayList<Item>();
 		sameIDItems.add(item);
 		contents.put(item.getID(), sameIDItems);
+		itemMilligrams = Math.addExact(itemMilligrams, item.getWeight().getMilligrams());
 	}
 	
 	/**
@@ -213,7 +315,8 @@ public class Backpack extends Container {
 	 */
 	public void removeFromContents(Item item){
 		ArrayList<Item> sameIDItems = contents.get(item.getID());
-		sameIDItems.remove(item);
+		if(sameIDItems.remove(item))
+			itemMilligrams -= item.getWeight().getMilligrams();
 		if(sameIDItems.isEmpty())
 			contents.remove(item.getID());
 		item.setContainer(null);
@@ -314,7 +417,7 @@ public class Backpack extends Container {
 	@Override
 	public void addToContents(DucatAmount ducatAmount) {
 		if(canHaveAsDucatContent(ducatAmount)){
-			addToContents(ducatAmount);
+			setDucatContent(getDucatContent().add(ducatAmount));
 		}
 	}
 	
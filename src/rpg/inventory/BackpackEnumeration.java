@@ -50,7 +50,7 @@ public class BackpackEnumeration implements Enumeration<Item> {
 		} catch (NullPointerException e) {
 			entryNext = false;
 		}
-		if(entryNext && mapIterator.hasNext()){
+		if(!entryNext && mapIterator.hasNext()){
 			currentEntry  = mapIterator.next();
 			entryIterator = currentEntry.getValue().listIterator();
 		}
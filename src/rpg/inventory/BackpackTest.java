@@ -1,6 +1,9 @@
 package rpg.inventory;
 
+import static org.junit.Assert.*;
+
 import java.math.BigDecimal;
+import java.util.Arrays;
 
 import org.junit.Before;
 import org.junit.Rule;
@@ -55,4 +58,26 @@ public class BackpackTest {
 		backpack.addToContents(heavyArmor);
 		System.out.println(backpack.getWeightOfContents());
 	}
+	
+	@Test
+	public void addAllKeepsOrderAndRejectsWhatDoesNotFit() throws InvalidContentException{
+		backpack.addToContents(sword);
+		Backpack.AddResult result = backpack.addAllToContents(Arrays.asList(chestPlate, heavyArmor, null, moneyBag));
+		assertEquals(Arrays.asList(chestPlate, moneyBag), result.getAccepted());
+		assertEquals(Arrays.asList(heavyArmor, null), result.getRejected());
+		assertSame(backpack, chestPlate.getContainer());
+		assertNull(heavyArmor.getContainer());
+		assertTrue(backpack.hasAsContent(moneyBag));
+		assertEquals(3 * standardWeight.getMilligrams(), backpack.getItemMilligrams());
+	}
+	
+	@Test
+	public void removingFreesCapacity() throws InvalidContentException{
+		long empty = backpack.getFreeMilligrams();
+		backpack.addToContents(sword);
+		assertEquals(empty - standardWeight.getMilligrams(), backpack.getFreeMilligrams());
+		backpack.removeFromContents(sword);
+		assertEquals(0L, backpack.getItemMilligrams());
+		assertEquals(empty, backpack.getFreeMilligrams());
+	}
 }
@@ -1,11 +1,15 @@
 package rpg.inventory;
 
+import java.io.File;
+import java.io.IOException;
 import java.math.BigDecimal;
 import be.kuleuven.cs.som.annotate.Basic;
 import be.kuleuven.cs.som.annotate.Immutable;
 import be.kuleuven.cs.som.annotate.Raw;
 import rpg.Mobile;
 import rpg.utility.IDGenerator;
+import rpg.utility.IDGeneratorCheckpoint;
+import rpg.utility.ResumableIDGenerator;
 import rpg.value.DucatAmount;
 import rpg.value.Weight;
 
@@ -60,6 +64,42 @@ abstract public class Item {
 		return this.ID;
 	}
 	
+	/**
+	 * Returns the idgenerators of all item types, in a fixed order.
+	 */
+	private static ResumableIDGenerator[] getClassIDGenerators(){
+		return new ResumableIDGenerator[]{
+				Armor.getClassIDGenerator(),
+				Backpack.getClassIDGenerator(),
+				Purse.getClassIDGenerator(),
+				Weapon.getClassIDGenerator()};
+	}
+	
+	/**
+	 * Saves the positions of the idgenerators of all item types to the given file.
+	 * @param file
+	 * 		  The file to write to.
+	 * @throws IOException
+	 * 		  The file could not be written.
+	 * @effect | IDGeneratorCheckpoint.save(file, getClassIDGenerators())
+	 */
+	public static void saveIDGenerators(File file) throws IOException {
+		IDGeneratorCheckpoint.save(file, getClassIDGenerators());
+	}
+	
+	/**
+	 * Restores the idgenerators of all item types to the positions saved in the given
+	 * file, so new items continue the id sequences where the saved world left off.
+	 * @param file
+	 * 		  The file to read from.
+	 * @throws IOException
+	 * 		  The file could not be read or is not a checkpoint of the item idgenerators.
+	 * @effect | IDGeneratorCheckpoint.restore(file, getClassIDGenerators())
+	 */
+	public static void restoreIDGenerators(File file) throws IOException {
+		IDGeneratorCheckpoint.restore(file, getClassIDGenerators());
+	}
+	
 	/************************************************
 	 * Value
 	 ************************************************/
@@ -0,0 +1,119 @@
+package rpg.inventory;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Raw;
+
+/**
+ * A bounded pool of free items that spawners can equip again instead of making new
+ * ones.
+ *
+ * An item is free if no mobile holds it and no backpack contains it. Only free items
+ * are accepted, so an item that leaves the pool is never still referenced through
+ * Item.holder or Item.getContainer(). An item keeps its identifier, weight and wear
+ * while it is pooled.
+ *
+ * A pool is not thread-safe; give every spawning thread its own pool.
+ *
+ * @invar | getSize() <= getCapacity()
+ * @author Robbe, Elias
+ */
+public class ItemPool {
+
+	/**
+	 * Creates an empty pool that holds at most the given number of items.
+	 *
+	 * @throws IllegalArgumentException
+	 * 		   | capacity < 0
+	 */
+	public ItemPool(int capacity) throws IllegalArgumentException {
+		if (capacity < 0)
+			throw new IllegalArgumentException("Negative capacity: " + capacity);
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Returns the largest number of items in this pool.
+	 */
+	@Basic @Raw @Immutable
+	public int getCapacity(){
+		return this.capacity;
+	}
+
+	/**
+	 * Returns the number of items in this pool.
+	 */
+	@Basic @Raw
+	public int getSize(){
+		return this.size;
+	}
+
+	/**
+	 * Checks whether the given item is free to be pooled.
+	 *
+	 * @return | result == (item != null && item.getHolder() == null
+	 * 		   |	&& item.getContainer() == null)
+	 */
+	public static boolean isFree(Item item){
+		return item != null && item.getHolder() == null && item.getContainer() == null;
+	}
+
+	/**
+	 * Puts the given free item in this pool, if there is room for it.
+	 *
+	 * @param item
+	 * 		  The item to pool. The caller gives up its references to it.
+	 * @return True iff the item was pooled; a full pool leaves the item to the garbage
+	 * 		   collector.
+	 * 		   | result == (getSize() < getCapacity())
+	 * @throws IllegalArgumentException
+	 * 		   The item is not free.
+	 * 		   | !isFree(item)
+	 */
+	public boolean release(Item item) throws IllegalArgumentException {
+		if (!isFree(item))
+			throw new IllegalArgumentException("Item is held or contained: " + item);
+		if (size >= capacity)
+			return false;
+		ArrayDeque<Item> free = items.get(item.getClass());
+		if (free == null){
+			free = new ArrayDeque<Item>();
+			items.put(item.getClass(), free);
+		}
+		free.push(item);
+		size++;
+		return true;
+	}
+
+	/**
+	 * Takes an item of exactly the given class from this pool.
+	 *
+	 * @return The item that was released last of the given class, or null if there is
+	 * 		   none. An item that is returned is free and no longer in this pool.
+	 */
+	public <T extends Item> T acquire(Class<T> type){
+		ArrayDeque<Item> free = items.get(type);
+		if (free == null || free.isEmpty())
+			return null;
+		size--;
+		return type.cast(free.pop());
+	}
+
+	/**
+	 * The free items by their class.
+	 */
+	private final HashMap<Class<?>, ArrayDeque<Item>> items = new HashMap<Class<?>, ArrayDeque<Item>>();
+
+	/**
+	 * The largest number of items in this pool.
+	 */
+	private final int capacity;
+
+	/**
+	 * The number of items in this pool.
+	 */
+	private int size = 0;
+}
@@ -0,0 +1,250 @@
+package rpg.inventory;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import rpg.Mobile;
+
+/**
+ * A planner that chooses the loot of a dead mobile: the items with the highest total
+ * value whose weight fits in the free capacity of a backpack.
+ *
+ * This is a 0/1 knapsack problem. Weights are counted in whole milligrams, as a
+ * backpack counts them, and values in hundredths of a ducat. Up to MAX_EXACT_ITEMS
+ * candidates are solved by dynamic programming over at most WEIGHT_STEPS steps of
+ * capacity. If the weights have a common divisor that brings the capacity within that
+ * many steps the plan is optimal; otherwise every weight is rounded up to a whole step,
+ * so the plan always fits but may miss a better one by less than a step per item. More
+ * candidates than that are planned greedily by value per milligram, which is compared
+ * with the single most valuable item that fits.
+ *
+ * The planner keeps no state and may be used by several threads at once.
+ *
+ * @author Robbe, Elias
+ */
+public final class LootPlanner {
+
+	/**
+	 * The largest number of candidates that is planned by dynamic programming.
+	 */
+	public static final int MAX_EXACT_ITEMS = 64;
+
+	/**
+	 * The largest number of capacity steps of the dynamic programming.
+	 */
+	public static final int WEIGHT_STEPS = 1024;
+
+	private LootPlanner(){
+	}
+
+	/**
+	 * Plans the loot of the given dead mobile for a backpack with the given free
+	 * capacity.
+	 *
+	 * @return | result == plan(candidatesOf(dead), freeMilligrams)
+	 */
+	public static List<Item> plan(Mobile dead, long freeMilligrams){
+		return plan(candidatesOf(dead), freeMilligrams);
+	}
+
+	/**
+	 * Returns the items of the given mobile that can be looted: the items at its
+	 * anchorpoints it still holds itself and that no backpack contains, and the
+	 * contents of the backpacks among them, down to any depth. A backpack itself is no
+	 * candidate, as the weight of its contents would travel along uncounted.
+	 *
+	 * @return A new list of candidates in the order of the anchorpoints.
+	 */
+	public static List<Item> candidatesOf(Mobile dead){
+		List<Item> result = new ArrayList<Item>();
+		int occupied = dead.getOccupiedAnchorpointMask();
+		for (Anchorpoint anchorpoint : Anchorpoint.values()){
+			if ((occupied & anchorpoint.getMask()) == 0)
+				continue;
+			Item item = dead.getItemAt(anchorpoint);
+			if (item.getHolder() == dead && item.getContainer() == null)
+				addCandidate(item, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Adds the given item, or the contents if it is a backpack, to the given list.
+	 */
+	private static void addCandidate(Item item, List<Item> result){
+		if (item instanceof Backpack){
+			BackpackEnumeration it = ((Backpack) item).getIterator();
+			while (it.hasMoreElements())
+				addCandidate(it.nextElement(), result);
+		} else {
+			result.add(item);
+		}
+	}
+
+	/**
+	 * Chooses the items of the given candidates with the highest total value whose
+	 * total weight is at most the given capacity.
+	 *
+	 * @param candidates
+	 * 		  The items that may be chosen.
+	 * @param freeMilligrams
+	 * 		  The weight that may be chosen, in milligrams.
+	 * @return A new list of candidates in the order they were given, whose weights
+	 * 		   add up to at most the given capacity. Candidates without value are never
+	 * 		   chosen.
+	 * 		   | sum of item.getWeight().getMilligrams() for item in result <= freeMilligrams
+	 * @throws IllegalArgumentException
+	 * 		   | candidates == null
+	 */
+	public static List<Item> plan(List<? extends Item> candidates, long freeMilligrams)
+			throws IllegalArgumentException {
+		if (candidates == null)
+			throw new IllegalArgumentException("Non-effective candidates");
+		int count = candidates.size();
+		long[] weights = new long[count];
+		long[] values = new long[count];
+		boolean[] chosen = new boolean[count];
+		int[] open = new int[count];
+		int nbOpen = 0;
+		long openWeight = 0L;
+		long free = freeMilligrams;
+		for (int i = 0; i < count; i++){
+			Item item = candidates.get(i);
+			if (item == null)
+				continue;
+			weights[i] = item.getWeight().getMilligrams();
+			values[i] = toHundredths(item.getValue().getValue());
+			if (values[i] <= 0 || weights[i] > freeMilligrams)
+				continue;
+			if (weights[i] <= 0){
+				// Weightless items cost nothing.
+				chosen[i] = true;
+				free -= weights[i];
+			} else {
+				open[nbOpen++] = i;
+				openWeight = saturatedAdd(openWeight, weights[i]);
+			}
+		}
+		if (openWeight <= free){
+			for (int k = 0; k < nbOpen; k++)
+				chosen[open[k]] = true;
+		} else if (nbOpen <= MAX_EXACT_ITEMS){
+			planExactly(open, nbOpen, weights, values, free, chosen);
+		} else {
+			planGreedily(open, nbOpen, weights, values, free, chosen);
+		}
+		List<Item> result = new ArrayList<Item>();
+		for (int i = 0; i < count; i++){
+			if (chosen[i])
+				result.add(candidates.get(i));
+		}
+		return result;
+	}
+
+	/**
+	 * Chooses from the given open candidates by dynamic programming over steps of
+	 * capacity.
+	 */
+	private static void planExactly(int[] open, int nbOpen, long[] weights, long[] values,
+			long free, boolean[] chosen){
+		long step = free;
+		for (int k = 0; k < nbOpen; k++)
+			step = gcd(step, weights[open[k]]);
+		if (free / step > WEIGHT_STEPS)
+			step = (free + WEIGHT_STEPS - 1) / WEIGHT_STEPS;
+		int capacity = (int) (free / step);
+		int[] steps = new int[nbOpen];
+		for (int k = 0; k < nbOpen; k++){
+			long rounded = (weights[open[k]] + step - 1) / step;
+			steps[k] = (int) Math.min(rounded, capacity + 1L);
+		}
+		long[] best = new long[capacity + 1];
+		long[][] taken = new long[nbOpen][(capacity >> 6) + 1];
+		for (int k = 0; k < nbOpen; k++){
+			int weight = steps[k];
+			long value = values[open[k]];
+			long[] row = taken[k];
+			for (int w = capacity; w >= weight; w--){
+				long with = best[w - weight] + value;
+				if (with > best[w]){
+					best[w] = with;
+					row[w >> 6] |= 1L << w;
+				}
+			}
+		}
+		int w = capacity;
+		for (int k = nbOpen - 1; k >= 0; k--){
+			if ((taken[k][w >> 6] & (1L << w)) != 0){
+				chosen[open[k]] = true;
+				w -= steps[k];
+			}
+		}
+	}
+
+	/**
+	 * Chooses from the given open candidates greedily by value per milligram, or takes
+	 * only the most valuable one if that is worth more.
+	 */
+	private static void planGreedily(int[] open, int nbOpen, final long[] weights, final long[] values,
+			long free, boolean[] chosen){
+		Integer[] order = new Integer[nbOpen];
+		for (int k = 0; k < nbOpen; k++)
+			order[k] = open[k];
+		Arrays.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer first, Integer second){
+				// Compare values[first] / weights[first] with values[second] / weights[second].
+				double left = (double) values[first] * weights[second];
+				double right = (double) values[second] * weights[first];
+				return Double.compare(right, left);
+			}
+		});
+		long left = free;
+		long total = 0L;
+		int mostValuable = -1;
+		for (Integer index : order){
+			if (weights[index] <= left){
+				chosen[index] = true;
+				left -= weights[index];
+				total += values[index];
+			}
+			if (mostValuable < 0 || values[index] > values[mostValuable])
+				mostValuable = index;
+		}
+		if (values[mostValuable] > total && weights[mostValuable] <= free){
+			for (Integer index : order)
+				chosen[index] = false;
+			chosen[mostValuable] = true;
+		}
+	}
+
+	/**
+	 * Returns the given amount of ducats in whole hundredths, rounded down.
+	 */
+	private static long toHundredths(BigDecimal ducats){
+		return ducats.movePointRight(2).longValue();
+	}
+
+	/**
+	 * Returns the sum of the given non-negative numbers, limited to Long.MAX_VALUE.
+	 */
+	private static long saturatedAdd(long first, long second){
+		long sum = first + second;
+		return (sum < 0) ? Long.MAX_VALUE : sum;
+	}
+
+	/**
+	 * Returns the greatest common divisor of the given positive numbers.
+	 */
+	private static long gcd(long first, long second){
+		while (second != 0){
+			long rest = first % second;
+			first = second;
+			second = rest;
+		}
+		return first;
+	}
+}
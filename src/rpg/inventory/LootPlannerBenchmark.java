@@ -0,0 +1,68 @@
+package rpg.inventory;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import rpg.value.Unit;
+import rpg.value.Weight;
+
+/**
+ * A small benchmark of the loot planner, with as many candidates as a monster can
+ * wear, as many as are still planned exactly and as many as are planned greedily.
+ *
+ * Weights are random numbers of grams, so the exact plans round them to steps of the
+ * capacity. It prints the average time of a plan.
+ *
+ * @author Robbe, Elias
+ */
+public class LootPlannerBenchmark {
+
+	/**
+	 * The number of plans per measurement.
+	 */
+	private static final int PLANS = 200000;
+
+	public static void main(String[] args) {
+		int[] sizes = { 5, LootPlanner.MAX_EXACT_ITEMS, 1000 };
+		for (int round = 0; round < 3; round++) {
+			System.out.println(String.format("round %d, %,d plans", round, PLANS));
+			for (int size : sizes) {
+				List<Item> candidates = candidates(size, new SplittableRandom(size));
+				long free = milligrams(candidates) / 2;
+				long chosen = 0;
+				int plans = (size > LootPlanner.MAX_EXACT_ITEMS) ? PLANS / 20 : PLANS;
+				long start = System.nanoTime();
+				for (int i = 0; i < plans; i++) {
+					chosen += LootPlanner.plan(candidates, free).size();
+				}
+				long elapsed = System.nanoTime() - start;
+				System.out.println(String.format("  %4d candidates: %8.2f us/plan (%d chosen)", size,
+						elapsed / 1e3 / plans, chosen / plans));
+			}
+		}
+	}
+
+	/**
+	 * Returns the given number of weapons of random weight and damage.
+	 */
+	private static List<Item> candidates(int size, SplittableRandom random) {
+		List<Item> result = new ArrayList<Item>(size);
+		for (int i = 0; i < size; i++) {
+			Weight weight = new Weight(BigDecimal.valueOf(100 + random.nextInt(20000)), Unit.g);
+			result.add(new Weapon(weight, 7 * (1 + random.nextInt(14))));
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the total weight of the given items in milligrams.
+	 */
+	private static long milligrams(List<Item> items) {
+		long total = 0;
+		for (Item item : items)
+			total += item.getWeight().getMilligrams();
+		return total;
+	}
+}
@@ -0,0 +1,119 @@
+package rpg.inventory;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+
+import org.junit.Test;
+
+import rpg.Hero;
+import rpg.Monster;
+import rpg.MonsterTemplate;
+import rpg.exception.InvalidContentException;
+import rpg.utility.SplittableRandomSource;
+import rpg.value.DucatAmount;
+import rpg.value.Unit;
+import rpg.value.Weight;
+
+public class LootPlannerTest {
+
+	private static Weapon weapon(int kilograms, int damage) {
+		return new Weapon(new Weight(BigDecimal.valueOf(kilograms), Unit.kg), damage);
+	}
+
+	private static long milligrams(List<Item> items) {
+		long total = 0;
+		for (Item item : items)
+			total += item.getWeight().getMilligrams();
+		return total;
+	}
+
+	@Test
+	public void dynamicProgrammingBeatsGreedy() {
+		// By value per kilogram the light items come first, but the heavy pair is worth more.
+		Weapon light = weapon(10, 28);
+		Weapon medium = weapon(20, 49);
+		Weapon heavy = weapon(30, 70);
+		List<Item> plan = LootPlanner.plan(Arrays.asList(light, medium, heavy), 50000000L);
+		assertEquals(Arrays.asList(medium, heavy), plan);
+	}
+
+	@Test
+	public void takesEverythingThatFits() {
+		List<Item> candidates = Arrays.<Item>asList(weapon(1, 7), weapon(2, 14), weapon(3, 21));
+		assertEquals(candidates, LootPlanner.plan(candidates, 6000000L));
+		assertTrue(LootPlanner.plan(candidates, 999999L).isEmpty());
+	}
+
+	@Test
+	public void roundedWeightsStillFit() {
+		List<Item> candidates = new ArrayList<Item>();
+		for (int i = 1; i <= 40; i++)
+			candidates.add(new Weapon(new Weight(BigDecimal.valueOf(1000 + 37 * i), Unit.g), 7 * (1 + i % 14)));
+		long free = 9876543L;
+		List<Item> plan = LootPlanner.plan(candidates, free);
+		assertFalse(plan.isEmpty());
+		assertTrue(milligrams(plan) <= free);
+	}
+
+	@Test
+	public void greedyForManyCandidates() {
+		List<Item> candidates = new ArrayList<Item>();
+		for (int i = 0; i < 500; i++)
+			candidates.add(weapon(1 + i % 9, 7 * (1 + i % 14)));
+		long free = 100000000L;
+		List<Item> plan = LootPlanner.plan(candidates, free);
+		assertTrue(milligrams(plan) <= free);
+		assertTrue(milligrams(plan) > free - 9000000L);
+	}
+
+	@Test
+	public void candidatesIncludeBackpackContents() throws InvalidContentException {
+		Backpack backpack = new Backpack(new Weight(BigDecimal.ONE, Unit.kg), new DucatAmount(10),
+				new Weight(BigDecimal.valueOf(100), Unit.kg));
+		Weapon packed = weapon(2, 14);
+		backpack.addToContents(packed);
+		Weapon held = weapon(3, 21);
+		EnumMap<Anchorpoint, Item> items = new EnumMap<Anchorpoint, Item>(Anchorpoint.class);
+		items.put(Anchorpoint.BACK, backpack);
+		items.put(Anchorpoint.LEFT, held);
+		items.put(Anchorpoint.BODY, new Armor(new Weight(BigDecimal.ONE, Unit.kg), new DucatAmount(10), 10));
+		Hero dead = new Hero("Jimmie", 101L, BigDecimal.valueOf(100), items);
+		List<Item> candidates = LootPlanner.candidatesOf(dead);
+		assertEquals(3, candidates.size());
+		assertTrue(candidates.contains(packed));
+		assertTrue(candidates.contains(held));
+		assertFalse(candidates.contains(backpack));
+	}
+
+	@Test
+	public void killerHoldsTheLoot() throws InvalidContentException {
+		Weight tenKg = new Weight(BigDecimal.TEN, Unit.kg);
+		MonsterTemplate goblins = new MonsterTemplate("Goblin", 61L, BigDecimal.valueOf(20), tenKg, 14, tenKg,
+				new DucatAmount(10), 7, 2);
+		Monster goblin = goblins.create(new SplittableRandomSource(1L));
+		Weapon weapon = weapon(5, 14);
+		goblin.setItemAt(weapon, Anchorpoint.LEFT);
+		long carried = goblin.getCarriedMilligrams();
+		Backpack backpack = new Backpack(new Weight(BigDecimal.ONE, Unit.kg), new DucatAmount(10),
+				new Weight(BigDecimal.valueOf(100), Unit.kg));
+		EnumMap<Anchorpoint, Item> items = new EnumMap<Anchorpoint, Item>(Anchorpoint.class);
+		items.put(Anchorpoint.BACK, backpack);
+		items.put(Anchorpoint.BODY, new Armor(new Weight(BigDecimal.ONE, Unit.kg), new DucatAmount(10), 10));
+		Hero hero = new Hero("Jimmie", 101L, BigDecimal.valueOf(100), items);
+		hero.setRandomSource(new SplittableRandomSource(2L));
+		for (int i = 0; i < 1000 && !goblin.getIsDead(); i++)
+			hero.hit(goblin);
+		assertTrue(goblin.getIsDead());
+
+		assertSame(hero, weapon.getHolder());
+		assertSame(backpack, weapon.getContainer());
+		assertTrue(backpack.hasAsContent(weapon));
+		assertNull(goblin.getItemAt(Anchorpoint.LEFT));
+		assertEquals(carried - weapon.getWeight().getMilligrams(), goblin.getCarriedMilligrams());
+	}
+}
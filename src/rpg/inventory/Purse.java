@@ -2,7 +2,7 @@ package rpg.inventory;
 
 import be.kuleuven.cs.som.annotate.Basic;
 import be.kuleuven.cs.som.annotate.Raw;
-import rpg.utility.FibonacciGenerator;
+import rpg.utility.ConcurrentFibonacciGenerator;
 import rpg.utility.IDGenerator;
 import rpg.value.DucatAmount;
 import rpg.value.Weight;
@@ -36,12 +36,19 @@ public class Purse extends Container {
 	 * Identification
 	 ************************************************/
 
-	private static FibonacciGenerator idGenerator = new FibonacciGenerator();
+	private static ConcurrentFibonacciGenerator idGenerator = new ConcurrentFibonacciGenerator();
 
 	@Override
 	protected IDGenerator getIDGenerator() {
 		return idGenerator;
 	}
+	
+	/**
+	 * Returns the idgenerator shared by all purses.
+	 */
+	static ConcurrentFibonacciGenerator getClassIDGenerator() {
+		return idGenerator;
+	}
 
 	/************************************************
 	 * Contents
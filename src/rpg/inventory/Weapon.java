@@ -1,7 +1,7 @@
 package rpg.inventory;
 
 import rpg.utility.IDGenerator;
-import rpg.utility.WeaponIDGenerator;
+import rpg.utility.ConcurrentWeaponIDGenerator;
 import rpg.value.DucatAmount;
 import rpg.value.Weight;
 
@@ -12,7 +12,7 @@ import rpg.value.Weight;
  */
 public class Weapon extends Item {
 
-	private static WeaponIDGenerator idGenerator = new WeaponIDGenerator();
+	private static ConcurrentWeaponIDGenerator idGenerator = new ConcurrentWeaponIDGenerator();
 
 	private final static int MAX_DAMAGE = 100;
 	private final static DucatAmount VALUE_PER_DAMAGE = new DucatAmount(2);
@@ -26,6 +26,13 @@ public class Weapon extends Item {
 		return idGenerator;
 	}
 
+	/**
+	 * Returns the idgenerator shared by all weapons.
+	 */
+	static ConcurrentWeaponIDGenerator getClassIDGenerator() {
+		return idGenerator;
+	}
+
 	private int damage = 0;
 
 	public int getDamage() {
@@ -35,6 +42,8 @@ public class Weapon extends Item {
 	public void setDamage(int damage) {
 		assert canHaveAsDamage(damage);
 		this.damage = damage;
+		if (getHolder() != null)
+			getHolder().invalidateCombatStats();
 	}
 
 	public boolean canHaveAsDamage(int damage) {
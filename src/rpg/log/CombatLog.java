@@ -0,0 +1,406 @@
+package rpg.log;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Raw;
+
+/**
+ * An append-only log of hits, written as fixed-width binary records into memory-mapped
+ * segment files.
+ *
+ * The fighting thread only copies a hit into a ring buffer in memory. A writer thread
+ * of the log drains the ring into the mapped segment, so the fight never waits for
+ * the file system. A segment holds a fixed number of records; when it is full the log
+ * rolls over to the next file of the directory.
+ *
+ * A segment starts with a header of HEADER_SIZE bytes: the int MAGIC, the int
+ * RECORD_SIZE and the long number of records in the segment. Every record takes
+ * RECORD_SIZE bytes:
+ * - long ID of the attacker;
+ * - long ID of the defender;
+ * - long hitpoints of the attacker after the hit;
+ * - long hitpoints of the defender after the hit;
+ * - int roll;
+ * - int damage dealt;
+ * - int number of items looted;
+ * - int flags, a combination of HIT and KILL.
+ *
+ * The ring buffer has a single producer: only one thread may record hits in a log.
+ *
+ * @author Robbe, Elias
+ */
+public class CombatLog implements Closeable {
+
+	/**
+	 * The first int of every segment.
+	 */
+	public static final int MAGIC = 0x43424C47;
+
+	/**
+	 * The number of bytes before the first record of a segment.
+	 */
+	public static final int HEADER_SIZE = 16;
+
+	/**
+	 * The number of bytes of one record.
+	 */
+	public static final int RECORD_SIZE = 48;
+
+	/**
+	 * The flag of a record in which the roll beat the protection of the defender.
+	 */
+	public static final int HIT = 1;
+
+	/**
+	 * The flag of a record in which the defender was killed.
+	 */
+	public static final int KILL = 2;
+
+	/**
+	 * The default number of records of one segment.
+	 */
+	public static final int DEFAULT_SEGMENT_RECORDS = 1 << 20;
+
+	/**
+	 * The number of records the ring buffer can hold. This must be a power of two.
+	 */
+	private static final int RING_SIZE = 1 << 14;
+
+	/**
+	 * The number of longs one record takes in the ring buffer.
+	 */
+	private static final int RING_STRIDE = 6;
+
+	/**
+	 * The time in nanoseconds the writer sleeps when the ring is empty.
+	 */
+	private static final long IDLE_NANOS = 50000L;
+
+	/**
+	 * Opens a log in the given directory with segments of the default size.
+	 *
+	 * @effect | this(directory, DEFAULT_SEGMENT_RECORDS)
+	 */
+	public CombatLog(File directory) throws IllegalArgumentException, IOException {
+		this(directory, DEFAULT_SEGMENT_RECORDS);
+	}
+
+	/**
+	 * Opens a log in the given directory. Segments that are already in the directory
+	 * are deleted first.
+	 *
+	 * @param directory
+	 * 		  The directory of the segment files, which is created if needed.
+	 * @param segmentRecords
+	 * 		  The number of records of one segment.
+	 * @throws IllegalArgumentException
+	 * 		   The directory is not effective or the segment size is not positive.
+	 * 		   | directory == null || segmentRecords <= 0
+	 * @throws IOException
+	 * 		   The directory or the first segment could not be created.
+	 */
+	public CombatLog(File directory, int segmentRecords) throws IllegalArgumentException, IOException {
+		if (directory == null)
+			throw new IllegalArgumentException("Non-effective directory");
+		if (segmentRecords <= 0 || segmentRecords > (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE)
+			throw new IllegalArgumentException("Invalid segment size: " + segmentRecords);
+		if (!directory.isDirectory() && !directory.mkdirs())
+			throw new IOException("Cannot create " + directory);
+		for (int index = 0; getSegmentFile(directory, index).exists(); index++) {
+			if (!getSegmentFile(directory, index).delete())
+				throw new IOException("Cannot delete " + getSegmentFile(directory, index));
+		}
+		this.directory = directory;
+		this.segmentRecords = segmentRecords;
+		openSegment(0);
+		writer = new Thread(new Runnable() {
+			public void run() { drain(); }
+		}, "combat-log-writer");
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	/**
+	 * Returns the directory of the segment files.
+	 */
+	@Basic @Raw
+	public File getDirectory(){
+		return this.directory;
+	}
+
+	/**
+	 * Returns the number of records of one segment.
+	 */
+	@Basic @Raw
+	public int getSegmentRecords(){
+		return this.segmentRecords;
+	}
+
+	/**
+	 * Returns the file of the segment with the given index in the given directory.
+	 *
+	 * @return | result.getName().equals(String.format("combat-%06d.log", index))
+	 */
+	public static File getSegmentFile(File directory, int index){
+		return new File(directory, String.format("combat-%06d.log", index));
+	}
+
+	/**
+	 * The directory of the segment files.
+	 */
+	private final File directory;
+
+	/**
+	 * The number of records of one segment.
+	 */
+	private final int segmentRecords;
+
+	/************************************************
+	 * Producer
+	 ************************************************/
+
+	/**
+	 * Records one hit. This only copies the hit into the ring buffer; it waits only
+	 * when the writer has fallen a whole ring behind.
+	 *
+	 * @param attacker
+	 * 		  The ID of the attacking mobile.
+	 * @param defender
+	 * 		  The ID of the defending mobile.
+	 * @param roll
+	 * 		  The roll of the attacker.
+	 * @param damage
+	 * 		  The damage dealt, zero on a miss.
+	 * @param attackerHitpoints
+	 * 		  The hitpoints of the attacker after the hit.
+	 * @param defenderHitpoints
+	 * 		  The hitpoints of the defender after the hit.
+	 * @param loot
+	 * 		  The number of items the attacker looted.
+	 * @param flags
+	 * 		  A combination of HIT and KILL.
+	 * @throws IllegalStateException
+	 * 		   The log is closed or its writer failed.
+	 */
+	public void record(long attacker, long defender, int roll, int damage,
+			long attackerHitpoints, long defenderHitpoints, int loot, int flags)
+			throws IllegalStateException
+	{
+		if (closed)
+			throw new IllegalStateException("Closed combat log");
+		long sequence = produced;
+		while (sequence - consumedCache >= RING_SIZE) {
+			consumedCache = consumed.get();
+			if (sequence - consumedCache >= RING_SIZE) {
+				if (failure != null)
+					throw new IllegalStateException("Combat log writer failed", failure);
+				Thread.yield();
+			}
+		}
+		int base = (int) (sequence & (RING_SIZE - 1)) * RING_STRIDE;
+		ring[base] = attacker;
+		ring[base + 1] = defender;
+		ring[base + 2] = attackerHitpoints;
+		ring[base + 3] = defenderHitpoints;
+		ring[base + 4] = ((long) roll << 32) | (damage & 0xFFFFFFFFL);
+		ring[base + 5] = ((long) loot << 32) | (flags & 0xFFFFFFFFL);
+		produced = sequence + 1;
+		published.lazySet(sequence + 1);
+	}
+
+	/**
+	 * Waits until every recorded hit is in the mapped segment and forces the segment to
+	 * the storage device.
+	 *
+	 * @throws IOException
+	 * 		   The writer failed.
+	 */
+	public void flush() throws IOException {
+		long target = produced;
+		while (consumed.get() < target) {
+			checkFailure();
+			LockSupport.parkNanos(IDLE_NANOS);
+		}
+		checkFailure();
+		synchronized (this) {
+			if (segment != null)
+				segment.force();
+		}
+	}
+
+	/**
+	 * Flushes the log, stops its writer and closes the last segment. Closing a closed
+	 * log has no effect.
+	 *
+	 * @throws IOException
+	 * 		   The writer failed or the segment could not be closed.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed)
+			return;
+		flush();
+		closed = true;
+		writer.interrupt();
+		try {
+			writer.join();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		synchronized (this) {
+			closeSegment();
+		}
+		checkFailure();
+	}
+
+	/**
+	 * Returns the number of hits recorded in this log.
+	 */
+	public long getRecordCount(){
+		return produced;
+	}
+
+	/**
+	 * The records in the ring, RING_STRIDE longs per record.
+	 */
+	private final long[] ring = new long[RING_SIZE * RING_STRIDE];
+
+	/**
+	 * The sequence number of the next record, only touched by the producer.
+	 */
+	private long produced = 0L;
+
+	/**
+	 * The last value of consumed seen by the producer.
+	 */
+	private long consumedCache = 0L;
+
+	/**
+	 * The number of records the producer has made visible to the writer.
+	 */
+	private final AtomicLong published = new AtomicLong();
+
+	/**
+	 * The number of records the writer has copied into a segment.
+	 */
+	private final AtomicLong consumed = new AtomicLong();
+
+	/**
+	 * Whether the log is closed.
+	 */
+	private volatile boolean closed = false;
+
+	/************************************************
+	 * Writer
+	 ************************************************/
+
+	/**
+	 * Copies the published records into the segments until the log is closed.
+	 */
+	private void drain() {
+		try {
+			long sequence = 0L;
+			while (true) {
+				long available = published.get();
+				if (sequence == available) {
+					if (closed)
+						return;
+					LockSupport.parkNanos(IDLE_NANOS);
+					continue;
+				}
+				synchronized (this) {
+					for (; sequence < available; sequence++) {
+						if (segmentCount == segmentRecords)
+							openSegment(segmentIndex + 1);
+						int base = (int) (sequence & (RING_SIZE - 1)) * RING_STRIDE;
+						segment.putLong(ring[base]);
+						segment.putLong(ring[base + 1]);
+						segment.putLong(ring[base + 2]);
+						segment.putLong(ring[base + 3]);
+						segment.putLong(ring[base + 4]);
+						segment.putLong(ring[base + 5]);
+						segmentCount++;
+					}
+					segment.putLong(8, segmentCount);
+				}
+				consumed.lazySet(sequence);
+			}
+		} catch (IOException ex) {
+			failure = ex;
+		} catch (RuntimeException ex) {
+			failure = new IOException(ex);
+		}
+	}
+
+	/**
+	 * Closes the current segment, if any, and maps the segment with the given index.
+	 */
+	private void openSegment(int index) throws IOException {
+		closeSegment();
+		long size = HEADER_SIZE + (long) segmentRecords * RECORD_SIZE;
+		RandomAccessFile file = new RandomAccessFile(getSegmentFile(directory, index), "rw");
+		try {
+			file.setLength(0);
+			segment = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+		} finally {
+			file.close();
+		}
+		segment.putInt(MAGIC);
+		segment.putInt(RECORD_SIZE);
+		segment.putLong(0L);
+		segmentIndex = index;
+		segmentCount = 0;
+	}
+
+	/**
+	 * Writes the final record count of the current segment and forces it.
+	 */
+	private void closeSegment() {
+		if (segment == null)
+			return;
+		segment.putLong(8, segmentCount);
+		segment.force();
+		segment = null;
+	}
+
+	/**
+	 * Throws the failure of the writer, if any.
+	 */
+	private void checkFailure() throws IOException {
+		if (failure != null)
+			throw new IOException("Combat log writer failed", failure);
+	}
+
+	/**
+	 * The thread that drains the ring into the segments.
+	 */
+	private final Thread writer;
+
+	/**
+	 * The mapped segment records are written to.
+	 */
+	private MappedByteBuffer segment;
+
+	/**
+	 * The index of the current segment.
+	 */
+	private int segmentIndex;
+
+	/**
+	 * The number of records in the current segment.
+	 */
+	private long segmentCount;
+
+	/**
+	 * The failure that stopped the writer, if any.
+	 */
+	private volatile IOException failure = null;
+}
@@ -0,0 +1,115 @@
+package rpg.log;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.util.EnumMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import rpg.Hero;
+import rpg.Mobile;
+import rpg.Monster;
+import rpg.exception.InvalidContentException;
+import rpg.inventory.Anchorpoint;
+import rpg.inventory.Armor;
+import rpg.inventory.ArmorType;
+import rpg.inventory.Item;
+import rpg.inventory.Weapon;
+import rpg.simulation.BattleSimulator;
+import rpg.utility.SplittableRandomSource;
+import rpg.value.DucatAmount;
+import rpg.value.Unit;
+import rpg.value.Weight;
+
+public class CombatLogTest {
+
+	private File directory;
+	private Hero hero;
+	private Monster monster;
+
+	@Before
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("combat-log").toFile();
+		Weight weight = new Weight(BigDecimal.TEN, Unit.kg);
+		EnumMap<Anchorpoint, Item> heroItems = new EnumMap<Anchorpoint, Item>(Anchorpoint.class);
+		Armor chestplate = new Armor(weight, new DucatAmount(BigDecimal.TEN), 10, ArmorType.STANDARD);
+		chestplate.setCurrentProtection(8);
+		heroItems.put(Anchorpoint.BODY, chestplate);
+		hero = new Hero("Jimmie", 101L, BigDecimal.valueOf(20), heroItems);
+		Armor skin = new Armor(weight, new DucatAmount(BigDecimal.TEN), 10, ArmorType.STANDARD);
+		skin.setCurrentProtection(7);
+		monster = new Monster("Bimmy", 97L, BigDecimal.valueOf(30), new Weapon(weight, 21), skin,
+				new EnumMap<Anchorpoint, Item>(Anchorpoint.class));
+	}
+
+	@After
+	public void tearDown() {
+		File[] files = directory.listFiles();
+		if (files != null)
+			for (File file : files)
+				file.delete();
+		directory.delete();
+	}
+
+	@Test
+	public void replayRebuildsDuel() throws IOException, InvalidContentException {
+		CombatLog log = new CombatLog(directory, 4);
+		hero.setCombatLog(log);
+		monster.setCombatLog(log);
+		Mobile winner = BattleSimulator.duel(hero, monster, new SplittableRandomSource(42L), null);
+		log.close();
+		assertNotNull(winner);
+		assertTrue(log.getRecordCount() > 4);
+		assertTrue(CombatLog.getSegmentFile(directory, 1).exists());
+
+		CombatReplay replay = CombatReplay.read(directory);
+		assertEquals(log.getRecordCount(), replay.getEventCount());
+		assertEquals(1, replay.getKillCount());
+		assertEquals(hero.getCurrentHitpoints(), replay.getState(hero.getID()).getHitpoints());
+		assertEquals(monster.getCurrentHitpoints(), replay.getState(monster.getID()).getHitpoints());
+		assertTrue(replay.getState(winner == hero ? monster.getID() : hero.getID()).isDead());
+		assertEquals(1, replay.getState(winner.getID()).getKills());
+		long dealt = replay.getState(hero.getID()).getDamageDealt()
+				+ replay.getState(monster.getID()).getDamageDealt();
+		assertEquals(replay.getTotalDamage(), dealt);
+	}
+
+	@Test
+	public void applyRestoresMobile() throws IOException, InvalidContentException {
+		CombatLog log = new CombatLog(directory);
+		hero.setCombatLog(log);
+		monster.setCombatLog(log);
+		BattleSimulator.duel(hero, monster, new SplittableRandomSource(7L), null);
+		log.close();
+		long heroHitpoints = hero.getCurrentHitpoints();
+		hero.setCurrentHitpoints(hero.getMaximumHitpoints());
+		assertTrue(CombatReplay.read(directory).apply(hero));
+		assertEquals(heroHitpoints, hero.getCurrentHitpoints());
+	}
+
+	@Test
+	public void reopenDeletesOldSegments() throws IOException {
+		CombatLog log = new CombatLog(directory, 1);
+		log.record(1L, 2L, 50, 7, 10L, 3L, 0, CombatLog.HIT);
+		log.record(2L, 1L, 20, 0, 3L, 10L, 0, 0);
+		log.close();
+		assertTrue(CombatLog.getSegmentFile(directory, 1).exists());
+		log = new CombatLog(directory, 1);
+		log.close();
+		assertFalse(CombatLog.getSegmentFile(directory, 1).exists());
+		assertEquals(0, CombatReplay.read(directory).getEventCount());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void recordAfterClose() throws IOException {
+		CombatLog log = new CombatLog(directory, 1);
+		log.close();
+		log.record(1L, 2L, 50, 7, 10L, 3L, 0, CombatLog.HIT);
+	}
+}
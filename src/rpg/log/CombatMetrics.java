@@ -0,0 +1,318 @@
+package rpg.log;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Value;
+import rpg.Hero;
+import rpg.Mobile;
+
+/**
+ * Counters of the hits of all mobiles of the process, split by heroes and monsters.
+ *
+ * Metrics are off by default. While they are off, Mobile.hit only reads one static
+ * field to find out. That field is not volatile, because a volatile read on every hit
+ * measurably slows down the hit loop. Threads that are already fighting may therefore
+ * keep their old view for a while; enable the metrics before a simulation starts its
+ * threads or tasks to have every hit counted. Once enabled, every hit is counted in
+ * striped LongAdder counters, so mobiles that fight in parallel threads do not contend
+ * for a counter. A snapshot reads the counters without stopping the fights; counters
+ * that are updated during the snapshot may be read before or after the update.
+ *
+ * Per kind of mobile the metrics count:
+ * - the attacks, and of those the hits and the misses;
+ * - the damage dealt, in total and as a histogram with power-of-two buckets;
+ * - the kills and the items looted from the killed;
+ * - the heals after a kill that changed the hitpoints, and the hitpoints restored.
+ *
+ * @author Robbe, Elias
+ */
+public final class CombatMetrics {
+
+	/**
+	 * The kinds of mobiles the metrics are split by.
+	 */
+	public enum Kind {
+		HERO, MONSTER;
+
+		/**
+		 * Returns the kind of the given mobile.
+		 *
+		 * @return | result == (mobile instanceof Hero) ? HERO : MONSTER
+		 */
+		public static Kind of(Mobile mobile){
+			return (mobile instanceof Hero) ? HERO : MONSTER;
+		}
+	}
+
+	/**
+	 * The number of buckets of a damage histogram. Bucket 0 counts the hits that dealt
+	 * no damage, bucket i > 0 the hits that dealt from 2^(i-1) up to 2^i - 1 damage.
+	 */
+	public static final int HISTOGRAM_BUCKETS = 32;
+
+	/**
+	 * Returns the metrics hits are counted in, or null if metrics are off.
+	 */
+	public static CombatMetrics getActive(){
+		return active;
+	}
+
+	/**
+	 * Turns the metrics on, with counters at zero if they were off.
+	 *
+	 * @return The metrics hits are counted in from now on.
+	 * 		   | result == getActive()
+	 */
+	public static synchronized CombatMetrics enable(){
+		if(active == null)
+			active = new CombatMetrics();
+		return active;
+	}
+
+	/**
+	 * Turns the metrics off. The metrics that were active keep their counts.
+	 *
+	 * @post | getActive() == null
+	 */
+	public static synchronized void disable(){
+		active = null;
+	}
+
+	/**
+	 * The metrics hits are counted in, or null if metrics are off. This is written under
+	 * the lock of the class but read without it.
+	 */
+	private static CombatMetrics active = null;
+
+	private CombatMetrics(){
+		for(int kind = 0; kind < KINDS; kind++){
+			for(int counter = 0; counter < COUNTERS; counter++){
+				counters[kind][counter] = new LongAdder();
+			}
+			for(int bucket = 0; bucket < HISTOGRAM_BUCKETS; bucket++){
+				histograms[kind][bucket] = new LongAdder();
+			}
+		}
+	}
+
+	/************************************************
+	 * Recording
+	 ************************************************/
+
+	/**
+	 * Counts one attack of the given mobile.
+	 *
+	 * @param attacker
+	 * 		  The mobile that attacked.
+	 * @param flags
+	 * 		  A combination of CombatLog.HIT and CombatLog.KILL.
+	 * @param damage
+	 * 		  The damage dealt, only counted on a hit.
+	 * @param loot
+	 * 		  The number of items looted, only counted on a kill.
+	 */
+	public void recordAttack(Mobile attacker, int flags, int damage, int loot){
+		int index = Kind.of(attacker).ordinal();
+		LongAdder[] kind = counters[index];
+		kind[ATTACKS].increment();
+		if((flags & CombatLog.HIT) == 0)
+			return;
+		kind[HITS].increment();
+		kind[DAMAGE].add(damage);
+		histograms[index][bucket(damage)].increment();
+		if((flags & CombatLog.KILL) != 0){
+			kind[KILLS].increment();
+			kind[LOOT].add(loot);
+		}
+	}
+
+	/**
+	 * Counts one heal of the given mobile. Mobile only counts heals that changed its
+	 * hitpoints, so a monster, which does not heal, never has heals counted.
+	 *
+	 * @param mobile
+	 * 		  The mobile that healed.
+	 * @param hitpoints
+	 * 		  The hitpoints the heal restored.
+	 */
+	public void recordHeal(Mobile mobile, long hitpoints){
+		LongAdder[] kind = counters[Kind.of(mobile).ordinal()];
+		kind[HEALS].increment();
+		kind[HEALED].add(hitpoints);
+	}
+
+	/**
+	 * Returns the bucket of a damage histogram that counts the given damage.
+	 *
+	 * @return | if (damage <= 0) then result == 0
+	 * 		   | else result == 32 - Integer.numberOfLeadingZeros(damage)
+	 */
+	public static int bucket(int damage){
+		return (damage <= 0) ? 0 : 32 - Integer.numberOfLeadingZeros(damage);
+	}
+
+	/************************************************
+	 * Snapshots
+	 ************************************************/
+
+	/**
+	 * Returns the current values of the counters.
+	 */
+	public Snapshot snapshot(){
+		long[][] values = new long[KINDS][COUNTERS];
+		long[][] histogram = new long[KINDS][HISTOGRAM_BUCKETS];
+		for(int kind = 0; kind < KINDS; kind++){
+			for(int counter = 0; counter < COUNTERS; counter++){
+				values[kind][counter] = counters[kind][counter].sum();
+			}
+			for(int bucket = 0; bucket < HISTOGRAM_BUCKETS; bucket++){
+				histogram[kind][bucket] = histograms[kind][bucket].sum();
+			}
+		}
+		return new Snapshot(values, histogram);
+	}
+
+	/**
+	 * The values of the counters of combat metrics at one moment.
+	 */
+	@Value
+	public static final class Snapshot {
+
+		private Snapshot(long[][] values, long[][] histogram){
+			this.values = values;
+			this.histogram = histogram;
+		}
+
+		/**
+		 * Returns the number of attacks by mobiles of the given kind.
+		 */
+		@Immutable
+		public long getAttacks(Kind kind){
+			return values[kind.ordinal()][ATTACKS];
+		}
+
+		/**
+		 * Returns the number of attacks by mobiles of the given kind that hit.
+		 */
+		@Immutable
+		public long getHits(Kind kind){
+			return values[kind.ordinal()][HITS];
+		}
+
+		/**
+		 * Returns the number of attacks by mobiles of the given kind that missed.
+		 *
+		 * @return | result == getAttacks(kind) - getHits(kind)
+		 */
+		@Immutable
+		public long getMisses(Kind kind){
+			return getAttacks(kind) - getHits(kind);
+		}
+
+		/**
+		 * Returns the damage dealt by mobiles of the given kind.
+		 */
+		@Immutable
+		public long getDamage(Kind kind){
+			return values[kind.ordinal()][DAMAGE];
+		}
+
+		/**
+		 * Returns the number of hits by mobiles of the given kind per damage bucket.
+		 *
+		 * @return A new array of HISTOGRAM_BUCKETS counts, see CombatMetrics.bucket.
+		 */
+		public long[] getDamageHistogram(Kind kind){
+			return histogram[kind.ordinal()].clone();
+		}
+
+		/**
+		 * Returns the number of kills by mobiles of the given kind.
+		 */
+		@Immutable
+		public long getKills(Kind kind){
+			return values[kind.ordinal()][KILLS];
+		}
+
+		/**
+		 * Returns the number of items looted by mobiles of the given kind.
+		 */
+		@Immutable
+		public long getItemsLooted(Kind kind){
+			return values[kind.ordinal()][LOOT];
+		}
+
+		/**
+		 * Returns the number of heals of mobiles of the given kind.
+		 */
+		@Immutable
+		public long getHeals(Kind kind){
+			return values[kind.ordinal()][HEALS];
+		}
+
+		/**
+		 * Returns the hitpoints restored by heals of mobiles of the given kind.
+		 */
+		@Immutable
+		public long getHitpointsHealed(Kind kind){
+			return values[kind.ordinal()][HEALED];
+		}
+
+		/**
+		 * Returns a textual representation of this snapshot, one line per kind.
+		 */
+		@Override
+		public String toString(){
+			StringBuilder result = new StringBuilder();
+			for(Kind kind : Kind.values()){
+				result.append(String.format(
+						"%s: %d attacks, %d hits, %d misses, %d damage, %d kills, %d items looted, %d healed%n",
+						kind, getAttacks(kind), getHits(kind), getMisses(kind), getDamage(kind),
+						getKills(kind), getItemsLooted(kind), getHitpointsHealed(kind)));
+			}
+			return result.toString();
+		}
+
+		/**
+		 * The counters per kind.
+		 */
+		private final long[][] values;
+
+		/**
+		 * The damage histogram per kind.
+		 */
+		private final long[][] histogram;
+	}
+
+	/************************************************
+	 * Counters
+	 ************************************************/
+
+	/**
+	 * The number of kinds of mobiles.
+	 */
+	private static final int KINDS = Kind.values().length;
+
+	/*
+	 * The indices of the counters of one kind.
+	 */
+	private static final int ATTACKS = 0;
+	private static final int HITS = 1;
+	private static final int DAMAGE = 2;
+	private static final int KILLS = 3;
+	private static final int LOOT = 4;
+	private static final int HEALS = 5;
+	private static final int HEALED = 6;
+	private static final int COUNTERS = 7;
+
+	/**
+	 * The counters per kind, indexed by the constants above.
+	 */
+	private final LongAdder[][] counters = new LongAdder[KINDS][COUNTERS];
+
+	/**
+	 * The damage histogram per kind.
+	 */
+	private final LongAdder[][] histograms = new LongAdder[KINDS][HISTOGRAM_BUCKETS];
+}
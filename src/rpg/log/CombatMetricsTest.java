@@ -0,0 +1,116 @@
+package rpg.log;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.util.EnumMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import rpg.Hero;
+import rpg.Monster;
+import rpg.exception.InvalidContentException;
+import rpg.inventory.Anchorpoint;
+import rpg.inventory.Armor;
+import rpg.inventory.ArmorType;
+import rpg.inventory.Item;
+import rpg.inventory.Weapon;
+import rpg.log.CombatMetrics.Kind;
+import rpg.simulation.BattleSimulator;
+import rpg.utility.SplittableRandomSource;
+import rpg.value.DucatAmount;
+import rpg.value.Unit;
+import rpg.value.Weight;
+
+public class CombatMetricsTest {
+
+	private Hero hero;
+	private Monster monster;
+
+	@Before
+	public void setUp() {
+		CombatMetrics.disable();
+		Weight weight = new Weight(BigDecimal.TEN, Unit.kg);
+		EnumMap<Anchorpoint, Item> heroItems = new EnumMap<Anchorpoint, Item>(Anchorpoint.class);
+		heroItems.put(Anchorpoint.BODY, new Armor(weight, new DucatAmount(BigDecimal.TEN), 10, ArmorType.STANDARD));
+		hero = new Hero("Jimmie", 101L, BigDecimal.valueOf(20), heroItems);
+		Armor skin = new Armor(weight, new DucatAmount(BigDecimal.TEN), 10, ArmorType.STANDARD);
+		monster = new Monster("Bimmy", 97L, BigDecimal.valueOf(30), new Weapon(weight, 21), skin,
+				new EnumMap<Anchorpoint, Item>(Anchorpoint.class));
+	}
+
+	@After
+	public void tearDown() {
+		CombatMetrics.disable();
+	}
+
+	@Test
+	public void disabledByDefault() throws InvalidContentException {
+		assertNull(CombatMetrics.getActive());
+		hero.hit(monster);
+		assertNull(CombatMetrics.getActive());
+	}
+
+	@Test
+	public void metricsMatchCombatLog() throws IOException, InvalidContentException {
+		File directory = Files.createTempDirectory("combat-metrics").toFile();
+		try {
+			CombatMetrics metrics = CombatMetrics.enable();
+			CombatLog log = new CombatLog(directory);
+			hero.setCombatLog(log);
+			monster.setCombatLog(log);
+			BattleSimulator.duel(hero, monster, new SplittableRandomSource(3L), null);
+			log.close();
+			CombatMetrics.Snapshot snapshot = metrics.snapshot();
+			CombatReplay replay = CombatReplay.read(directory);
+
+			CombatReplay.State heroState = replay.getState(hero.getID());
+			assertEquals(heroState.getAttacks(), snapshot.getAttacks(Kind.HERO));
+			assertEquals(heroState.getHits(), snapshot.getHits(Kind.HERO));
+			assertEquals(heroState.getDamageDealt(), snapshot.getDamage(Kind.HERO));
+			assertEquals(heroState.getKills(), snapshot.getKills(Kind.HERO));
+			CombatReplay.State monsterState = replay.getState(monster.getID());
+			assertEquals(monsterState.getAttacks(), snapshot.getAttacks(Kind.MONSTER));
+			assertEquals(monsterState.getItemsLooted(), snapshot.getItemsLooted(Kind.MONSTER));
+			assertEquals(replay.getEventCount() - replay.getHitCount(),
+					snapshot.getMisses(Kind.HERO) + snapshot.getMisses(Kind.MONSTER));
+			assertTrue(snapshot.getHeals(Kind.HERO) <= heroState.getKills());
+			assertEquals(0, snapshot.getHeals(Kind.MONSTER));
+			assertEquals(0, snapshot.getHitpointsHealed(Kind.MONSTER));
+
+			long histogramHits = 0;
+			for (long count : snapshot.getDamageHistogram(Kind.HERO))
+				histogramHits += count;
+			assertEquals(snapshot.getHits(Kind.HERO), histogramHits);
+		} finally {
+			for (File file : directory.listFiles())
+				file.delete();
+			directory.delete();
+		}
+	}
+
+	@Test
+	public void disableStopsCounting() throws InvalidContentException {
+		CombatMetrics metrics = CombatMetrics.enable();
+		hero.hit(monster);
+		CombatMetrics.disable();
+		hero.hit(monster);
+		assertEquals(1, metrics.snapshot().getAttacks(Kind.HERO));
+		assertNotSame(metrics, CombatMetrics.enable());
+	}
+
+	@Test
+	public void bucket() {
+		assertEquals(0, CombatMetrics.bucket(-5));
+		assertEquals(0, CombatMetrics.bucket(0));
+		assertEquals(1, CombatMetrics.bucket(1));
+		assertEquals(2, CombatMetrics.bucket(3));
+		assertEquals(3, CombatMetrics.bucket(4));
+		assertEquals(31, CombatMetrics.bucket(Integer.MAX_VALUE));
+	}
+}
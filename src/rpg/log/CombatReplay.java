@@ -0,0 +1,376 @@
+package rpg.log;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Raw;
+import rpg.Mobile;
+
+/**
+ * The result of replaying a combat log: the final state of every mobile that appears
+ * in it and aggregate statistics over all recorded hits.
+ *
+ * A replay only reads the records, so it does not need the random numbers or the
+ * items of the original fight.
+ *
+ * @author Robbe, Elias
+ */
+public class CombatReplay {
+
+	/**
+	 * Replays every segment of the log in the given directory, in order.
+	 *
+	 * @param directory
+	 * 		  The directory a CombatLog was written to.
+	 * @return A replay of all records of the log.
+	 * @throws IllegalArgumentException
+	 * 		   The directory is not effective.
+	 * 		   | directory == null
+	 * @throws IOException
+	 * 		   A segment could not be read or is not a segment of a combat log.
+	 */
+	public static CombatReplay read(File directory) throws IllegalArgumentException, IOException {
+		if (directory == null)
+			throw new IllegalArgumentException("Non-effective directory");
+		CombatReplay replay = new CombatReplay();
+		for (int index = 0; CombatLog.getSegmentFile(directory, index).exists(); index++) {
+			replay.readSegment(CombatLog.getSegmentFile(directory, index));
+		}
+		return replay;
+	}
+
+	/**
+	 * Replays the records of one segment file.
+	 */
+	private void readSegment(File file) throws IOException {
+		MappedByteBuffer segment;
+		RandomAccessFile input = new RandomAccessFile(file, "r");
+		try {
+			segment = input.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, input.length());
+		} finally {
+			input.close();
+		}
+		if (segment.capacity() < CombatLog.HEADER_SIZE || segment.getInt() != CombatLog.MAGIC
+				|| segment.getInt() != CombatLog.RECORD_SIZE)
+			throw new IOException("Not a combat log segment: " + file);
+		long count = segment.getLong();
+		if (count < 0 || CombatLog.HEADER_SIZE + count * CombatLog.RECORD_SIZE > segment.capacity())
+			throw new IOException("Corrupt combat log segment: " + file);
+		for (long i = 0; i < count; i++) {
+			long attacker = segment.getLong();
+			long defender = segment.getLong();
+			long attackerHitpoints = segment.getLong();
+			long defenderHitpoints = segment.getLong();
+			int roll = segment.getInt();
+			int damage = segment.getInt();
+			int loot = segment.getInt();
+			int flags = segment.getInt();
+			replay(attacker, defender, roll, damage, attackerHitpoints, defenderHitpoints, loot, flags);
+		}
+	}
+
+	/**
+	 * Applies one record to the states and the statistics.
+	 */
+	private void replay(long attacker, long defender, int roll, int damage,
+			long attackerHitpoints, long defenderHitpoints, int loot, int flags) {
+		State attackerState = getOrCreateState(attacker);
+		State defenderState = getOrCreateState(defender);
+		attackerState.hitpoints = attackerHitpoints;
+		attackerState.attacks++;
+		attackerState.itemsLooted += loot;
+		defenderState.hitpoints = defenderHitpoints;
+		events++;
+		totalRoll += roll;
+		itemsLooted += loot;
+		if ((flags & CombatLog.HIT) != 0) {
+			attackerState.hits++;
+			attackerState.damageDealt += damage;
+			hits++;
+			totalDamage += damage;
+		}
+		if ((flags & CombatLog.KILL) != 0) {
+			attackerState.kills++;
+			defenderState.dead = true;
+			kills++;
+		}
+	}
+
+	/**
+	 * Returns the state of the mobile with the given ID, creating it if needed.
+	 */
+	private State getOrCreateState(long id) {
+		State state = states.get(id);
+		if (state == null) {
+			state = new State(id);
+			states.put(id, state);
+		}
+		return state;
+	}
+
+	/************************************************
+	 * States
+	 ************************************************/
+
+	/**
+	 * The final state of one mobile in a replayed log.
+	 */
+	public static class State {
+
+		private State(long id) {
+			this.id = id;
+		}
+
+		/**
+		 * Returns the ID of the mobile.
+		 */
+		@Basic @Raw
+		public long getID() {
+			return id;
+		}
+
+		/**
+		 * Returns the hitpoints of the mobile after the last record it appears in.
+		 */
+		@Basic @Raw
+		public long getHitpoints() {
+			return hitpoints;
+		}
+
+		/**
+		 * Returns whether the mobile was killed.
+		 */
+		@Basic @Raw
+		public boolean isDead() {
+			return dead;
+		}
+
+		/**
+		 * Returns the number of times the mobile attacked.
+		 */
+		@Basic @Raw
+		public long getAttacks() {
+			return attacks;
+		}
+
+		/**
+		 * Returns the number of attacks of the mobile that beat the protection.
+		 */
+		@Basic @Raw
+		public long getHits() {
+			return hits;
+		}
+
+		/**
+		 * Returns the total damage the mobile dealt.
+		 */
+		@Basic @Raw
+		public long getDamageDealt() {
+			return damageDealt;
+		}
+
+		/**
+		 * Returns the number of mobiles the mobile killed.
+		 */
+		@Basic @Raw
+		public long getKills() {
+			return kills;
+		}
+
+		/**
+		 * Returns the number of items the mobile looted.
+		 */
+		@Basic @Raw
+		public long getItemsLooted() {
+			return itemsLooted;
+		}
+
+		/**
+		 * The ID of the mobile.
+		 */
+		private final long id;
+
+		/**
+		 * The hitpoints after the last record of the mobile.
+		 */
+		private long hitpoints;
+
+		/**
+		 * Whether the mobile was killed.
+		 */
+		private boolean dead;
+
+		/**
+		 * The number of attacks of the mobile.
+		 */
+		private long attacks;
+
+		/**
+		 * The number of hits of the mobile.
+		 */
+		private long hits;
+
+		/**
+		 * The damage dealt by the mobile.
+		 */
+		private long damageDealt;
+
+		/**
+		 * The number of kills of the mobile.
+		 */
+		private long kills;
+
+		/**
+		 * The number of items looted by the mobile.
+		 */
+		private long itemsLooted;
+	}
+
+	/**
+	 * Returns the state of the mobile with the given ID, or null if it does not
+	 * appear in the log.
+	 */
+	public State getState(long id) {
+		return states.get(id);
+	}
+
+	/**
+	 * Returns the states of all mobiles in the log, by their ID.
+	 */
+	public Map<Long, State> getStates() {
+		return Collections.unmodifiableMap(states);
+	}
+
+	/**
+	 * Gives the given mobile the final state the log records for it.
+	 *
+	 * @param mobile
+	 * 		  The mobile to restore.
+	 * @return False if the mobile does not appear in the log, in which case it is not
+	 * 		   changed.
+	 * 		   | result == (getState(mobile.getID()) != null)
+	 * @post The mobile has the final hitpoints of the log.
+	 * 		 | if (result) then
+	 * 		 |	(new mobile).getCurrentHitpoints() == getState(mobile.getID()).getHitpoints()
+	 * @post The mobile is dead if the log records its death.
+	 * 		 | if (result && getState(mobile.getID()).isDead()) then (new mobile).getIsDead()
+	 * @throws IllegalArgumentException
+	 * 		   The mobile is not effective.
+	 * 		   | mobile == null
+	 */
+	public boolean apply(Mobile mobile) throws IllegalArgumentException {
+		if (mobile == null)
+			throw new IllegalArgumentException("Non-effective mobile");
+		State state = states.get(mobile.getID());
+		if (state == null)
+			return false;
+		mobile.setCurrentHitpoints(state.getHitpoints());
+		if (state.isDead())
+			mobile.setIsDead(true);
+		return true;
+	}
+
+	/**
+	 * The states of the mobiles in the log, by their ID.
+	 */
+	private final Map<Long, State> states = new HashMap<Long, State>();
+
+	/************************************************
+	 * Statistics
+	 ************************************************/
+
+	/**
+	 * Returns the number of records in the log.
+	 */
+	@Basic @Raw
+	public long getEventCount() {
+		return events;
+	}
+
+	/**
+	 * Returns the number of records in which the roll beat the protection.
+	 */
+	@Basic @Raw
+	public long getHitCount() {
+		return hits;
+	}
+
+	/**
+	 * Returns the number of records in which the defender was killed.
+	 */
+	@Basic @Raw
+	public long getKillCount() {
+		return kills;
+	}
+
+	/**
+	 * Returns the damage dealt over all records.
+	 */
+	@Basic @Raw
+	public long getTotalDamage() {
+		return totalDamage;
+	}
+
+	/**
+	 * Returns the number of items looted over all records.
+	 */
+	@Basic @Raw
+	public long getItemsLooted() {
+		return itemsLooted;
+	}
+
+	/**
+	 * Returns the mean roll over all records, or zero for an empty log.
+	 *
+	 * @return | result == (getEventCount() == 0) ? 0 : totalRoll / getEventCount()
+	 */
+	public double getAverageRoll() {
+		return (events == 0) ? 0.0 : (double) totalRoll / events;
+	}
+
+	/**
+	 * Returns the fraction of the records in which the roll beat the protection.
+	 *
+	 * @return | result == (getEventCount() == 0) ? 0 : getHitCount() / getEventCount()
+	 */
+	public double getHitRate() {
+		return (events == 0) ? 0.0 : (double) hits / events;
+	}
+
+	/**
+	 * The number of records.
+	 */
+	private long events;
+
+	/**
+	 * The number of records with a hit.
+	 */
+	private long hits;
+
+	/**
+	 * The number of records with a kill.
+	 */
+	private long kills;
+
+	/**
+	 * The damage of all records.
+	 */
+	private long totalDamage;
+
+	/**
+	 * The items looted in all records.
+	 */
+	private long itemsLooted;
+
+	/**
+	 * The sum of the rolls of all records.
+	 */
+	private long totalRoll;
+}
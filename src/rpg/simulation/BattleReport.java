@@ -0,0 +1,225 @@
+package rpg.simulation;
+
+import java.util.Arrays;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Raw;
+
+/**
+ * A summary of a number of simulated duels between a hero and a monster.
+ *
+ * A report is filled by one thread at a time. Reports of separate parts of a
+ * simulation are combined with merge.
+ *
+ * @invar Every duel is either won by one of both sides or undecided.
+ * 		  | getDuels() == getHeroWins() + getMonsterWins() + getUndecided()
+ * @author Robbe, Elias
+ */
+public class BattleReport {
+
+	/**
+	 * The number of buckets of a damage distribution. The last bucket counts every
+	 * duel in which at least HISTOGRAM_SIZE - 1 damage was dealt.
+	 */
+	public static final int HISTOGRAM_SIZE = 1024;
+
+	/**
+	 * The number of duels won by the hero.
+	 */
+	private long heroWins;
+
+	/**
+	 * The number of duels won by the monster.
+	 */
+	private long monsterWins;
+
+	/**
+	 * The number of duels that hit the round limit before one side died.
+	 */
+	private long undecided;
+
+	/**
+	 * The number of rounds of all duels together.
+	 */
+	private long totalRounds;
+
+	/**
+	 * The number of duels per amount of damage the hero dealt in them.
+	 */
+	private final long[] heroDamage = new long[HISTOGRAM_SIZE];
+
+	/**
+	 * The number of duels per amount of damage the monster dealt in them.
+	 */
+	private final long[] monsterDamage = new long[HISTOGRAM_SIZE];
+
+	/**
+	 * Records the outcome of one duel.
+	 *
+	 * @param winner
+	 * 		  The side that won, or null if the duel is undecided.
+	 * @param rounds
+	 * 		  The number of rounds the duel lasted.
+	 * @param damageByHero
+	 * 		  The total damage the hero dealt.
+	 * @param damageByMonster
+	 * 		  The total damage the monster dealt.
+	 */
+	void record(Side winner, long rounds, long damageByHero, long damageByMonster){
+		if(winner == Side.HERO)
+			heroWins++;
+		else if(winner == Side.MONSTER)
+			monsterWins++;
+		else
+			undecided++;
+		totalRounds += rounds;
+		heroDamage[bucket(damageByHero)]++;
+		monsterDamage[bucket(damageByMonster)]++;
+	}
+
+	/**
+	 * Returns the bucket of a damage distribution that counts the given damage.
+	 */
+	private static int bucket(long damage){
+		return (int) Math.max(0L, Math.min(damage, HISTOGRAM_SIZE - 1));
+	}
+
+	/**
+	 * Adds the duels of the given report to this report.
+	 *
+	 * @param other
+	 * 		  The report to add.
+	 * @post | new.getDuels() == getDuels() + other.getDuels()
+	 */
+	void merge(BattleReport other){
+		heroWins += other.heroWins;
+		monsterWins += other.monsterWins;
+		undecided += other.undecided;
+		totalRounds += other.totalRounds;
+		for(int i = 0; i < HISTOGRAM_SIZE; i++){
+			heroDamage[i] += other.heroDamage[i];
+			monsterDamage[i] += other.monsterDamage[i];
+		}
+	}
+
+	/**
+	 * Returns the number of duels in this report.
+	 */
+	public long getDuels(){
+		return heroWins + monsterWins + undecided;
+	}
+
+	/**
+	 * Returns the number of duels won by the hero.
+	 */
+	@Basic @Raw
+	public long getHeroWins(){
+		return this.heroWins;
+	}
+
+	/**
+	 * Returns the number of duels won by the monster.
+	 */
+	@Basic @Raw
+	public long getMonsterWins(){
+		return this.monsterWins;
+	}
+
+	/**
+	 * Returns the number of duels that hit the round limit.
+	 */
+	@Basic @Raw
+	public long getUndecided(){
+		return this.undecided;
+	}
+
+	/**
+	 * Returns the number of rounds of all duels together.
+	 */
+	@Basic @Raw
+	public long getTotalRounds(){
+		return this.totalRounds;
+	}
+
+	/**
+	 * Returns the fraction of the duels that was won by the hero.
+	 *
+	 * @return | result == (double) getHeroWins() / getDuels()
+	 */
+	public double getHeroWinRate(){
+		return (getDuels() == 0) ? 0.0 : (double) heroWins / getDuels();
+	}
+
+	/**
+	 * Returns the average number of rounds of a duel.
+	 *
+	 * @return | result == (double) getTotalRounds() / getDuels()
+	 */
+	public double getAverageRounds(){
+		return (getDuels() == 0) ? 0.0 : (double) totalRounds / getDuels();
+	}
+
+	/**
+	 * Returns the distribution of the damage the hero dealt per duel. The element at
+	 * index I is the number of duels in which the hero dealt I damage.
+	 */
+	public long[] getHeroDamageDistribution(){
+		return heroDamage.clone();
+	}
+
+	/**
+	 * Returns the distribution of the damage the monster dealt per duel. The element at
+	 * index I is the number of duels in which the monster dealt I damage.
+	 */
+	public long[] getMonsterDamageDistribution(){
+		return monsterDamage.clone();
+	}
+
+	/**
+	 * Returns the average of the given damage distribution.
+	 */
+	private static double mean(long[] distribution){
+		long duels = 0;
+		long total = 0;
+		for(int i = 0; i < distribution.length; i++){
+			duels += distribution[i];
+			total += i * distribution[i];
+		}
+		return (duels == 0) ? 0.0 : (double) total / duels;
+	}
+
+	/**
+	 * Returns the smallest damage of the given distribution below which at least the
+	 * given fraction of the duels lies.
+	 */
+	private static int percentile(long[] distribution, double fraction){
+		long duels = Arrays.stream(distribution).sum();
+		long needed = (long) Math.ceil(fraction * duels);
+		long seen = 0;
+		for(int i = 0; i < distribution.length; i++){
+			seen += distribution[i];
+			if(seen >= needed && seen > 0) return i;
+		}
+		return 0;
+	}
+
+	@Override
+	public String toString(){
+		return String.format("%,d duels: hero wins %.2f%%, monster wins %.2f%%, undecided %,d%n"
+				+ "average rounds %.2f%n"
+				+ "hero damage per duel:    mean %.1f, median %d, p90 %d%n"
+				+ "monster damage per duel: mean %.1f, median %d, p90 %d",
+				getDuels(), 100.0 * getHeroWinRate(),
+				(getDuels() == 0) ? 0.0 : 100.0 * monsterWins / getDuels(), undecided,
+				getAverageRounds(),
+				mean(heroDamage), percentile(heroDamage, 0.5), percentile(heroDamage, 0.9),
+				mean(monsterDamage), percentile(monsterDamage, 0.5), percentile(monsterDamage, 0.9));
+	}
+
+	/**
+	 * The sides of a duel.
+	 */
+	enum Side {
+		HERO, MONSTER
+	}
+}
@@ -0,0 +1,385 @@
+package rpg.simulation;
+
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Raw;
+import rpg.Hero;
+import rpg.Mobile;
+import rpg.Monster;
+import rpg.exception.InvalidContentException;
+import rpg.inventory.Anchorpoint;
+import rpg.inventory.Armor;
+import rpg.inventory.ArmorType;
+import rpg.inventory.Item;
+import rpg.inventory.Weapon;
+import rpg.simulation.BattleReport.Side;
+import rpg.utility.BufferedRandomSource;
+import rpg.utility.RandomSource;
+import rpg.utility.SplittableRandomSource;
+import rpg.value.DucatAmount;
+import rpg.value.Unit;
+import rpg.value.Weight;
+
+/**
+ * A Monte Carlo simulator that runs many independent duels between a hero and a monster.
+ *
+ * Every duel fights with a fresh hero and monster created from the templates of the
+ * simulator. The side that strikes first is drawn at random, after which both sides hit
+ * each other in turn until one of them dies. A round consists of one hit by each side.
+ *
+ * The duels are spread over the cores with fork/join. Every task draws from its own
+ * random source, split off the source of its parent, so the tasks never contend for a
+ * random generator. Both mobiles of a duel draw their rolls from the source of the task
+ * that runs it, and the rolls of 0 to 100 are pre-drawn in bulk. The split tree only
+ * depends on the number of duels, so a simulation with the same seed gives the same
+ * report no matter how the tasks are scheduled.
+ *
+ * @invar The templates of the simulator are effective.
+ * 		  | getHeroTemplate() != null && getMonsterTemplate() != null
+ * @author Robbe, Elias
+ */
+public class BattleSimulator {
+
+	/**
+	 * The number of rounds after which a duel is stopped as undecided. A monster with
+	 * a weak claw deals negative damage, so not every duel ends on its own.
+	 */
+	public static final int MAX_ROUNDS = 10000;
+
+	/**
+	 * The number of duels a fork/join task runs itself instead of splitting further.
+	 */
+	private static final int DUELS_PER_TASK = 512;
+
+	/**
+	 * Creates a simulator for duels between heroes and monsters of the given templates.
+	 *
+	 * @param heroTemplate
+	 * 		  The template of the heroes.
+	 * @param monsterTemplate
+	 * 		  The template of the monsters.
+	 * @throws IllegalArgumentException
+	 * 		   One of the templates is not effective.
+	 * 		   | heroTemplate == null || monsterTemplate == null
+	 */
+	public BattleSimulator(MobileTemplate<? extends Hero> heroTemplate,
+			MobileTemplate<? extends Monster> monsterTemplate) throws IllegalArgumentException
+	{
+		if(heroTemplate == null || monsterTemplate == null)
+			throw new IllegalArgumentException("Non-effective template");
+		this.heroTemplate = heroTemplate;
+		this.monsterTemplate = monsterTemplate;
+	}
+
+	/**
+	 * The template of the heroes.
+	 */
+	private final MobileTemplate<? extends Hero> heroTemplate;
+
+	/**
+	 * The template of the monsters.
+	 */
+	private final MobileTemplate<? extends Monster> monsterTemplate;
+
+	/**
+	 * Returns the template of the heroes.
+	 */
+	@Basic @Raw
+	public MobileTemplate<? extends Hero> getHeroTemplate(){
+		return this.heroTemplate;
+	}
+
+	/**
+	 * Returns the template of the monsters.
+	 */
+	@Basic @Raw
+	public MobileTemplate<? extends Monster> getMonsterTemplate(){
+		return this.monsterTemplate;
+	}
+
+	/************************************************
+	 * Simulation
+	 ************************************************/
+
+	/**
+	 * Runs the given number of duels in parallel on the common fork/join pool.
+	 *
+	 * @param duels
+	 * 		  The number of duels to run.
+	 * @param seed
+	 * 		  The seed of the random that is split over the tasks.
+	 * @return A report of all duels.
+	 * 		   | result.getDuels() == duels
+	 * @throws IllegalArgumentException
+	 * 		   The number of duels is negative.
+	 * 		   | duels < 0
+	 */
+	public BattleReport simulate(long duels, long seed) throws IllegalArgumentException {
+		if(duels < 0)
+			throw new IllegalArgumentException("Negative number of duels: " + duels);
+		return ForkJoinPool.commonPool().invoke(new DuelTask(duels, new SplittableRandomSource(seed)));
+	}
+
+	/**
+	 * Runs the given number of duels one after the other in the calling thread and prints
+	 * every round to the given stream.
+	 *
+	 * @param duels
+	 * 		  The number of duels to run.
+	 * @param seed
+	 * 		  The seed of the random.
+	 * @param out
+	 * 		  The stream to print the rounds to.
+	 * @return A report of all duels.
+	 * 		   | result.getDuels() == duels
+	 * @throws IllegalArgumentException
+	 * 		   The number of duels is negative or the stream is not effective.
+	 * 		   | duels < 0 || out == null
+	 */
+	public BattleReport simulate(long duels, long seed, PrintStream out)
+			throws IllegalArgumentException
+	{
+		if(duels < 0)
+			throw new IllegalArgumentException("Negative number of duels: " + duels);
+		if(out == null)
+			throw new IllegalArgumentException("Non-effective output stream");
+		return runDuels(duels, new SplittableRandomSource(seed), out);
+	}
+
+	/**
+	 * Runs the given number of duels one after the other, with rolls pre-drawn from the
+	 * given source.
+	 */
+	private BattleReport runDuels(long duels, RandomSource source, PrintStream out){
+		RandomSource random = new BufferedRandomSource(source, 0, 100 + 1);
+		BattleReport report = new BattleReport();
+		for(long i = 0; i < duels; i++){
+			Hero hero = heroTemplate.create(random);
+			Monster monster = monsterTemplate.create(random);
+			hero.setRandomSource(random);
+			monster.setRandomSource(random);
+			fight(hero, monster, random, out, report);
+		}
+		return report;
+	}
+
+	/**
+	 * A fork/join task that runs a number of duels and reports on them.
+	 */
+	@SuppressWarnings("serial")
+	private class DuelTask extends RecursiveTask<BattleReport> {
+
+		/**
+		 * The number of duels this task runs.
+		 */
+		private final long duels;
+
+		/**
+		 * The random source of this task, used by no other task.
+		 */
+		private final RandomSource random;
+
+		private DuelTask(long duels, RandomSource random){
+			this.duels = duels;
+			this.random = random;
+		}
+
+		@Override
+		protected BattleReport compute(){
+			if(duels <= DUELS_PER_TASK){
+				return runDuels(duels, random, null);
+			}
+			DuelTask first = new DuelTask(duels / 2, random.split());
+			DuelTask second = new DuelTask(duels - duels / 2, random);
+			first.fork();
+			BattleReport report = second.compute();
+			report.merge(first.join());
+			return report;
+		}
+	}
+
+	/************************************************
+	 * Duel
+	 ************************************************/
+
+	/**
+	 * Lets the given hero and monster fight until one of them dies and returns the winner.
+	 *
+	 * @param hero
+	 * 		  The hero that fights.
+	 * @param monster
+	 * 		  The monster that fights.
+	 * @param random
+	 * 		  The source that decides who strikes first. The mobiles draw their rolls from
+	 * 		  their own sources.
+	 * @param out
+	 * 		  The stream every round is printed to, or null if nothing has to be printed.
+	 * @return The mobile that is still alive, or null if both still live after MAX_ROUNDS rounds.
+	 * @throws InvalidContentException
+	 * 		   The winner could not collect the treasures of the loser.
+	 */
+	public static Mobile duel(Hero hero, Monster monster, RandomSource random, PrintStream out)
+			throws InvalidContentException
+	{
+		Side winner = fightOrFail(hero, monster, random, out, null);
+		if(winner == Side.HERO) return hero;
+		if(winner == Side.MONSTER) return monster;
+		return null;
+	}
+
+	/**
+	 * Runs one duel and records it in the given report.
+	 *
+	 * @throws IllegalStateException
+	 * 		   The winner could not collect the treasures of the loser.
+	 */
+	private static Side fight(Hero hero, Monster monster, RandomSource random,
+			PrintStream out, BattleReport report) throws IllegalStateException
+	{
+		try{
+			return fightOrFail(hero, monster, random, out, report);
+		}
+		catch(InvalidContentException ex){
+			throw new IllegalStateException("Looting failed in a simulated duel", ex);
+		}
+	}
+
+	/**
+	 * Runs one duel, printing its rounds to the given stream and recording it in the given
+	 * report if they are effective.
+	 */
+	private static Side fightOrFail(Hero hero, Monster monster, RandomSource random,
+			PrintStream out, BattleReport report) throws InvalidContentException
+	{
+		boolean heroFirst = random.nextBoolean();
+		Mobile first = heroFirst ? hero : monster;
+		Mobile second = heroFirst ? monster : hero;
+		long damageByFirst = 0;
+		long damageBySecond = 0;
+		int rounds = 0;
+		while(rounds < MAX_ROUNDS && isAlive(first) && isAlive(second)){
+			rounds++;
+			if(out != null){
+				out.println(String.format("round %d: %s %d hitpoints, %s %d hitpoints", rounds,
+						hero.getName(), hero.getCurrentHitpoints(),
+						monster.getName(), monster.getCurrentHitpoints()));
+			}
+			damageByFirst += strike(first, second);
+			if(isAlive(second)){
+				damageBySecond += strike(second, first);
+			}
+		}
+		Side winner = null;
+		if(!isAlive(monster))
+			winner = Side.HERO;
+		else if(!isAlive(hero))
+			winner = Side.MONSTER;
+		if(out != null){
+			out.println((winner == null) ? "nobody won"
+					: ((winner == Side.HERO) ? hero.getName() : monster.getName()) + " won");
+		}
+		if(report != null){
+			long damageByHero = heroFirst ? damageByFirst : damageBySecond;
+			long damageByMonster = heroFirst ? damageBySecond : damageByFirst;
+			report.record(winner, rounds, damageByHero, damageByMonster);
+		}
+		return winner;
+	}
+
+	/**
+	 * Lets the attacker hit the defender once and returns the hitpoints the defender lost.
+	 */
+	private static long strike(Mobile attacker, Mobile defender) throws InvalidContentException {
+		long before = defender.getCurrentHitpoints();
+		attacker.hit(defender);
+		return Math.max(0L, before - defender.getCurrentHitpoints());
+	}
+
+	/**
+	 * Checks whether the given mobile still has hitpoints left.
+	 */
+	private static boolean isAlive(Mobile mobile){
+		return mobile.getCurrentHitpoints() > 0;
+	}
+
+	/************************************************
+	 * Command line
+	 ************************************************/
+
+	/**
+	 * Runs a simulation of the duel of the game between Jimmie and the hill giant.
+	 *
+	 * Usage: BattleSimulator [duels] [seed] [-v]
+	 * The option -v prints every round and runs the duels in the calling thread.
+	 */
+	public static void main(String[] args){
+		long duels = 1000000;
+		long seed = System.nanoTime();
+		boolean verbose = false;
+		int position = 0;
+		for(String arg : args){
+			if(arg.equals("-v"))
+				verbose = true;
+			else if(position++ == 0)
+				duels = Long.parseLong(arg);
+			else
+				seed = Long.parseLong(arg);
+		}
+		BattleSimulator simulator = new BattleSimulator(JIMMIE, HILL_GIANT);
+		long start = System.nanoTime();
+		BattleReport report = verbose ? simulator.simulate(duels, seed, System.out)
+				: simulator.simulate(duels, seed);
+		long elapsed = System.nanoTime() - start;
+		System.out.println(report);
+		System.out.println(String.format("seed %d, %.1f ms, %,.0f duels/s", seed, elapsed / 1e6,
+				duels / (elapsed / 1e9)));
+	}
+
+	/**
+	 * The hero of the game: 100 strength, a chestplate and chainmail.
+	 */
+	static final MobileTemplate<Hero> JIMMIE = new MobileTemplate<Hero>() {
+		@Override
+		public Hero create(RandomSource random){
+			EnumMap<Anchorpoint, Item> items = new EnumMap<Anchorpoint, Item>(Anchorpoint.class);
+			Armor chestplate = new Armor(TEN_KG, TEN_DUCATS, 10, ArmorType.STANDARD);
+			chestplate.setCurrentProtection(8);
+			items.put(Anchorpoint.BODY, chestplate);
+			Armor chainmail = new Armor(TEN_KG, TEN_DUCATS, 10, ArmorType.STANDARD);
+			chainmail.setCurrentProtection(7);
+			items.put(Anchorpoint.LEFT, chainmail);
+			return new Hero("Jimmie", 101L, BigDecimal.valueOf(100), items);
+		}
+	};
+
+	/**
+	 * The monster of the game: claws, a skin, a dagger and a long sword.
+	 */
+	static final MobileTemplate<Monster> HILL_GIANT = new MobileTemplate<Monster>() {
+		@Override
+		public Monster create(RandomSource random){
+			Armor skin = new Armor(TEN_KG, TEN_DUCATS, 10, ArmorType.STANDARD);
+			skin.setCurrentProtection(7);
+			EnumMap<Anchorpoint, Item> items = new EnumMap<Anchorpoint, Item>(Anchorpoint.class);
+			items.put(Anchorpoint.LEFT, new Weapon(TEN_KG, 14));
+			items.put(Anchorpoint.RIGHT, new Weapon(TEN_KG, 21));
+			return new Monster("Bimmy", 101L, BigDecimal.TEN, new Weapon(TEN_KG, 21), skin, items,
+					random);
+		}
+	};
+
+	/**
+	 * The weight of every item of the command line duel.
+	 */
+	private static final Weight TEN_KG = new Weight(BigDecimal.TEN, Unit.kg);
+
+	/**
+	 * The value of every armor of the command line duel.
+	 */
+	private static final DucatAmount TEN_DUCATS = new DucatAmount(BigDecimal.TEN);
+}
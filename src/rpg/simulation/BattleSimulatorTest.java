@@ -0,0 +1,102 @@
+package rpg.simulation;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.util.EnumMap;
+
+import org.junit.Test;
+
+import rpg.Hero;
+import rpg.Mobile;
+import rpg.Monster;
+import rpg.inventory.Anchorpoint;
+import rpg.inventory.Armor;
+import rpg.inventory.ArmorType;
+import rpg.inventory.Item;
+import rpg.inventory.Weapon;
+import rpg.utility.RandomSource;
+import rpg.utility.SplittableRandomSource;
+import rpg.value.DucatAmount;
+import rpg.value.Unit;
+import rpg.value.Weight;
+
+public class BattleSimulatorTest {
+
+	private static final Weight WEIGHT = new Weight(BigDecimal.ONE, Unit.kg);
+
+	private static final MobileTemplate<Hero> HERO = new MobileTemplate<Hero>() {
+		public Hero create(RandomSource random) {
+			EnumMap<Anchorpoint, Item> items = new EnumMap<Anchorpoint, Item>(Anchorpoint.class);
+			items.put(Anchorpoint.BODY, new Armor(WEIGHT, new DucatAmount(BigDecimal.ONE), 10, ArmorType.STANDARD));
+			return new Hero("Jimmie", 97L, BigDecimal.valueOf(40), items);
+		}
+	};
+
+	private static final MobileTemplate<Monster> MONSTER = new MobileTemplate<Monster>() {
+		public Monster create(RandomSource random) {
+			Armor skin = new Armor(WEIGHT, new DucatAmount(BigDecimal.ONE), 10, ArmorType.STANDARD);
+			return new Monster("Bimmy", 89L, BigDecimal.TEN, new Weapon(WEIGHT, 28), skin,
+					new EnumMap<Anchorpoint, Item>(Anchorpoint.class), random);
+		}
+	};
+
+	@Test
+	public void parallelSimulation() {
+		BattleReport report = new BattleSimulator(HERO, MONSTER).simulate(20000, 42L);
+		assertEquals(20000, report.getDuels());
+		assertEquals(0, report.getUndecided());
+		assertTrue(report.getHeroWins() > 0);
+		assertTrue(report.getMonsterWins() > 0);
+		assertTrue(report.getAverageRounds() >= 1.0);
+		long duels = 0;
+		for (long count : report.getHeroDamageDistribution()) {
+			duels += count;
+		}
+		assertEquals(20000, duels);
+	}
+
+	@Test
+	public void printedSimulation() {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		BattleReport report = new BattleSimulator(HERO, MONSTER).simulate(3, 7L, new PrintStream(bytes));
+		assertEquals(3, report.getDuels());
+		String printed = bytes.toString();
+		assertTrue(printed.contains("round 1: Jimmie 97 hitpoints, Bimmy 89 hitpoints"));
+	}
+
+	@Test
+	public void duelHasWinner() throws Exception {
+		RandomSource random = new SplittableRandomSource(1L);
+		Hero hero = HERO.create(random);
+		Monster monster = MONSTER.create(random);
+		Mobile winner = BattleSimulator.duel(hero, monster, random, null);
+		assertNotNull(winner);
+		assertTrue(winner.getCurrentHitpoints() > 0);
+		Mobile loser = (winner == hero) ? monster : hero;
+		assertEquals(0, loser.getCurrentHitpoints());
+	}
+
+	@Test
+	public void sameSeedSameReport() {
+		BattleSimulator simulator = new BattleSimulator(HERO, MONSTER);
+		BattleReport first = simulator.simulate(20000, 5L);
+		BattleReport second = simulator.simulate(20000, 5L);
+		assertEquals(first.getHeroWins(), second.getHeroWins());
+		assertEquals(first.getTotalRounds(), second.getTotalRounds());
+		assertArrayEquals(first.getHeroDamageDistribution(), second.getHeroDamageDistribution());
+		assertArrayEquals(first.getMonsterDamageDistribution(), second.getMonsterDamageDistribution());
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void negativeDuels() {
+		new BattleSimulator(HERO, MONSTER).simulate(-1, 0L);
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void nullTemplate() {
+		new BattleSimulator(HERO, null);
+	}
+}
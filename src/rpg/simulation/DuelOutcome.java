@@ -0,0 +1,85 @@
+package rpg.simulation;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Raw;
+import be.kuleuven.cs.som.annotate.Value;
+
+/**
+ * The exact outcome of a duel between a hero and a monster, as computed by DuelSolver.
+ *
+ * @invar The probabilities add up to one.
+ * 		  | getHeroWinProbability() + getMonsterWinProbability() + getUndecidedProbability() == 1
+ * @author Robbe, Elias
+ */
+@Value
+public final class DuelOutcome {
+
+	/**
+	 * Creates an outcome with the given probabilities and expected number of rounds.
+	 */
+	DuelOutcome(double heroWinProbability, double monsterWinProbability, double expectedRounds){
+		this.heroWinProbability = heroWinProbability;
+		this.monsterWinProbability = monsterWinProbability;
+		this.expectedRounds = expectedRounds;
+	}
+
+	/**
+	 * Returns the probability that the hero wins.
+	 */
+	@Basic @Raw @Immutable
+	public double getHeroWinProbability(){
+		return this.heroWinProbability;
+	}
+
+	/**
+	 * Returns the probability that the monster wins.
+	 */
+	@Basic @Raw @Immutable
+	public double getMonsterWinProbability(){
+		return this.monsterWinProbability;
+	}
+
+	/**
+	 * Returns the probability that neither side ever dies.
+	 *
+	 * @return | result == Math.max(0, 1 - getHeroWinProbability() - getMonsterWinProbability())
+	 */
+	@Immutable
+	public double getUndecidedProbability(){
+		return Math.max(0.0, 1.0 - heroWinProbability - monsterWinProbability);
+	}
+
+	/**
+	 * Returns the expected number of rounds of the duel, or positive infinity if the duel
+	 * can go on forever.
+	 */
+	@Basic @Raw @Immutable
+	public double getExpectedRounds(){
+		return this.expectedRounds;
+	}
+
+	/**
+	 * Returns a textual representation of this outcome.
+	 */
+	@Override
+	public String toString(){
+		return String.format("hero wins %.6f, monster wins %.6f, undecided %.6f, %.3f rounds expected",
+				heroWinProbability, monsterWinProbability, getUndecidedProbability(), expectedRounds);
+	}
+
+	/**
+	 * The probability that the hero wins.
+	 */
+	private final double heroWinProbability;
+
+	/**
+	 * The probability that the monster wins.
+	 */
+	private final double monsterWinProbability;
+
+	/**
+	 * The expected number of rounds.
+	 */
+	private final double expectedRounds;
+}
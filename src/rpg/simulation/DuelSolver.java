@@ -0,0 +1,357 @@
+package rpg.simulation;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import rpg.Hero;
+import rpg.Monster;
+import rpg.utility.SplittableRandomSource;
+
+/**
+ * An exact calculator of the outcome of a duel between a hero and a monster, as an
+ * alternative to sampling duels with the BattleSimulator.
+ *
+ * A duel is a Markov chain. The side that strikes first is drawn once with a fair coin,
+ * after which both sides hit each other in turn. A hit gets through if the roll of the
+ * attacker, uniform over 0 to 100, is higher than the protection of the defender, and
+ * then takes the damage of the attacker from the defender. The roll of a monster is
+ * capped by its own hitpoints. The state of the chain therefore only consists of the
+ * number of hits each side has taken, and it can only move to states in which a side
+ * has taken more hits or stay where it is. The probabilities of all states are computed
+ * with dynamic programming from the last states back to the first one, keeping two rows
+ * of states in memory.
+ *
+ * A side that takes no damage from the hits of the other one can not die. Its number of
+ * hits is only tracked as long as it changes whether its own rolls are capped, so such
+ * a chain stays finite. A duel in which neither side can ever die is undecided and
+ * lasts forever; the BattleSimulator stops those after MAX_ROUNDS rounds instead, which
+ * is the only way in which both can differ.
+ *
+ * Outcomes are cached by the stats of both sides, so the same duel is never solved twice.
+ *
+ * @author Robbe, Elias
+ */
+public final class DuelSolver {
+
+	/**
+	 * The largest number of states of one order of striking that is solved.
+	 */
+	public static final long MAX_STATES = 1L << 30;
+
+	private DuelSolver(){
+	}
+
+	/**
+	 * Returns the outcome of a duel between the given hero and monster as they are now.
+	 *
+	 * @effect | solve(DuelStats.of(hero), DuelStats.of(monster))
+	 */
+	public static DuelOutcome solve(Hero hero, Monster monster) throws IllegalArgumentException {
+		if(hero == null || monster == null)
+			throw new IllegalArgumentException("Non-effective mobile");
+		return solve(DuelStats.of(hero), DuelStats.of(monster));
+	}
+
+	/**
+	 * Returns the outcome of a duel between a hero and a monster with the given stats.
+	 *
+	 * @param hero
+	 * 		  The stats of the hero.
+	 * @param monster
+	 * 		  The stats of the monster.
+	 * @return The exact outcome of the duel, from the cache if it was solved before.
+	 * @throws IllegalArgumentException
+	 * 		   One of the stats is not effective, or the duel has more than MAX_STATES
+	 * 		   states.
+	 */
+	public static DuelOutcome solve(DuelStats hero, DuelStats monster) throws IllegalArgumentException {
+		if(hero == null || monster == null)
+			throw new IllegalArgumentException("Non-effective stats");
+		Key key = new Key(hero, monster);
+		DuelOutcome outcome = cache.get(key);
+		if(outcome == null){
+			outcome = compute(hero, monster);
+			DuelOutcome previous = cache.putIfAbsent(key, outcome);
+			if(previous != null)
+				outcome = previous;
+		}
+		return outcome;
+	}
+
+	/**
+	 * Returns the number of outcomes in the cache.
+	 */
+	public static int getCacheSize(){
+		return cache.size();
+	}
+
+	/**
+	 * Removes every outcome from the cache.
+	 *
+	 * @post | getCacheSize() == 0
+	 */
+	public static void clearCache(){
+		cache.clear();
+	}
+
+	/**
+	 * The outcomes that were solved before, by the stats of both sides.
+	 */
+	private static final ConcurrentHashMap<Key, DuelOutcome> cache = new ConcurrentHashMap<Key, DuelOutcome>();
+
+	/**
+	 * The key of a duel in the cache.
+	 */
+	private static final class Key {
+
+		private Key(DuelStats hero, DuelStats monster){
+			this.hero = hero;
+			this.monster = monster;
+		}
+
+		@Override
+		public boolean equals(Object other){
+			if(!(other instanceof Key))
+				return false;
+			Key key = (Key) other;
+			return hero.equals(key.hero) && monster.equals(key.monster);
+		}
+
+		@Override
+		public int hashCode(){
+			return 31 * hero.hashCode() + monster.hashCode();
+		}
+
+		private final DuelStats hero;
+		private final DuelStats monster;
+	}
+
+	/************************************************
+	 * Chain
+	 ************************************************/
+
+	/**
+	 * Solves the duel for both orders of striking and averages them.
+	 */
+	private static DuelOutcome compute(DuelStats hero, DuelStats monster){
+		Side heroSide = new Side(hero, monster);
+		Side monsterSide = new Side(monster, hero);
+		if((long) heroSide.levels * monsterSide.levels > MAX_STATES)
+			throw new IllegalArgumentException("Duel too long to solve: " + hero + " against " + monster);
+		double[] heroFirst = solveOrder(heroSide, monsterSide);
+		double[] monsterFirst = solveOrder(monsterSide, heroSide);
+		return new DuelOutcome(
+				(heroFirst[FIRST_WINS] + monsterFirst[SECOND_WINS]) / 2,
+				(heroFirst[SECOND_WINS] + monsterFirst[FIRST_WINS]) / 2,
+				(heroFirst[ROUNDS] + monsterFirst[ROUNDS]) / 2);
+	}
+
+	/*
+	 * The indices of the result of solveOrder.
+	 */
+	private static final int FIRST_WINS = 0;
+	private static final int SECOND_WINS = 1;
+	private static final int ROUNDS = 2;
+
+	/**
+	 * Returns the probability that the first side wins, the probability that the second
+	 * side wins and the expected number of rounds, if the given first side strikes first
+	 * in every round.
+	 */
+	private static double[] solveOrder(Side first, Side second){
+		int width = second.levels;
+		double[] firstWins = new double[width], secondWins = new double[width], rounds = new double[width];
+		double[] nextFirstWins = new double[width], nextSecondWins = new double[width],
+				nextRounds = new double[width];
+		for(int hitsFirst = first.levels - 1; hitsFirst >= 0; hitsFirst--){
+			double pFirst = first.hitProbability[hitsFirst];
+			int firstAfterHit = first.next(hitsFirst);
+			for(int hitsSecond = width - 1; hitsSecond >= 0; hitsSecond--){
+				Transition sum = new Transition();
+				// The first side hits.
+				if(pFirst > 0){
+					int secondAfterHit = second.next(hitsSecond);
+					if(secondAfterHit == DEAD){
+						sum.firstWins += pFirst;
+						sum.progress += pFirst;
+					}
+					else{
+						double pSecond = second.hitProbability[secondAfterHit];
+						double both = pFirst * pSecond;
+						if(both > 0){
+							if(firstAfterHit == DEAD){
+								sum.secondWins += both;
+								sum.progress += both;
+							}
+							else{
+								sum.add(both, hitsFirst, hitsSecond, firstAfterHit, secondAfterHit,
+										firstWins, secondWins, rounds, nextFirstWins, nextSecondWins, nextRounds);
+							}
+						}
+						double only = pFirst * (1 - pSecond);
+						if(only > 0){
+							sum.add(only, hitsFirst, hitsSecond, hitsFirst, secondAfterHit,
+									firstWins, secondWins, rounds, nextFirstWins, nextSecondWins, nextRounds);
+						}
+					}
+				}
+				// The first side misses.
+				double miss = (1 - pFirst) * second.hitProbability[hitsSecond];
+				if(miss > 0){
+					if(firstAfterHit == DEAD){
+						sum.secondWins += miss;
+						sum.progress += miss;
+					}
+					else{
+						sum.add(miss, hitsFirst, hitsSecond, firstAfterHit, hitsSecond,
+								firstWins, secondWins, rounds, nextFirstWins, nextSecondWins, nextRounds);
+					}
+				}
+				// Both sides missing leaves the chain where it is.
+				if(sum.progress == 0){
+					firstWins[hitsSecond] = 0;
+					secondWins[hitsSecond] = 0;
+					rounds[hitsSecond] = Double.POSITIVE_INFINITY;
+				}
+				else{
+					firstWins[hitsSecond] = sum.firstWins / sum.progress;
+					secondWins[hitsSecond] = sum.secondWins / sum.progress;
+					rounds[hitsSecond] = (1 + sum.rounds) / sum.progress;
+				}
+			}
+			double[] swap = nextFirstWins; nextFirstWins = firstWins; firstWins = swap;
+			swap = nextSecondWins; nextSecondWins = secondWins; secondWins = swap;
+			swap = nextRounds; nextRounds = rounds; rounds = swap;
+		}
+		return new double[] {nextFirstWins[0], nextSecondWins[0], nextRounds[0]};
+	}
+
+	/**
+	 * The sums over the ways a round can leave a state.
+	 */
+	private static final class Transition {
+
+		/**
+		 * The probability that the round leaves the state.
+		 */
+		private double progress;
+
+		/**
+		 * The probability that the round leaves the state and the first side wins later.
+		 */
+		private double firstWins;
+
+		/**
+		 * The probability that the round leaves the state and the second side wins later.
+		 */
+		private double secondWins;
+
+		/**
+		 * The sum of the probabilities of the states the round leads to, times their
+		 * expected number of rounds.
+		 */
+		private double rounds;
+
+		/**
+		 * Adds a move with the given probability from the state (fromFirst, fromSecond)
+		 * to the state (toFirst, toSecond), reading the solved target from the current
+		 * row if the first side took no extra hit and from the next row otherwise.
+		 */
+		private void add(double probability, int fromFirst, int fromSecond, int toFirst, int toSecond,
+				double[] firstWins, double[] secondWins, double[] rounds,
+				double[] nextFirstWins, double[] nextSecondWins, double[] nextRounds)
+		{
+			if(toFirst == fromFirst && toSecond == fromSecond)
+				return;
+			boolean sameRow = (toFirst == fromFirst);
+			progress += probability;
+			this.firstWins += probability * (sameRow ? firstWins : nextFirstWins)[toSecond];
+			this.secondWins += probability * (sameRow ? secondWins : nextSecondWins)[toSecond];
+			this.rounds += probability * (sameRow ? rounds : nextRounds)[toSecond];
+		}
+	}
+
+	/**
+	 * The number of hits that means a side is dead.
+	 */
+	private static final int DEAD = -1;
+
+	/**
+	 * One side of a duel, seen as the number of hits it has taken.
+	 */
+	private static final class Side {
+
+		/**
+		 * Derives the chain of the given side from its stats and those of its opponent.
+		 */
+		private Side(DuelStats self, DuelStats opponent) throws IllegalArgumentException {
+			long hitpoints = self.getHitpoints();
+			long damage = opponent.getDamage();
+			long count;
+			if(damage > 0){
+				mortal = true;
+				count = hitpoints / damage + ((hitpoints % damage == 0) ? 0 : 1);
+			}
+			else{
+				mortal = false;
+				if(self.isRollCapped() && damage < 0 && hitpoints <= opponent.getProtection())
+					count = (opponent.getProtection() - hitpoints) / -damage + 2;
+				else
+					count = 1;
+			}
+			if(count > MAX_STATES)
+				throw new IllegalArgumentException("Duel too long to solve: " + self + " against " + opponent);
+			levels = (int) count;
+			hitProbability = new double[levels];
+			double uncapped = (100 - opponent.getProtection()) / 101.0;
+			for(int hits = 0; hits < levels; hits++){
+				long current = hitpoints - hits * damage;
+				boolean blocked = self.isRollCapped() && current <= opponent.getProtection();
+				hitProbability[hits] = blocked ? 0 : uncapped;
+			}
+		}
+
+		/**
+		 * Returns the number of hits after one more hit, or DEAD.
+		 */
+		private int next(int hits){
+			if(hits + 1 < levels)
+				return hits + 1;
+			return mortal ? DEAD : hits;
+		}
+
+		/**
+		 * Whether the side dies of enough hits.
+		 */
+		private final boolean mortal;
+
+		/**
+		 * The number of different states of the side.
+		 */
+		private final int levels;
+
+		/**
+		 * The probability that a hit of the side gets through, by the number of hits it
+		 * has taken.
+		 */
+		private final double[] hitProbability;
+	}
+
+	/************************************************
+	 * Command line
+	 ************************************************/
+
+	/**
+	 * Solves the duel of the game between Jimmie and the hill giant and prints the outcome
+	 * and the time it took.
+	 */
+	public static void main(String[] args){
+		SplittableRandomSource random = new SplittableRandomSource(0L);
+		Hero hero = BattleSimulator.JIMMIE.create(random);
+		Monster monster = BattleSimulator.HILL_GIANT.create(random);
+		long start = System.nanoTime();
+		DuelOutcome outcome = solve(hero, monster);
+		long elapsed = System.nanoTime() - start;
+		System.out.println(outcome);
+		System.out.println(String.format("solved in %.3f ms", elapsed / 1e6));
+	}
+}
@@ -0,0 +1,101 @@
+package rpg.simulation;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import rpg.Hero;
+import rpg.Monster;
+import rpg.exception.InvalidContentException;
+import rpg.inventory.Anchorpoint;
+import rpg.inventory.Armor;
+import rpg.inventory.ArmorType;
+import rpg.inventory.Item;
+import rpg.inventory.Weapon;
+import rpg.utility.RandomSource;
+import rpg.utility.SplittableRandomSource;
+import rpg.value.DucatAmount;
+import rpg.value.Unit;
+import rpg.value.Weight;
+
+public class DuelSolverTest {
+
+	private static final Weight TEN_KG = new Weight(BigDecimal.TEN, Unit.kg);
+
+	@Before
+	public void setUp() {
+		DuelSolver.clearCache();
+	}
+
+	@Test
+	public void oneSureHitEach() {
+		DuelOutcome outcome = DuelSolver.solve(new DuelStats(10L, -1L, 10, false), new DuelStats(10L, -1L, 10, true));
+		assertEquals(0.5, outcome.getHeroWinProbability(), 1e-12);
+		assertEquals(0.5, outcome.getMonsterWinProbability(), 1e-12);
+		assertEquals(1.0, outcome.getExpectedRounds(), 1e-12);
+	}
+
+	@Test
+	public void monsterThatCannotHit() {
+		DuelOutcome outcome = DuelSolver.solve(new DuelStats(10L, 100L, 10, false), new DuelStats(10L, 49L, 10, true));
+		assertEquals(1.0, outcome.getHeroWinProbability(), 1e-12);
+		assertEquals(0.0, outcome.getMonsterWinProbability(), 1e-12);
+		assertEquals(101.0 / 51, outcome.getExpectedRounds(), 1e-9);
+	}
+
+	@Test
+	public void neitherSideCanDie() {
+		DuelOutcome outcome = DuelSolver.solve(new DuelStats(10L, 100L, 0, false), new DuelStats(10L, 100L, 0, true));
+		assertEquals(1.0, outcome.getUndecidedProbability(), 1e-12);
+		assertTrue(Double.isInfinite(outcome.getExpectedRounds()));
+	}
+
+	@Test
+	public void cappedRollsOfAHealingMonster() {
+		// The hero heals the monster until its rolls get over the protection of the hero.
+		DuelOutcome outcome = DuelSolver.solve(new DuelStats(20L, 30L, -10, false), new DuelStats(5L, 0L, 20, true));
+		assertEquals(0.0, outcome.getHeroWinProbability(), 1e-12);
+		assertEquals(1.0, outcome.getMonsterWinProbability(), 1e-12);
+	}
+
+	private static Monster ogre(RandomSource random) {
+		Armor skin = new Armor(TEN_KG, new DucatAmount(BigDecimal.TEN), 40, ArmorType.STANDARD);
+		skin.setCurrentProtection(40);
+		return new Monster("Ogre", 130L, BigDecimal.valueOf(40), new Weapon(TEN_KG, 21), skin,
+				new EnumMap<Anchorpoint, Item>(Anchorpoint.class), random);
+	}
+
+	@Test
+	public void agreesWithSimulatedDuels() throws InvalidContentException {
+		RandomSource random = new SplittableRandomSource(5L);
+		DuelOutcome outcome = DuelSolver.solve(BattleSimulator.JIMMIE.create(random), ogre(random));
+		assertTrue(outcome.getHeroWinProbability() > 0.1 && outcome.getMonsterWinProbability() > 0.1);
+		int duels = 20000;
+		int heroWins = 0;
+		for (int i = 0; i < duels; i++) {
+			Hero hero = BattleSimulator.JIMMIE.create(random);
+			if (BattleSimulator.duel(hero, ogre(random), random, null) == hero)
+				heroWins++;
+		}
+		assertEquals(outcome.getHeroWinProbability(), (double) heroWins / duels, 0.02);
+		assertEquals(1.0, outcome.getHeroWinProbability() + outcome.getMonsterWinProbability(), 1e-9);
+	}
+
+	@Test
+	public void outcomesAreCached() {
+		DuelStats hero = new DuelStats(101L, 18L, 45, false);
+		DuelStats monster = new DuelStats(101L, 7L, 0, true);
+		DuelOutcome outcome = DuelSolver.solve(hero, monster);
+		assertSame(outcome, DuelSolver.solve(new DuelStats(101L, 18L, 45, false), new DuelStats(101L, 7L, 0, true)));
+		assertEquals(1, DuelSolver.getCacheSize());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nonEffectiveStats() {
+		DuelSolver.solve(null, new DuelStats(1L, 0L, 1, true));
+	}
+}
@@ -0,0 +1,160 @@
+package rpg.simulation;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Raw;
+import be.kuleuven.cs.som.annotate.Value;
+import rpg.Hero;
+import rpg.Monster;
+
+/**
+ * The stats of one side of a duel that decide its outcome: the hitpoints, the total
+ * protection, the damage per hit and whether the rolls of the side are capped by its
+ * own hitpoints, as the rolls of a monster are.
+ *
+ * A roll is uniform over 0 to 100, so a protection below -1 or above 100 behaves like
+ * -1 or 100. The protection is stored in that range, so stats that fight the same are
+ * equal.
+ *
+ * @invar The hitpoints are positive.
+ * 		  | getHitpoints() > 0
+ * @invar The protection lies between -1 and 100.
+ * 		  | getProtection() >= -1 && getProtection() <= 100
+ * @author Robbe, Elias
+ */
+@Value
+public final class DuelStats {
+
+	/**
+	 * Creates the stats of one side of a duel.
+	 *
+	 * @param hitpoints
+	 * 		  The hitpoints at the start of the duel.
+	 * @param protection
+	 * 		  The total protection.
+	 * @param damage
+	 * 		  The damage of every hit that gets through.
+	 * @param rollCapped
+	 * 		  Whether the rolls are capped by the current hitpoints.
+	 * @post | new.getProtection() == Math.max(-1, Math.min(100, protection))
+	 * @throws IllegalArgumentException
+	 * 		   The hitpoints are not positive.
+	 * 		   | hitpoints <= 0
+	 */
+	public DuelStats(long hitpoints, long protection, int damage, boolean rollCapped)
+			throws IllegalArgumentException
+	{
+		if(hitpoints <= 0)
+			throw new IllegalArgumentException("Hitpoints must be positive: " + hitpoints);
+		this.hitpoints = hitpoints;
+		this.protection = (int) Math.max(-1L, Math.min(100L, protection));
+		this.damage = damage;
+		this.rollCapped = rollCapped;
+	}
+
+	/**
+	 * Returns the current stats of the given hero.
+	 *
+	 * @return | result.equals(new DuelStats(hero.getCurrentHitpoints(),
+	 * 		   |	hero.getTotalProtection(), hero.calculateDamage(), false))
+	 */
+	public static DuelStats of(Hero hero){
+		return new DuelStats(hero.getCurrentHitpoints(), hero.getTotalProtection(),
+				hero.calculateDamage(), false);
+	}
+
+	/**
+	 * Returns the current stats of the given monster.
+	 *
+	 * @return | result.equals(new DuelStats(monster.getCurrentHitpoints(),
+	 * 		   |	monster.getTotalProtection(), monster.calculateDamage(), true))
+	 */
+	public static DuelStats of(Monster monster){
+		return new DuelStats(monster.getCurrentHitpoints(), monster.getTotalProtection(),
+				monster.calculateDamage(), true);
+	}
+
+	/**
+	 * Returns the hitpoints at the start of the duel.
+	 */
+	@Basic @Raw @Immutable
+	public long getHitpoints(){
+		return this.hitpoints;
+	}
+
+	/**
+	 * Returns the total protection, limited to the range of the rolls.
+	 */
+	@Basic @Raw @Immutable
+	public int getProtection(){
+		return this.protection;
+	}
+
+	/**
+	 * Returns the damage of every hit that gets through.
+	 */
+	@Basic @Raw @Immutable
+	public int getDamage(){
+		return this.damage;
+	}
+
+	/**
+	 * Returns whether the rolls are capped by the current hitpoints.
+	 */
+	@Basic @Raw @Immutable
+	public boolean isRollCapped(){
+		return this.rollCapped;
+	}
+
+	/**
+	 * Checks whether these stats are equal to the given object.
+	 */
+	@Override
+	public boolean equals(Object other){
+		if(!(other instanceof DuelStats))
+			return false;
+		DuelStats stats = (DuelStats) other;
+		return hitpoints == stats.hitpoints && protection == stats.protection
+				&& damage == stats.damage && rollCapped == stats.rollCapped;
+	}
+
+	/**
+	 * Returns the hash code of these stats.
+	 */
+	@Override
+	public int hashCode(){
+		int result = Long.hashCode(hitpoints);
+		result = 31 * result + protection;
+		result = 31 * result + damage;
+		return 31 * result + (rollCapped ? 1 : 0);
+	}
+
+	/**
+	 * Returns a textual representation of these stats.
+	 */
+	@Override
+	public String toString(){
+		return String.format("[%d hitpoints, %d protection, %d damage%s]", hitpoints, protection,
+				damage, rollCapped ? ", capped rolls" : "");
+	}
+
+	/**
+	 * The hitpoints at the start of the duel.
+	 */
+	private final long hitpoints;
+
+	/**
+	 * The total protection, limited to the range of the rolls.
+	 */
+	private final int protection;
+
+	/**
+	 * The damage of every hit that gets through.
+	 */
+	private final int damage;
+
+	/**
+	 * Whether the rolls are capped by the current hitpoints.
+	 */
+	private final boolean rollCapped;
+}
@@ -0,0 +1,26 @@
+package rpg.simulation;
+
+import rpg.Mobile;
+import rpg.utility.RandomSource;
+
+/**
+ * A recipe for a mobile that takes part in a simulation.
+ *
+ * Every duel of a simulation fights with mobiles that are created fresh from a template,
+ * so no state is shared between duels. A template may be used by several threads at once.
+ *
+ * @param <T> The kind of mobile the template creates.
+ * @author Robbe, Elias
+ */
+public interface MobileTemplate<T extends Mobile> {
+
+	/**
+	 * Creates a new mobile with full hitpoints.
+	 *
+	 * @param random
+	 * 		  The source every random choice made while creating the mobile is drawn from.
+	 * @return A new mobile that is not referenced by anything else.
+	 * 		   | result != null && !result.getIsDead()
+	 */
+	public T create(RandomSource random);
+}
@@ -0,0 +1,138 @@
+package rpg.simulation;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Raw;
+import be.kuleuven.cs.som.annotate.Value;
+
+/**
+ * A summary of one tick of a world.
+ *
+ * @author Robbe, Elias
+ */
+@Value
+public class TickReport {
+
+	/**
+	 * Creates a report of a tick.
+	 */
+	TickReport(long tick, int duels, int heroDeaths, int monsterDeaths, int heroesLeft,
+			int monstersLeft){
+		this.tick = tick;
+		this.duels = duels;
+		this.heroDeaths = heroDeaths;
+		this.monsterDeaths = monsterDeaths;
+		this.heroesLeft = heroesLeft;
+		this.monstersLeft = monstersLeft;
+	}
+
+	/**
+	 * Returns the number of the tick, counting from one.
+	 */
+	@Basic @Raw @Immutable
+	public long getTick(){
+		return this.tick;
+	}
+
+	/**
+	 * Returns the number of duels fought in the tick.
+	 */
+	@Basic @Raw @Immutable
+	public int getDuels(){
+		return this.duels;
+	}
+
+	/**
+	 * Returns the number of heroes that died in the tick.
+	 */
+	@Basic @Raw @Immutable
+	public int getHeroDeaths(){
+		return this.heroDeaths;
+	}
+
+	/**
+	 * Returns the number of monsters that died in the tick.
+	 */
+	@Basic @Raw @Immutable
+	public int getMonsterDeaths(){
+		return this.monsterDeaths;
+	}
+
+	/**
+	 * Returns the number of living heroes after the tick.
+	 */
+	@Basic @Raw @Immutable
+	public int getHeroesLeft(){
+		return this.heroesLeft;
+	}
+
+	/**
+	 * Returns the number of living monsters after the tick.
+	 */
+	@Basic @Raw @Immutable
+	public int getMonstersLeft(){
+		return this.monstersLeft;
+	}
+
+	/**
+	 * Checks whether this report is equal to the given object.
+	 *
+	 * @return True iff the other object is a report with the same numbers.
+	 */
+	@Override
+	public boolean equals(Object other){
+		if(!(other instanceof TickReport))
+			return false;
+		TickReport report = (TickReport) other;
+		return tick == report.tick && duels == report.duels && heroDeaths == report.heroDeaths
+				&& monsterDeaths == report.monsterDeaths && heroesLeft == report.heroesLeft
+				&& monstersLeft == report.monstersLeft;
+	}
+
+	/**
+	 * Returns the hash code of this report.
+	 */
+	@Override
+	public int hashCode(){
+		return (int) tick * 31 + duels * 17 + heroDeaths * 7 + monsterDeaths;
+	}
+
+	/**
+	 * Returns a textual representation of this report.
+	 */
+	@Override
+	public String toString(){
+		return String.format("tick %d: %d duels, %d heroes and %d monsters died, %d heroes and %d monsters left",
+				tick, duels, heroDeaths, monsterDeaths, heroesLeft, monstersLeft);
+	}
+
+	/**
+	 * The number of the tick.
+	 */
+	private final long tick;
+
+	/**
+	 * The number of duels of the tick.
+	 */
+	private final int duels;
+
+	/**
+	 * The number of heroes that died.
+	 */
+	private final int heroDeaths;
+
+	/**
+	 * The number of monsters that died.
+	 */
+	private final int monsterDeaths;
+
+	/**
+	 * The number of living heroes after the tick.
+	 */
+	private final int heroesLeft;
+
+	/**
+	 * The number of living monsters after the tick.
+	 */
+	private final int monstersLeft;
+}
@@ -0,0 +1,366 @@
+package rpg.simulation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Raw;
+import rpg.Hero;
+import rpg.Mobile;
+import rpg.Monster;
+import rpg.exception.InvalidContentException;
+import rpg.utility.RandomSource;
+import rpg.utility.SplittableRandomSource;
+
+/**
+ * A world of heroes and monsters that fight each other in ticks.
+ *
+ * Every tick pairs the living heroes with randomly chosen living monsters, so every
+ * mobile fights in at most one duel. In each duel both sides hit each other once, the
+ * side that strikes first being drawn at random. The duels are disjoint, so they are
+ * resolved in parallel on a fork/join pool. A hit that kills settles the loot between
+ * the two mobiles of the duel only. After all duels of the tick, a sequential merge
+ * walks the duels in order to count the deaths and removes the dead from the world.
+ *
+ * Every mobile draws its rolls from its own random source, split off the source of the
+ * world when it is added. The pairing and the order of the strikes are drawn from the
+ * source of the world before the parallel phase. A tick therefore only depends on the
+ * seed and the order in which the mobiles were added, never on the scheduling of the
+ * pool.
+ *
+ * The items of a mobile in the world may not be held by any other mobile.
+ *
+ * @invar Every mobile in the world is alive.
+ * 		  | for each mobile in getHeroes() + getMonsters(): mobile.getCurrentHitpoints() > 0
+ * @author Robbe, Elias
+ */
+public class World {
+
+	/**
+	 * The number of duels a fork/join task resolves itself instead of splitting further.
+	 */
+	private static final int DUELS_PER_TASK = 1024;
+
+	/**
+	 * Creates an empty world that resolves its duels on the common fork/join pool.
+	 *
+	 * @effect | this(seed, ForkJoinPool.commonPool())
+	 */
+	public World(long seed){
+		this(seed, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Creates an empty world that resolves its duels on the given pool.
+	 *
+	 * @param seed
+	 * 		  The seed of the random source of the world.
+	 * @param pool
+	 * 		  The pool the duels of a tick are resolved on.
+	 * @post | new.getTick() == 0
+	 * @throws IllegalArgumentException
+	 * 		   The pool is not effective.
+	 * 		   | pool == null
+	 */
+	public World(long seed, ForkJoinPool pool) throws IllegalArgumentException {
+		if(pool == null)
+			throw new IllegalArgumentException("Non-effective pool");
+		this.random = new SplittableRandomSource(seed);
+		this.pool = pool;
+	}
+
+	/************************************************
+	 * Population
+	 ************************************************/
+
+	/**
+	 * Adds the given hero to this world.
+	 *
+	 * @param hero
+	 * 		  The hero to add.
+	 * @effect The hero draws its rolls from a source split off the source of the world.
+	 * 		   | hero.setRandomSource(...)
+	 * @post | new.getHeroes().contains(hero)
+	 * @throws IllegalArgumentException
+	 * 		   The hero is not effective or not alive.
+	 * 		   | hero == null || hero.getCurrentHitpoints() <= 0
+	 */
+	public void addHero(Hero hero) throws IllegalArgumentException {
+		checkAlive(hero);
+		hero.setRandomSource(random.split());
+		heroes.add(hero);
+	}
+
+	/**
+	 * Adds the given monster to this world.
+	 *
+	 * @param monster
+	 * 		  The monster to add.
+	 * @effect The monster draws its rolls from a source split off the source of the world.
+	 * 		   | monster.setRandomSource(...)
+	 * @post | new.getMonsters().contains(monster)
+	 * @throws IllegalArgumentException
+	 * 		   The monster is not effective or not alive.
+	 * 		   | monster == null || monster.getCurrentHitpoints() <= 0
+	 */
+	public void addMonster(Monster monster) throws IllegalArgumentException {
+		checkAlive(monster);
+		monster.setRandomSource(random.split());
+		monsters.add(monster);
+	}
+
+	/**
+	 * Throws an IllegalArgumentException if the given mobile can not enter the world.
+	 */
+	private static void checkAlive(Mobile mobile) throws IllegalArgumentException {
+		if(mobile == null)
+			throw new IllegalArgumentException("Non-effective mobile");
+		if(!isAlive(mobile))
+			throw new IllegalArgumentException("Dead mobile: " + mobile.getName());
+	}
+
+	/**
+	 * Returns the living heroes of this world.
+	 */
+	public List<Hero> getHeroes(){
+		return Collections.unmodifiableList(heroes);
+	}
+
+	/**
+	 * Returns the living monsters of this world.
+	 */
+	public List<Monster> getMonsters(){
+		return Collections.unmodifiableList(monsters);
+	}
+
+	/**
+	 * Checks whether one of both sides has no living mobiles left.
+	 *
+	 * @return | result == getHeroes().isEmpty() || getMonsters().isEmpty()
+	 */
+	public boolean isDecided(){
+		return heroes.isEmpty() || monsters.isEmpty();
+	}
+
+	/**
+	 * The living heroes of this world.
+	 */
+	private final ArrayList<Hero> heroes = new ArrayList<Hero>();
+
+	/**
+	 * The living monsters of this world.
+	 */
+	private final ArrayList<Monster> monsters = new ArrayList<Monster>();
+
+	/************************************************
+	 * Ticks
+	 ************************************************/
+
+	/**
+	 * Returns the number of ticks this world has run.
+	 */
+	@Basic @Raw
+	public long getTick(){
+		return this.tick;
+	}
+
+	/**
+	 * Runs one tick: pairs the living mobiles, resolves the duels in parallel and
+	 * removes the mobiles that died.
+	 *
+	 * @return A report of the tick.
+	 * 		   | result.getTick() == new.getTick()
+	 * @post | new.getTick() == getTick() + 1
+	 * @throws IllegalStateException
+	 * 		   A winner could not collect the treasures of the loser.
+	 */
+	public TickReport tick() throws IllegalStateException {
+		int duels = Math.min(heroes.size(), monsters.size());
+		pair(duels);
+		if(duels > 0)
+			pool.invoke(new TickTask(0, duels));
+		return merge(duels);
+	}
+
+	/**
+	 * Runs ticks until one side is wiped out or the given number of ticks has passed.
+	 *
+	 * @param maxTicks
+	 * 		  The largest number of ticks to run.
+	 * @return The number of ticks that were run.
+	 */
+	public long run(long maxTicks) throws IllegalStateException {
+		long ticks = 0;
+		while(ticks < maxTicks && !isDecided()){
+			tick();
+			ticks++;
+		}
+		return ticks;
+	}
+
+	/**
+	 * Moves randomly chosen monsters to the first positions of the monster list, so the
+	 * hero and the monster at the same position fight each other, and draws the side that
+	 * strikes first in each of the given number of duels.
+	 */
+	private void pair(int duels){
+		int size = monsters.size();
+		for(int i = 0; i < duels; i++){
+			int j = random.nextInt(i, size);
+			if(j != i)
+				Collections.swap(monsters, i, j);
+		}
+		if(heroFirst.length < duels)
+			heroFirst = new boolean[Math.max(duels, 2 * heroFirst.length)];
+		for(int i = 0; i < duels; i++){
+			heroFirst[i] = random.nextBoolean();
+		}
+	}
+
+	/**
+	 * Resolves the duel at the given position.
+	 */
+	private void fight(int duel) throws InvalidContentException {
+		Hero hero = heroes.get(duel);
+		Monster monster = monsters.get(duel);
+		Mobile first = heroFirst[duel] ? hero : monster;
+		Mobile second = heroFirst[duel] ? monster : hero;
+		first.hit(second);
+		if(isAlive(second))
+			second.hit(first);
+	}
+
+	/**
+	 * Counts the deaths of the given number of duels in order, removes the dead and
+	 * returns the report of the tick.
+	 */
+	private TickReport merge(int duels){
+		int heroDeaths = 0;
+		int monsterDeaths = 0;
+		for(int i = 0; i < duels; i++){
+			if(!isAlive(heroes.get(i)))
+				heroDeaths++;
+			if(!isAlive(monsters.get(i)))
+				monsterDeaths++;
+		}
+		removeDead(heroes, duels);
+		removeDead(monsters, duels);
+		tick++;
+		return new TickReport(tick, duels, heroDeaths, monsterDeaths, heroes.size(), monsters.size());
+	}
+
+	/**
+	 * Removes the dead mobiles among the first given number of the given list, keeping
+	 * the order of the living ones.
+	 */
+	private static <T extends Mobile> void removeDead(ArrayList<T> mobiles, int fought){
+		int kept = 0;
+		for(int i = 0; i < fought; i++){
+			T mobile = mobiles.get(i);
+			if(isAlive(mobile))
+				mobiles.set(kept++, mobile);
+		}
+		if(kept < fought)
+			mobiles.subList(kept, fought).clear();
+	}
+
+	/**
+	 * Checks whether the given mobile still has hitpoints left.
+	 */
+	private static boolean isAlive(Mobile mobile){
+		return mobile.getCurrentHitpoints() > 0;
+	}
+
+	/**
+	 * A fork/join task that resolves a range of the duels of a tick.
+	 */
+	@SuppressWarnings("serial")
+	private class TickTask extends RecursiveAction {
+
+		/**
+		 * The first duel of the range.
+		 */
+		private final int from;
+
+		/**
+		 * The duel after the last one of the range.
+		 */
+		private final int to;
+
+		private TickTask(int from, int to){
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute(){
+			if(to - from <= DUELS_PER_TASK){
+				try{
+					for(int i = from; i < to; i++){
+						fight(i);
+					}
+				}
+				catch(InvalidContentException ex){
+					throw new IllegalStateException("Looting failed in a duel of the world", ex);
+				}
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			invokeAll(new TickTask(from, middle), new TickTask(middle, to));
+		}
+	}
+
+	/**
+	 * The number of ticks this world has run.
+	 */
+	private long tick = 0L;
+
+	/**
+	 * For every duel of the current tick, whether the hero strikes first.
+	 */
+	private boolean[] heroFirst = new boolean[0];
+
+	/**
+	 * The source of the pairing, the order of the strikes and the sources of the mobiles.
+	 */
+	private final RandomSource random;
+
+	/**
+	 * The pool the duels are resolved on.
+	 */
+	private final ForkJoinPool pool;
+
+	/************************************************
+	 * Command line
+	 ************************************************/
+
+	/**
+	 * Fills a world with heroes and monsters of the game and runs it until one side is
+	 * wiped out, printing the throughput of every tick.
+	 *
+	 * Usage: World [heroes] [monsters] [seed]
+	 */
+	public static void main(String[] args){
+		int heroCount = (args.length > 0) ? Integer.parseInt(args[0]) : 100000;
+		int monsterCount = (args.length > 1) ? Integer.parseInt(args[1]) : heroCount;
+		long seed = (args.length > 2) ? Long.parseLong(args[2]) : System.nanoTime();
+		World world = new World(seed);
+		RandomSource creation = new SplittableRandomSource(seed);
+		for(int i = 0; i < heroCount; i++){
+			world.addHero(BattleSimulator.JIMMIE.create(creation));
+		}
+		for(int i = 0; i < monsterCount; i++){
+			world.addMonster(BattleSimulator.HILL_GIANT.create(creation));
+		}
+		while(!world.isDecided() && world.getTick() < BattleSimulator.MAX_ROUNDS){
+			long start = System.nanoTime();
+			TickReport report = world.tick();
+			long elapsed = System.nanoTime() - start;
+			System.out.println(String.format("%s, %.2f ms, %,.0f duels/s", report, elapsed / 1e6,
+					report.getDuels() / (elapsed / 1e9)));
+		}
+	}
+}
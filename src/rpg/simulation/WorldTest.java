@@ -0,0 +1,77 @@
+package rpg.simulation;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import rpg.Hero;
+import rpg.Mobile;
+import rpg.utility.RandomSource;
+import rpg.utility.SplittableRandomSource;
+
+public class WorldTest {
+
+	private static World populate(long seed, ForkJoinPool pool, int heroes, int monsters) {
+		World world = new World(seed, pool);
+		RandomSource creation = new SplittableRandomSource(seed);
+		for (int i = 0; i < heroes; i++)
+			world.addHero(BattleSimulator.JIMMIE.create(creation));
+		for (int i = 0; i < monsters; i++)
+			world.addMonster(BattleSimulator.HILL_GIANT.create(creation));
+		return world;
+	}
+
+	private static List<TickReport> runToEnd(World world) {
+		List<TickReport> reports = new ArrayList<TickReport>();
+		while (!world.isDecided() && world.getTick() < 1000)
+			reports.add(world.tick());
+		return reports;
+	}
+
+	@Test
+	public void ticksDoNotDependOnParallelism() {
+		ForkJoinPool single = new ForkJoinPool(1);
+		ForkJoinPool many = new ForkJoinPool(4);
+		try {
+			List<TickReport> sequential = runToEnd(populate(11L, single, 3000, 2500));
+			List<TickReport> parallel = runToEnd(populate(11L, many, 3000, 2500));
+			assertFalse(sequential.isEmpty());
+			assertEquals(sequential, parallel);
+		} finally {
+			single.shutdown();
+			many.shutdown();
+		}
+	}
+
+	@Test
+	public void tickRemovesTheDead() {
+		World world = populate(3L, ForkJoinPool.commonPool(), 1500, 2000);
+		int heroes = world.getHeroes().size();
+		int monsters = world.getMonsters().size();
+		while (!world.isDecided()) {
+			TickReport report = world.tick();
+			assertEquals(Math.min(heroes, monsters), report.getDuels());
+			heroes -= report.getHeroDeaths();
+			monsters -= report.getMonsterDeaths();
+			assertEquals(heroes, report.getHeroesLeft());
+			assertEquals(monsters, report.getMonstersLeft());
+			assertEquals(heroes, world.getHeroes().size());
+			for (Mobile mobile : world.getMonsters())
+				assertTrue(mobile.getCurrentHitpoints() > 0);
+			for (Mobile mobile : world.getHeroes())
+				assertTrue(mobile.getCurrentHitpoints() > 0);
+		}
+		assertTrue(heroes == 0 || monsters == 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void addDeadHero() {
+		Hero hero = BattleSimulator.JIMMIE.create(new SplittableRandomSource(1L));
+		hero.setCurrentHitpoints(0);
+		new World(1L).addHero(hero);
+	}
+}
@@ -0,0 +1,115 @@
+package rpg.utility;
+
+/**
+ * A utility class for binomial coefficients C(n,k) as long values.
+ *
+ * Row 66 is the last row of the triangle of Pascal in which every coefficient fits in
+ * a long. All rows up to that one are computed once and kept in a table, so those
+ * coefficients are a lookup. Coefficients of later rows are computed exactly with the
+ * multiplicative formula, and an ArithmeticException is thrown if they do not fit.
+ *
+ * @author Robbe, Elias
+ */
+public final class BinomialCoefficients {
+
+	/**
+	 * This class only offers static methods.
+	 */
+	private BinomialCoefficients(){
+	}
+
+	/**
+	 * The last row of the triangle of Pascal in which every coefficient fits in a long.
+	 */
+	public static final int MAX_TABLE_ROW = 66;
+
+	/**
+	 * The rows 0 up to MAX_TABLE_ROW of the triangle of Pascal. Only the left half of
+	 * every row is stored, the right half follows from symmetry.
+	 */
+	private static final long[][] TABLE = new long[MAX_TABLE_ROW + 1][];
+
+	static {
+		TABLE[0] = new long[] {1L};
+		for(int n = 1; n <= MAX_TABLE_ROW; n++){
+			long[] row = new long[n / 2 + 1];
+			row[0] = 1L;
+			for(int k = 1; k < row.length; k++){
+				row[k] = lookup(n - 1, k - 1) + lookup(n - 1, k);
+			}
+			TABLE[n] = row;
+		}
+	}
+
+	/**
+	 * Returns C(n,k) from the table, for 0 <= k <= n <= MAX_TABLE_ROW.
+	 */
+	private static long lookup(int n, int k){
+		if(k > n - k) k = n - k;
+		return TABLE[n][k];
+	}
+
+	/**
+	 * Returns the binomial coefficient C(n,k).
+	 *
+	 * @param n
+	 * 		  The number of elements to choose from.
+	 * @param k
+	 * 		  The number of elements to choose.
+	 * @return Zero if k lies outside 0..n.
+	 * 		   | if(k < 0 || k > n) then result == 0
+	 * @return Otherwise the number of subsets of size k of a set of size n.
+	 * 		   | result == n! / (k! * (n-k)!)
+	 * @throws IllegalArgumentException
+	 * 		   n is negative.
+	 * 		   | n < 0
+	 * @throws ArithmeticException
+	 * 		   The coefficient does not fit in a long.
+	 */
+	public static long choose(int n, int k) throws IllegalArgumentException, ArithmeticException {
+		if(n < 0)
+			throw new IllegalArgumentException("Negative n: " + n);
+		if(k < 0 || k > n)
+			return 0L;
+		if(n <= MAX_TABLE_ROW)
+			return lookup(n, k);
+		if(k > n - k) k = n - k;
+		long result = 1L;
+		for(int i = 1; i <= k; i++){
+			// C(n,i) = C(n,i-1) * (n-i+1) / i, divided out first so no intermediate
+			// value is larger than C(n,i) itself.
+			long divisor = gcd(result, i);
+			result = Math.multiplyExact(result / divisor, (n - i + 1) / (i / divisor));
+		}
+		return result;
+	}
+
+	/**
+	 * Checks whether the binomial coefficient C(n,k) fits in a long.
+	 *
+	 * @return | result == (choose(n, k) does not throw an ArithmeticException)
+	 */
+	public static boolean fitsInLong(int n, int k){
+		if(n <= MAX_TABLE_ROW || k <= 0 || k >= n)
+			return true;
+		try{
+			choose(n, k);
+			return true;
+		}
+		catch(ArithmeticException ex){
+			return false;
+		}
+	}
+
+	/**
+	 * Returns the greatest common divisor of two positive numbers.
+	 */
+	private static long gcd(long a, long b){
+		while(b != 0){
+			long t = a % b;
+			a = b;
+			b = t;
+		}
+		return a;
+	}
+}
@@ -0,0 +1,53 @@
+package rpg.utility;
+
+import static org.junit.Assert.*;
+
+import java.math.BigInteger;
+
+import org.junit.Test;
+
+public class BinomialCoefficientsTest {
+
+	private static BigInteger exact(int n, int k) {
+		BigInteger result = BigInteger.ONE;
+		for (int i = 1; i <= k; i++) {
+			result = result.multiply(BigInteger.valueOf(n - i + 1)).divide(BigInteger.valueOf(i));
+		}
+		return result;
+	}
+
+	@Test
+	public void smallValues() {
+		assertEquals(1L, BinomialCoefficients.choose(0, 0));
+		assertEquals(10L, BinomialCoefficients.choose(5, 2));
+		assertEquals(10L, BinomialCoefficients.choose(5, 3));
+		assertEquals(0L, BinomialCoefficients.choose(5, 6));
+		assertEquals(0L, BinomialCoefficients.choose(5, -1));
+	}
+
+	@Test
+	public void matchesExactValues() {
+		BigInteger max = BigInteger.valueOf(Long.MAX_VALUE);
+		for (int n = 0; n <= 200; n++) {
+			for (int k = 0; k <= n; k++) {
+				BigInteger expected = exact(n, k);
+				if (expected.compareTo(max) <= 0) {
+					assertTrue(BinomialCoefficients.fitsInLong(n, k));
+					assertEquals(expected.longValue(), BinomialCoefficients.choose(n, k));
+				} else {
+					assertFalse(BinomialCoefficients.fitsInLong(n, k));
+				}
+			}
+		}
+	}
+
+	@Test(expected = ArithmeticException.class)
+	public void overflowThrows() {
+		BinomialCoefficients.choose(67, 33);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeRow() {
+		BinomialCoefficients.choose(-1, 0);
+	}
+}
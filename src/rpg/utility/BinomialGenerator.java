@@ -1,23 +1,26 @@
 package rpg.utility;
 
 
-import java.util.ArrayList;
-
 import be.kuleuven.cs.som.annotate.Basic;
 import be.kuleuven.cs.som.annotate.Raw;
 
 /**
  * A class that generates binomial numbers.
  * 
+ * The IDs are the sums of the consecutive rows of the triangle of Pascal. The sum of
+ * the binomial coefficients in row n equals 2^n, so the generator does not build the
+ * rows themselves: every ID is a single shift and nothing is allocated. Callers that
+ * need the individual coefficients can use BinomialCoefficients.
+ * 
  * @author Robbe, Elias
  *
  */
-public class BinomialGenerator implements IDGenerator {
+public class BinomialGenerator implements ResumableIDGenerator {
 	
 	/**
-	 * A variable storing the triangle of Pascal.
+	 * The largest exponent for which the row sum 2^exponent still fits in a long.
 	 */
-	private ArrayList<Long> pyramidRow;
+	private static final int MAX_EXPONENT = 62;
 	
 	/**
 	 * The current value of the triangle of Pascal.
@@ -29,8 +32,9 @@ public class BinomialGenerator implements IDGenerator {
 	private int currentRowNum;
 	
 	/**
-	 * An iterator that calculates sequential binomial coefficients. These can be calculated as specified
-	 * by the assignment with factorials. However, factorials generate insanely large
+	 * An iterator that calculates the sums of sequential rows of binomial coefficients.
+	 * These can be calculated as specified by the assignment with factorials, but
+	 * every row sum is a power of two.
 	 * 
 	 * @post Makes a new BinomialGenerator.
 	 * 		 | reset()
@@ -51,73 +55,43 @@ public class BinomialGenerator implements IDGenerator {
 	
 	/**
 	 * Binomial coefficients can be calculated endlessly. However, the java long type has a finite size.
-	 * When the value of a long grows larger than 2^63 the sign indication bit is flipped, so the value
-	 * becomes negative. As values should only be positive, sign is an indication for overflow.
+	 * The next row sum is 2^(getCurrentRowNum()), which only fits in a long if the exponent
+	 * is at most 62. The overflow is thus detected before it happens.
 	 * 
-	 * @return True if the value has not overflowed into the sign indication bit.
-	 * 			| if(next < 0) return false
-	 * 			| else return true
+	 * @return True if the next row sum fits in a long.
+	 * 			| result == (getCurrentRowNum() <= 62)
 	 */
 	@Override
 	public boolean hasNextID() {
-		long nextValue = calculateRowSum(pyramidRow);
-		if(nextValue < 0) return false;
-		else return true;
+		return currentRowNum <= MAX_EXPONENT;
 	}
 
 	/**
-	 * Advances the iterator. First calculates the next row in the pyramid. Then calculates the sum of 
-	 * @Effect attribute current is updated with the next binomial coefficient
-	 * @Effect the pyramidRow is replaced by the value that will be used to calculate the binomialcoefficient of the following iteration
+	 * Advances the iterator to the next row and returns its sum.
 	 * @Effect Advances the row number by one.
-	 * @return the next binomial coefficient
+	 * @Effect attribute current is updated with the sum of the next row
+	 * @return the sum of the next row. If that sum does not fit in a long, the
+	 * 		   result is not positive.
+	 * 			| if(hasNextID()) then result == 2^getCurrentRowNum()
+	 * 			| else result <= 0
 	 */
-	
 	@Override
 	public long nextID() {
-		replaceRow(calculateNextRow());
+		int exponent = currentRowNum;
 		advanceCurrentRowNum();
-		long nextLong = calculateRowSum(pyramidRow);
+		long nextLong = (exponent < Long.SIZE) ? (1L << exponent) : 0L;
 		setCurrentValue(nextLong);
 		return nextLong;
 	}
 	
 	/**
 	 * Resets the iterator to the first binomial coefficient.
-	 * @effect the pyramidrow is re-initialised to an empty arraylist
 	 * @effect the pyramid row number is set to 1
+	 * @effect the current value is set to 0
 	 */
 	public void reset(){
-		replaceRow(new ArrayList<Long>());
 		setCurrentRowNum(1);
-	}
-	
-	private ArrayList<Long> calculateNextRow(){
-		ArrayList<Long> nextRow = new ArrayList<Long>();
-		nextRow.add(1L);
-		for(int i = 0; i<pyramidRow.size()-1;i++){
-			nextRow.add(pyramidRow.get(i) + pyramidRow.get(i+1));
-		}
-		nextRow.add(1L);
-		return nextRow;
-	}
-	
-	/**
-	 * Replaces the current pyramidRow with another.
-	 * @param nextRow
-	 * 		  The pyramidrow the current pyramidrow will be replaced with.
-	 */
-	@Raw
-	private void replaceRow(ArrayList<Long> nextRow){
-		this.pyramidRow = nextRow;
-	}
-	
-	private long calculateRowSum(ArrayList<Long> row){
-		long rowSum = 0L;
-		for(long p : row){
-			rowSum += p;
-		}
-		return rowSum;
+		setCurrentValue(0L);
 	}
 
 	@Basic
@@ -142,6 +116,34 @@ public class BinomialGenerator implements IDGenerator {
 	}
 	
 	
+	/**
+	 * Returns the number of IDs generated since the last reset.
+	 * 
+	 * @return | result == getCurrentRowNum() - 1
+	 */
+	@Override
+	public long getPosition() {
+		return currentRowNum - 1;
+	}
+	
+	/**
+	 * Moves the generator to the given position.
+	 * 
+	 * @effect | setCurrentRowNum(position + 1)
+	 * @post The current value is the sum of the row the generator is now at.
+	 * 		 | if(position > 0) then new.getCurrentValue() == 2^position
+	 * @throws IllegalArgumentException
+	 * 		   The position lies outside the sequence.
+	 * 		   | position < 0 || position > 62
+	 */
+	@Override
+	public void skipTo(long position) throws IllegalArgumentException {
+		if(position < 0 || position > MAX_EXPONENT)
+			throw new IllegalArgumentException("Position outside the sequence: " + position);
+		setCurrentRowNum((int) position + 1);
+		setCurrentValue((position == 0) ? 0L : 1L << position);
+	}
+	
 	/**
 	 * The value of the current row number is directly set
 	 * @param currentRowNum value to set the row number to
@@ -157,4 +159,21 @@ public class BinomialGenerator implements IDGenerator {
 	private void advanceCurrentRowNum(){
 		this.currentRowNum++;
 	}
+	
+	/**
+	 * Reserves the next IDs at once. Every ID is a single shift, so the block is
+	 * filled without allocating anything but the result.
+	 * 
+	 * @see IDGenerator#reserve(int)
+	 */
+	@Override
+	public long[] reserve(int count) throws IllegalArgumentException {
+		if(count < 0)
+			throw new IllegalArgumentException("Negative number of IDs: " + count);
+		long[] ids = new long[count];
+		for(int i = 0; i < count; i++){
+			ids[i] = generateID();
+		}
+		return ids;
+	}
 }
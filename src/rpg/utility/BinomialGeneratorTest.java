@@ -44,6 +44,27 @@ public class BinomialGeneratorTest {
 		System.out.println(it.getCurrentRowNum());
 	}
 	
+	@Test
+	public void overflowIsDetected(){
+		for(int i = 1; i <= 62; i++){
+			assertTrue(it.hasNextID());
+			assertEquals(1L << i, it.generateID());
+		}
+		assertFalse(it.hasNextID());
+		assertEquals(2L, it.generateID());
+	}
+	
+	@Test
+	public void rowSumsMatchCoefficients(){
+		for(int n = 1; n <= 62; n++){
+			long sum = 0;
+			for(int k = 0; k <= n; k++){
+				sum += BinomialCoefficients.choose(n, k);
+			}
+			assertEquals(sum, it.nextID());
+		}
+	}
+	
 	public long calculateBinomial(int n){
 		long sum = 0;
 		for(int i = 0; i<=n; i++){
@@ -0,0 +1,130 @@
+package rpg.utility;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Raw;
+
+/**
+ * An IDGenerator that hands out IDs from blocks it reserves on another generator.
+ *
+ * Code that creates many items at once, such as a loader that seeds a world, can give
+ * every worker its own buffered generator. The shared generator is then only consulted
+ * once per block instead of once per ID. A buffered generator itself is not thread-safe
+ * and should be used by one thread only.
+ *
+ * @invar The block size is positive.
+ * 		  | getBlockSize() > 0
+ * @author Robbe, Elias
+ */
+public class BufferedIDGenerator implements IDGenerator {
+
+	/**
+	 * Creates a buffered generator that reserves blocks of the given size on the given generator.
+	 *
+	 * @param source
+	 * 		  The generator to reserve the blocks on.
+	 * @param blockSize
+	 * 		  The number of IDs to reserve at once.
+	 * @throws IllegalArgumentException
+	 * 		   The source is not effective or the block size is not positive.
+	 * 		   | source == null || blockSize <= 0
+	 */
+	public BufferedIDGenerator(IDGenerator source, int blockSize) throws IllegalArgumentException {
+		if(source == null)
+			throw new IllegalArgumentException("Non-effective source generator");
+		if(blockSize <= 0)
+			throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+		this.source = source;
+		this.blockSize = blockSize;
+	}
+
+	/**
+	 * The generator the blocks are reserved on.
+	 */
+	private final IDGenerator source;
+
+	/**
+	 * The number of IDs that is reserved at once.
+	 */
+	private final int blockSize;
+
+	/**
+	 * The IDs of the current block.
+	 */
+	private long[] block = new long[0];
+
+	/**
+	 * The index of the next ID in the current block.
+	 */
+	private int next = 0;
+
+	/**
+	 * Returns the generator the blocks are reserved on.
+	 */
+	@Basic @Raw
+	public IDGenerator getSource(){
+		return this.source;
+	}
+
+	/**
+	 * Returns the number of IDs that is reserved at once.
+	 */
+	@Basic @Raw
+	public int getBlockSize(){
+		return this.blockSize;
+	}
+
+	/**
+	 * Returns the next ID of the current block, reserving a new block if it is used up.
+	 */
+	@Override
+	public long nextID() {
+		if(next == block.length){
+			block = source.reserve(blockSize);
+			next = 0;
+		}
+		return block[next++];
+	}
+
+	/**
+	 * The source restarts its own sequence when it runs out, so there is always a next ID.
+	 */
+	@Override
+	public boolean hasNextID() {
+		return true;
+	}
+
+	/**
+	 * Drops the rest of the current block. The source itself is not reset, since other
+	 * buffers may still be drawing from it.
+	 */
+	@Override
+	public void reset() {
+		block = new long[0];
+		next = 0;
+	}
+
+	@Override
+	public long generateID() {
+		return nextID();
+	}
+
+	/**
+	 * Reserves IDs from the current block first and the source for the rest.
+	 *
+	 * @see IDGenerator#reserve(int)
+	 */
+	@Override
+	public long[] reserve(int count) throws IllegalArgumentException {
+		if(count < 0)
+			throw new IllegalArgumentException("Negative number of IDs: " + count);
+		int fromBlock = Math.min(count, block.length - next);
+		long[] ids = new long[count];
+		System.arraycopy(block, next, ids, 0, fromBlock);
+		next += fromBlock;
+		if(fromBlock < count){
+			long[] rest = source.reserve(count - fromBlock);
+			System.arraycopy(rest, 0, ids, fromBlock, rest.length);
+		}
+		return ids;
+	}
+}
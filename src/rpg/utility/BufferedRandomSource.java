@@ -0,0 +1,154 @@
+package rpg.utility;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Raw;
+
+/**
+ * A random source that pre-draws the rolls of one range in bulk.
+ *
+ * Combat draws nearly all of its numbers from the same range, 0 to 100. A buffered source
+ * fills an array with rolls of that range at once and hands them out one by one, so the
+ * source behind it is called once per block. Numbers of any other range are drawn from
+ * the source directly.
+ *
+ * A buffered source is not thread-safe.
+ *
+ * @invar The range of the buffered rolls is not empty.
+ * 		  | getOrigin() < getBound()
+ * @author Robbe, Elias
+ */
+public class BufferedRandomSource implements RandomSource {
+
+	/**
+	 * The number of rolls that is drawn at once by default.
+	 */
+	public static final int DEFAULT_BUFFER_SIZE = 1024;
+
+	/**
+	 * Creates a source that buffers rolls between the given origin, inclusive, and bound,
+	 * exclusive, drawn from the given source DEFAULT_BUFFER_SIZE at a time.
+	 *
+	 * @effect | this(source, origin, bound, DEFAULT_BUFFER_SIZE)
+	 */
+	public BufferedRandomSource(RandomSource source, int origin, int bound)
+			throws IllegalArgumentException
+	{
+		this(source, origin, bound, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Creates a source that buffers rolls between the given origin, inclusive, and bound,
+	 * exclusive, drawn from the given source.
+	 *
+	 * @param source
+	 * 		  The source to draw the rolls from.
+	 * @param origin
+	 * 		  The smallest roll.
+	 * @param bound
+	 * 		  The bound of the rolls, exclusive.
+	 * @param bufferSize
+	 * 		  The number of rolls that is drawn at once.
+	 * @throws IllegalArgumentException
+	 * 		   The source is not effective, the range is empty or the buffer size is not positive.
+	 * 		   | source == null || origin >= bound || bufferSize <= 0
+	 */
+	public BufferedRandomSource(RandomSource source, int origin, int bound, int bufferSize)
+			throws IllegalArgumentException
+	{
+		if(source == null)
+			throw new IllegalArgumentException("Non-effective random source");
+		if(origin >= bound)
+			throw new IllegalArgumentException("Empty range: " + origin + ".." + bound);
+		if(bufferSize <= 0)
+			throw new IllegalArgumentException("Buffer size must be positive: " + bufferSize);
+		this.source = source;
+		this.origin = origin;
+		this.bound = bound;
+		this.rolls = new int[bufferSize];
+		this.next = bufferSize;
+	}
+
+	/**
+	 * The source the rolls are drawn from.
+	 */
+	private final RandomSource source;
+
+	/**
+	 * The smallest buffered roll.
+	 */
+	private final int origin;
+
+	/**
+	 * The bound of the buffered rolls, exclusive.
+	 */
+	private final int bound;
+
+	/**
+	 * The rolls that were drawn in bulk.
+	 */
+	private final int[] rolls;
+
+	/**
+	 * The index of the next roll to hand out. Equal to the length of the buffer when
+	 * the buffer is used up.
+	 */
+	private int next;
+
+	/**
+	 * Returns the source the rolls are drawn from.
+	 */
+	@Basic @Raw
+	public RandomSource getSource(){
+		return this.source;
+	}
+
+	/**
+	 * Returns the smallest buffered roll.
+	 */
+	@Basic @Raw
+	public int getOrigin(){
+		return this.origin;
+	}
+
+	/**
+	 * Returns the bound of the buffered rolls, exclusive.
+	 */
+	@Basic @Raw
+	public int getBound(){
+		return this.bound;
+	}
+
+	/**
+	 * Returns the next buffered roll if the range is the buffered range, and a number
+	 * of the source otherwise.
+	 */
+	@Override
+	public int nextInt(int origin, int bound) throws IllegalArgumentException {
+		if(origin != this.origin || bound != this.bound){
+			return source.nextInt(origin, bound);
+		}
+		if(next == rolls.length){
+			source.fill(rolls, origin, bound);
+			next = 0;
+		}
+		return rolls[next++];
+	}
+
+	@Override
+	public int nextInt(int bound) throws IllegalArgumentException {
+		return nextInt(0, bound);
+	}
+
+	@Override
+	public boolean nextBoolean(){
+		return source.nextBoolean();
+	}
+
+	/**
+	 * @return A buffered source of the same range over a split of the source.
+	 */
+	@Override
+	public BufferedRandomSource split(){
+		return new BufferedRandomSource(source.split(), origin, bound, rolls.length);
+	}
+}
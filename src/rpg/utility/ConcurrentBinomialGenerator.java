@@ -0,0 +1,32 @@
+package rpg.utility;
+
+/**
+ * A thread-safe IDGenerator that generates the same sequence as BinomialGenerator.
+ *
+ * The sum of the binomial coefficients in row n of the triangle of Pascal equals 2^n,
+ * so the ID at a position is a single shift.
+ *
+ * @author Robbe, Elias
+ */
+public class ConcurrentBinomialGenerator extends ConcurrentIDGenerator {
+
+	/**
+	 * Returns the sum of the row of the triangle of Pascal with number position + 1.
+	 *
+	 * @return | result == 2^(position + 1)
+	 */
+	@Override
+	protected long getIDAt(long position) {
+		return 1L << (position + 1);
+	}
+
+	/**
+	 * The sequence ends at 2^62, the last row sum that fits in a long.
+	 *
+	 * @return | result == 62
+	 */
+	@Override
+	public long getSequenceLength() {
+		return 62;
+	}
+}
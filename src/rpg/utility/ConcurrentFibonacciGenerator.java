@@ -0,0 +1,44 @@
+package rpg.utility;
+
+/**
+ * A thread-safe IDGenerator that generates the Fibonacci numbers 1, 1, 2, 3, 5, ... as
+ * FibonacciGenerator does.
+ *
+ * Only 92 Fibonacci numbers fit in a long, so they are all computed once and the ID at
+ * a position is a table lookup.
+ *
+ * @author Robbe, Elias
+ */
+public class ConcurrentFibonacciGenerator extends ConcurrentIDGenerator {
+
+	/**
+	 * The Fibonacci numbers F(1) up to F(92).
+	 */
+	private static final long[] FIBONACCI = new long[FibonacciGenerator.MAX_POSITION];
+
+	static {
+		for (int i = 0; i < FIBONACCI.length; i++) {
+			FIBONACCI[i] = FibonacciGenerator.fibonacci(i + 1);
+		}
+	}
+
+	/**
+	 * Returns the Fibonacci number at the given position.
+	 *
+	 * @return | result == F(position + 1)
+	 */
+	@Override
+	protected long getIDAt(long position) {
+		return FIBONACCI[(int) position];
+	}
+
+	/**
+	 * The sequence ends at F(92), the last Fibonacci number that fits in a long.
+	 *
+	 * @return | result == 92
+	 */
+	@Override
+	public long getSequenceLength() {
+		return FIBONACCI.length;
+	}
+}
@@ -0,0 +1,172 @@
+package rpg.utility;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Raw;
+
+/**
+ * An abstract class of ID generators that can be shared by several threads.
+ *
+ * Every sequence of IDs is seen as a function of the position in the sequence. The
+ * only mutable state is the position of the next ID, which is claimed with a single
+ * atomic operation. Concurrent callers therefore never receive the ID of the same
+ * position twice, and no thread ever blocks another one.
+ *
+ * @invar The position is never negative.
+ * 		  | getPosition() >= 0
+ * @author Robbe, Elias
+ */
+public abstract class ConcurrentIDGenerator implements ResumableIDGenerator {
+
+	/**
+	 * The position of the next ID in the sequence.
+	 */
+	private final AtomicLong position = new AtomicLong();
+
+	/**
+	 * Returns the ID at the given position in the sequence.
+	 *
+	 * @param position
+	 * 		  The position of the ID, counting from zero.
+	 * @pre The position lies within the sequence.
+	 * 		| position >= 0 && position < getSequenceLength()
+	 * @note Implementations may be called by several threads at once.
+	 */
+	protected abstract long getIDAt(long position);
+
+	/**
+	 * Returns the number of IDs in the sequence before it has to be restarted.
+	 */
+	@Basic @Raw
+	public abstract long getSequenceLength();
+
+	/**
+	 * Returns the position of the next ID in the sequence.
+	 */
+	@Basic @Raw @Override
+	public long getPosition(){
+		return position.get();
+	}
+
+	/**
+	 * Moves the generator to the given position. Every position maps to its ID
+	 * directly, so this takes constant time.
+	 *
+	 * @param position
+	 * 		  The new position.
+	 * @post | new.getPosition() == position
+	 * @throws IllegalArgumentException
+	 * 		   The position lies outside the sequence.
+	 * 		   | position < 0 || position > getSequenceLength()
+	 */
+	@Override
+	public void skipTo(long position) throws IllegalArgumentException {
+		if(position < 0 || position > getSequenceLength())
+			throw new IllegalArgumentException("Position outside the sequence: " + position);
+		this.position.set(position);
+	}
+
+	/**
+	 * Claims the next position and returns its ID, without checking whether the
+	 * sequence is exhausted.
+	 *
+	 * @effect The position is advanced by one.
+	 * @return The ID at the claimed position.
+	 * 		   | result == getIDAt(getPosition())
+	 */
+	@Override
+	public long nextID(){
+		return getIDAt(position.getAndIncrement());
+	}
+
+	/**
+	 * Checks whether the position of the next ID lies within the sequence.
+	 *
+	 * @return | result == (getPosition() < getSequenceLength())
+	 */
+	@Override
+	public boolean hasNextID(){
+		return position.get() < getSequenceLength();
+	}
+
+	/**
+	 * Resets the generator to the start of the sequence.
+	 *
+	 * @post | new.getPosition() == 0
+	 */
+	@Override
+	public void reset(){
+		position.set(0L);
+	}
+
+	/**
+	 * Claims the next position, restarting the sequence if it is exhausted, and returns
+	 * its ID. The check and the claim happen in one compare-and-set, so a restart by
+	 * one thread can not be lost or repeated by another one.
+	 *
+	 * @return The ID at the claimed position.
+	 */
+	@Override
+	public long generateID(){
+		while(true){
+			long current = position.get();
+			long claimed = (current < getSequenceLength()) ? current : 0L;
+			if(position.compareAndSet(current, claimed + 1)){
+				return getIDAt(claimed);
+			}
+		}
+	}
+
+	/**
+	 * Claims a block of positions with a single compare-and-set and returns their IDs.
+	 * The block continues at the start of the sequence when the sequence is exhausted,
+	 * exactly as repeated calls of generateID() would.
+	 *
+	 * @see IDGenerator#reserve(int)
+	 */
+	@Override
+	public long[] reserve(int count) throws IllegalArgumentException {
+		if(count < 0)
+			throw new IllegalArgumentException("Negative number of IDs: " + count);
+		long[] ids = new long[count];
+		if(count == 0) return ids;
+		long length = getSequenceLength();
+		long first;
+		while(true){
+			long current = position.get();
+			first = (current < length) ? current : 0L;
+			long last = (first + count - 1) % length;
+			if(position.compareAndSet(current, last + 1)) break;
+		}
+		int filled = 0;
+		while(filled < count){
+			int run = (int) Math.min(count - filled, length - first);
+			getIDsAt(first, ids, filled, run);
+			filled += run;
+			first = 0L;
+		}
+		return ids;
+	}
+
+	/**
+	 * Stores the IDs at a run of consecutive positions in the given array.
+	 *
+	 * @param position
+	 * 		  The position of the first ID.
+	 * @param ids
+	 * 		  The array to store the IDs in.
+	 * @param offset
+	 * 		  The index in the array of the first ID.
+	 * @param count
+	 * 		  The number of IDs to store.
+	 * @pre The run lies within the sequence.
+	 * 		| position + count <= getSequenceLength()
+	 * @post | for each I in 0..count-1: ids[offset + I] == getIDAt(position + I)
+	 */
+	protected void getIDsAt(long position, long[] ids, int offset, int count){
+		for(int i = 0; i < count; i++){
+			ids[offset + i] = getIDAt(position + i);
+		}
+	}
+}
@@ -0,0 +1,81 @@
+package rpg.utility;
+
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * A throughput benchmark for the concurrent ID generators. Every generator is driven
+ * by an increasing number of threads that all call generateID() in a tight loop.
+ *
+ * @author Robbe, Elias
+ */
+public class ConcurrentIDGeneratorBenchmark {
+
+	/**
+	 * The number of IDs every thread generates in a measured run.
+	 */
+	private static final int IDS_PER_THREAD = 2000000;
+
+	public static void main(String[] args) throws InterruptedException {
+		int maxThreads = Runtime.getRuntime().availableProcessors();
+		String[] names = {"prime", "binomial", "fibonacci", "weapon"};
+		for (int threads = 1; threads <= maxThreads; threads *= 2) {
+			for (String name : names) {
+				measure(name, threads);
+				double opsPerSecond = measure(name, threads);
+				System.out.println(String.format("%-10s %2d threads: %,15.0f IDs/s",
+						name, threads, opsPerSecond));
+			}
+		}
+	}
+
+	/**
+	 * Returns a fresh generator for the sequence with the given name.
+	 */
+	private static IDGenerator create(String name) {
+		switch (name) {
+		case "prime":
+			return new ConcurrentPrimeGenerator();
+		case "binomial":
+			return new ConcurrentBinomialGenerator();
+		case "fibonacci":
+			return new ConcurrentFibonacciGenerator();
+		default:
+			return new ConcurrentWeaponIDGenerator();
+		}
+	}
+
+	/**
+	 * Runs one measurement and returns the number of IDs generated per second.
+	 */
+	private static double measure(String name, int threadCount) throws InterruptedException {
+		final IDGenerator gen = create(name);
+		final CountDownLatch start = new CountDownLatch(1);
+		final long[] sinks = new long[threadCount];
+		Thread[] threads = new Thread[threadCount];
+		for (int t = 0; t < threadCount; t++) {
+			final int index = t;
+			threads[t] = new Thread(new Runnable() {
+				public void run() {
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+					long sink = 0;
+					for (int i = 0; i < IDS_PER_THREAD; i++) {
+						sink += gen.generateID();
+					}
+					sinks[index] = sink;
+				}
+			});
+			threads[t].start();
+		}
+		long begin = System.nanoTime();
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		long elapsed = System.nanoTime() - begin;
+		return (double) threadCount * IDS_PER_THREAD / (elapsed / 1e9);
+	}
+}
@@ -0,0 +1,160 @@
+package rpg.utility;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+public class ConcurrentIDGeneratorTest {
+
+	private static final int THREADS = 8;
+
+	/**
+	 * Lets THREADS threads each generate the given number of IDs at the same time and
+	 * returns all generated IDs, sorted.
+	 */
+	private long[] generateConcurrently(final IDGenerator gen, final int perThread)
+			throws InterruptedException {
+		final long[] ids = new long[THREADS * perThread];
+		final CountDownLatch start = new CountDownLatch(1);
+		Thread[] threads = new Thread[THREADS];
+		for (int t = 0; t < THREADS; t++) {
+			final int offset = t * perThread;
+			threads[t] = new Thread(new Runnable() {
+				public void run() {
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+					for (int i = 0; i < perThread; i++) {
+						ids[offset + i] = gen.generateID();
+					}
+				}
+			});
+			threads[t].start();
+		}
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		Arrays.sort(ids);
+		return ids;
+	}
+
+	@Test
+	public void primeStressTest() throws InterruptedException {
+		long[] ids = generateConcurrently(new ConcurrentPrimeGenerator(), 50000);
+		PrimeGenerator expected = new PrimeGenerator();
+		for (long id : ids) {
+			assertEquals(expected.nextID(), id);
+		}
+	}
+
+	@Test
+	public void weaponStressTest() throws InterruptedException {
+		long[] ids = generateConcurrently(new ConcurrentWeaponIDGenerator(), 100000);
+		for (int i = 0; i < ids.length; i++) {
+			assertEquals(6L * (i + 1), ids[i]);
+		}
+	}
+
+	@Test
+	public void binomialWrapsAroundOnce() throws InterruptedException {
+		// 8 threads * 31 IDs is four complete sequences of 62 row sums.
+		long[] ids = generateConcurrently(new ConcurrentBinomialGenerator(), 31);
+		for (int i = 0; i < ids.length; i++) {
+			assertEquals(1L << (i / 4 + 1), ids[i]);
+		}
+	}
+
+	@Test
+	public void fibonacciSequence() {
+		ConcurrentFibonacciGenerator gen = new ConcurrentFibonacciGenerator();
+		long[] expected = {1, 1, 2, 3, 5, 8, 13, 21};
+		for (long id : expected) {
+			assertEquals(id, gen.generateID());
+		}
+		for (int i = expected.length; i < 92; i++) {
+			assertTrue(gen.generateID() > 0);
+		}
+		assertFalse(gen.hasNextID());
+		assertEquals(1L, gen.generateID());
+	}
+
+	@Test
+	public void fibonacciStressTest() throws InterruptedException {
+		ConcurrentFibonacciGenerator gen = new ConcurrentFibonacciGenerator();
+		long[] ids = generateConcurrently(gen, 92 * 100);
+		long[] fibonacci = new long[92];
+		for (int i = 0; i < fibonacci.length; i++) {
+			fibonacci[i] = gen.getIDAt(i);
+		}
+		for (int i = 0; i < ids.length; i++) {
+			assertEquals(fibonacci[i / (THREADS * 100)], ids[i]);
+		}
+	}
+
+	@Test
+	public void reserveWrapsAround() {
+		ConcurrentBinomialGenerator gen = new ConcurrentBinomialGenerator();
+		for (int i = 0; i < 60; i++) {
+			gen.generateID();
+		}
+		long[] ids = gen.reserve(4);
+		assertArrayEquals(new long[] {1L << 61, 1L << 62, 2, 4}, ids);
+		assertEquals(8L, gen.generateID());
+	}
+
+	@Test
+	public void reserveStressTest() throws InterruptedException {
+		final ConcurrentPrimeGenerator gen = new ConcurrentPrimeGenerator();
+		final long[][] blocks = new long[THREADS * 100][];
+		Thread[] threads = new Thread[THREADS];
+		for (int t = 0; t < THREADS; t++) {
+			final int offset = t * 100;
+			threads[t] = new Thread(new Runnable() {
+				public void run() {
+					for (int i = 0; i < 100; i++) {
+						blocks[offset + i] = gen.reserve(250);
+					}
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		long[] ids = new long[THREADS * 100 * 250];
+		for (int i = 0; i < blocks.length; i++) {
+			System.arraycopy(blocks[i], 0, ids, i * 250, 250);
+		}
+		Arrays.sort(ids);
+		assertArrayEquals(new PrimeGenerator().reserve(ids.length), ids);
+	}
+
+	@Test
+	public void bufferedGenerator() {
+		WeaponIDGenerator source = new WeaponIDGenerator();
+		BufferedIDGenerator buffer = new BufferedIDGenerator(source, 3);
+		assertEquals(6L, buffer.generateID());
+		assertEquals(24L, source.generateID());
+		assertEquals(12L, buffer.generateID());
+		assertArrayEquals(new long[] {18, 30, 36}, buffer.reserve(3));
+	}
+
+	@Test
+	public void skipToShardsSequence() {
+		ConcurrentFibonacciGenerator first = new ConcurrentFibonacciGenerator();
+		ConcurrentFibonacciGenerator second = new ConcurrentFibonacciGenerator();
+		second.skipTo(46);
+		long[] ids = new long[92];
+		for (int i = 0; i < 46; i++) {
+			ids[i] = first.generateID();
+			ids[46 + i] = second.generateID();
+		}
+		assertArrayEquals(new FibonacciGenerator().reserve(92), ids);
+	}
+}
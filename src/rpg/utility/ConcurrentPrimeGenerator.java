@@ -0,0 +1,66 @@
+package rpg.utility;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * A thread-safe IDGenerator that generates consecutive primes.
+ *
+ * The primes are read from the prime table shared by the process. Reading a prime
+ * that has already been computed takes no lock, only extending the table does.
+ *
+ * @author Robbe, Elias
+ */
+public class ConcurrentPrimeGenerator extends ConcurrentIDGenerator {
+
+	/**
+	 * The table the primes are read from.
+	 */
+	private final PrimeTable table = PrimeTable.getShared();
+
+	/**
+	 * Returns the prime at the given position.
+	 *
+	 * @return | result == PrimeTable.getShared().get(position)
+	 */
+	@Override
+	protected long getIDAt(long position) {
+		return table.get((int) position);
+	}
+
+	/**
+	 * Copies a run of primes from the table, extending it once for the whole run.
+	 */
+	@Override
+	protected void getIDsAt(long position, long[] ids, int offset, int count) {
+		table.copy((int) position, ids, offset, count);
+	}
+
+	/**
+	 * Writes the table of primes computed so far to the given file.
+	 *
+	 * @see PrimeTable#save(File)
+	 */
+	public void saveTable(File file) throws IOException {
+		table.save(file);
+	}
+
+	/**
+	 * Loads a table of primes that was written by saveTable.
+	 *
+	 * @see PrimeTable#load(File)
+	 */
+	public void loadTable(File file) throws IOException {
+		table.load(file);
+	}
+
+	/**
+	 * The table is indexed with an int.
+	 *
+	 * @return | result == Integer.MAX_VALUE
+	 */
+	@Override
+	public long getSequenceLength() {
+		return Integer.MAX_VALUE;
+	}
+}
@@ -0,0 +1,31 @@
+package rpg.utility;
+
+/**
+ * A thread-safe IDGenerator that generates the multiples of six, as WeaponIDGenerator does.
+ *
+ * @invar the generated ID will always be even and a multiple of three.
+ * 		| (ID%6 == 0)
+ * @author Robbe, Elias
+ */
+public class ConcurrentWeaponIDGenerator extends ConcurrentIDGenerator {
+
+	/**
+	 * Returns the multiple of six at the given position.
+	 *
+	 * @return | result == 6 * (position + 1)
+	 */
+	@Override
+	protected long getIDAt(long position) {
+		return 6 * (position + 1);
+	}
+
+	/**
+	 * The sequence ends at the largest multiple of six a long can hold.
+	 *
+	 * @return | result == Long.MAX_VALUE / 6
+	 */
+	@Override
+	public long getSequenceLength() {
+		return Long.MAX_VALUE / 6;
+	}
+}
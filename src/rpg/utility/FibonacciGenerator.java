@@ -1,39 +1,78 @@
 package rpg.utility;
 
-public class FibonacciGenerator implements IDGenerator {
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Raw;
 
+/**
+ * An iterator that generates the Fibonacci numbers 1, 1, 2, 3, 5, ...
+ * 
+ * F(92) is the last Fibonacci number that fits in a long, so the sequence has 92 IDs
+ * before it has to be restarted. The generator can jump to any position in the
+ * sequence in logarithmic time, which allows a generator to be resumed or a range of
+ * IDs to be handed to another generator without replaying the sequence.
+ * 
+ * @invar The position lies within the sequence.
+ * 		  | getPosition() >= 0
+ * @author Robbe, Elias
+ */
+public class FibonacciGenerator implements ResumableIDGenerator {
+
+	/**
+	 * The number of Fibonacci numbers that fit in a long.
+	 */
+	public static final int MAX_POSITION = 92;
+
+	/**
+	 * The Fibonacci number F(position).
+	 */
 	private long firstNumber;
+	/**
+	 * The Fibonacci number F(position + 1), or 0 if that does not fit in a long.
+	 */
 	private long secondNumber;
+	/**
+	 * The number of IDs generated since the last reset.
+	 */
+	private long position;
 	
 	public FibonacciGenerator(){
 		reset();
 	}
 	
+	/**
+	 * Returns the next Fibonacci number and advances the generator.
+	 * 
+	 * @return The Fibonacci number F(getPosition() + 1) if it fits in a long, zero otherwise.
+	 * 		   | if(hasNextID()) then result == fibonacci(getPosition() + 1)
+	 * 		   | else result == 0
+	 */
 	@Override
 	public long nextID() {
-		if(firstNumber == 0){
-			firstNumber = 1;
-			return firstNumber;
+		long result = secondNumber;
+		if(position < MAX_POSITION){
+			long next = (position + 1 < MAX_POSITION) ? firstNumber + secondNumber : 0L;
+			firstNumber = secondNumber;
+			secondNumber = next;
 		}
-		if(secondNumber == 0){
-			secondNumber = 1;
-			return secondNumber;
-		}
-		secondNumber += firstNumber;
-		firstNumber = secondNumber - firstNumber;
-		return secondNumber;
+		position++;
+		return result;
 	}
 
+	/**
+	 * Indicates whether the next Fibonacci number still fits in a long.
+	 * 
+	 * @return | result == (getPosition() < MAX_POSITION)
+	 */
 	@Override
 	public boolean hasNextID() {
-		// TODO Auto-generated method stub
-		return false;
+		return position < MAX_POSITION;
 	}
 
 	@Override
 	public void reset() {
 		firstNumber = 0;
-		secondNumber = 0;
+		secondNumber = 1;
+		position = 0;
 	}
 
 	@Override
@@ -43,5 +82,89 @@ public class FibonacciGenerator implements IDGenerator {
 		}
 		return nextID();
 	}
-
+	
+	/**
+	 * Returns the number of IDs generated since the last reset.
+	 */
+	@Basic @Raw @Override
+	public long getPosition(){
+		return this.position;
+	}
+	
+	/**
+	 * Moves the generator to the given position, as if the given number of IDs had been
+	 * generated since the last reset.
+	 * 
+	 * @param position
+	 * 		  The new position.
+	 * @post | new.getPosition() == position
+	 * @post The next ID is the Fibonacci number that follows the position.
+	 * 		 | if(position < MAX_POSITION) then new.nextID() == fibonacci(position + 1)
+	 * @throws IllegalArgumentException
+	 * 		   The position lies outside the sequence.
+	 * 		   | position < 0 || position > MAX_POSITION
+	 */
+	@Override
+	public void skipTo(long position) throws IllegalArgumentException {
+		if(position < 0 || position > MAX_POSITION)
+			throw new IllegalArgumentException("Position outside the sequence: " + position);
+		this.firstNumber = fibonacci((int) position);
+		this.secondNumber = (position < MAX_POSITION) ? fibonacci((int) position + 1) : 0L;
+		this.position = position;
+	}
+	
+	/**
+	 * Returns the Fibonacci number F(n), with F(0) = 0 and F(1) = 1, using fast doubling:
+	 * F(2k) = F(k)*(2F(k+1) - F(k)) and F(2k+1) = F(k)^2 + F(k+1)^2.
+	 * 
+	 * @param n
+	 * 		  The index of the Fibonacci number.
+	 * @return | result == F(n)
+	 * @throws IllegalArgumentException
+	 * 		   The index is negative.
+	 * 		   | n < 0
+	 * @throws ArithmeticException
+	 * 		   F(n) does not fit in a long.
+	 * 		   | n > MAX_POSITION
+	 */
+	public static long fibonacci(int n) throws IllegalArgumentException, ArithmeticException {
+		if(n < 0)
+			throw new IllegalArgumentException("Negative index: " + n);
+		if(n == 0)
+			return 0L;
+		// Invariant: a == F(k) and b == F(k+1) for k the bits of n above the current one.
+		long a = 0L;
+		long b = 1L;
+		for(int bit = 31 - Integer.numberOfLeadingZeros(n); bit > 0; bit--){
+			long even = Math.multiplyExact(a, Math.subtractExact(Math.multiplyExact(2L, b), a));
+			long odd = Math.addExact(Math.multiplyExact(a, a), Math.multiplyExact(b, b));
+			if(((n >>> bit) & 1) == 1){
+				a = odd;
+				b = Math.addExact(even, odd);
+			} else {
+				a = even;
+				b = odd;
+			}
+		}
+		// The last bit only needs F(n) itself, F(n+1) may not fit.
+		if((n & 1) == 1)
+			return Math.addExact(Math.multiplyExact(a, a), Math.multiplyExact(b, b));
+		return Math.multiplyExact(a, Math.subtractExact(Math.multiplyExact(2L, b), a));
+	}
+	
+	/**
+	 * Reserves the next IDs at once by generating them one after the other.
+	 * 
+	 * @see IDGenerator#reserve(int)
+	 */
+	@Override
+	public long[] reserve(int count) throws IllegalArgumentException {
+		if(count < 0)
+			throw new IllegalArgumentException("Negative number of IDs: " + count);
+		long[] ids = new long[count];
+		for(int i = 0; i < count; i++){
+			ids[i] = generateID();
+		}
+		return ids;
+	}
 }
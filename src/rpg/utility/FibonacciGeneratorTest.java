@@ -31,5 +31,57 @@ public class FibonacciGeneratorTest {
 			gen.nextID();
 		}
 	}
-
+	
+	@Test
+	public void overflowIsDetected() {
+		long previous = 0;
+		long current = 1;
+		for (int i = 0; i < FibonacciGenerator.MAX_POSITION; i++) {
+			assertTrue(gen.hasNextID());
+			assertEquals(current, gen.generateID());
+			long next = previous + current;
+			previous = current;
+			current = next;
+		}
+		assertFalse(gen.hasNextID());
+		assertEquals(1L, gen.generateID());
+		assertEquals(1L, gen.generateID());
+		assertEquals(2L, gen.generateID());
+	}
+	
+	@Test
+	public void fastDoublingMatchesIteration() {
+		long previous = 0;
+		long current = 1;
+		assertEquals(0L, FibonacciGenerator.fibonacci(0));
+		for (int n = 1; n <= FibonacciGenerator.MAX_POSITION; n++) {
+			assertEquals(current, FibonacciGenerator.fibonacci(n));
+			long next = previous + current;
+			previous = current;
+			current = next;
+		}
+	}
+	
+	@Test(expected = ArithmeticException.class)
+	public void fibonacciOverflow() {
+		FibonacciGenerator.fibonacci(93);
+	}
+	
+	@Test
+	public void skipToResumesSequence() {
+		FibonacciGenerator replayed = new FibonacciGenerator();
+		for (int position = 0; position <= FibonacciGenerator.MAX_POSITION; position++) {
+			gen.skipTo(position);
+			assertEquals(position, gen.getPosition());
+			assertEquals(replayed.hasNextID(), gen.hasNextID());
+			if (gen.hasNextID()) {
+				assertEquals(replayed.nextID(), gen.nextID());
+			}
+		}
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void skipBeyondSequence() {
+		gen.skipTo(FibonacciGenerator.MAX_POSITION + 1);
+	}
 }
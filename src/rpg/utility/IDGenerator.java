@@ -35,4 +35,19 @@ public interface IDGenerator {
 	 * @return The first one if there isn't one.
 	 */
 	public long generateID();
+	
+	/**
+	 * Reserves a block of consecutive IDs at once. The result is the same as calling
+	 * generateID() the given number of times, but implementations can compute the
+	 * whole block in one go.
+	 * 
+	 * @param count
+	 * 		  The number of IDs to reserve.
+	 * @return An array with the reserved IDs, in the order generateID() would return them.
+	 * 		   | for each I in 0..count-1: result[I] == generateID()
+	 * @throws IllegalArgumentException
+	 * 		   The given count is negative.
+	 * 		   | count < 0
+	 */
+	public long[] reserve(int count) throws IllegalArgumentException;
 }
@@ -0,0 +1,177 @@
+package rpg.utility;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * The baseline benchmark suite for the sequential ID generators and the primality test.
+ *
+ * Every benchmark is run for a number of untimed warmup iterations, after which the
+ * measured iterations report the mean time per operation, the spread between the
+ * iterations and the number of bytes allocated per operation. The allocation is read
+ * from the allocation counter of the running thread, so it also counts garbage that
+ * was never collected.
+ *
+ * The suite covers:
+ * - generateID() of PrimeGenerator, BinomialGenerator, FibonacciGenerator and
+ *   WeaponIDGenerator;
+ * - isPrime() and closestPrime() for numbers of 10^3 up to 10^18.
+ *
+ * Run it with the main method; a benchmark name given as argument only runs the
+ * benchmarks whose name contains it.
+ *
+ * @author Robbe, Elias
+ */
+public class IDGeneratorBenchmark {
+
+	/**
+	 * The number of untimed iterations before the measurement.
+	 */
+	private static final int WARMUP_ITERATIONS = 5;
+
+	/**
+	 * The number of measured iterations.
+	 */
+	private static final int MEASURED_ITERATIONS = 10;
+
+	/**
+	 * The number of operations in one iteration.
+	 */
+	private static final int OPERATIONS = 1000000;
+
+	/**
+	 * The number of different numbers the primality benchmarks cycle through.
+	 */
+	private static final int INPUTS = 1024;
+
+	/**
+	 * The decimal magnitudes the primality benchmarks are run for.
+	 */
+	private static final int[] MAGNITUDES = {3, 6, 9, 12, 15, 18};
+
+	/**
+	 * One operation that is measured. The returned value is consumed, so the JIT can
+	 * not remove the work.
+	 */
+	private interface Operation {
+		long run(int index);
+	}
+
+	/**
+	 * The sum of every value returned by an operation, printed at the end.
+	 */
+	private static long sink;
+
+	public static void main(String[] args) {
+		String filter = (args.length > 0) ? args[0] : "";
+		System.out.println(String.format("%-28s %12s %10s %12s", "benchmark", "ns/op", "error", "B/op"));
+
+		final PrimeGenerator prime = new PrimeGenerator(new PrimeTable());
+		final BinomialGenerator binomial = new BinomialGenerator();
+		final FibonacciGenerator fibonacci = new FibonacciGenerator();
+		final WeaponIDGenerator weapon = new WeaponIDGenerator();
+		run(filter, "generateID.prime", new Operation() {
+			public long run(int index) { return prime.generateID(); }
+		});
+		run(filter, "generateID.binomial", new Operation() {
+			public long run(int index) { return binomial.generateID(); }
+		});
+		run(filter, "generateID.fibonacci", new Operation() {
+			public long run(int index) { return fibonacci.generateID(); }
+		});
+		run(filter, "generateID.weapon", new Operation() {
+			public long run(int index) { return weapon.generateID(); }
+		});
+
+		for (int magnitude : MAGNITUDES) {
+			final long[] numbers = inputs(magnitude);
+			run(filter, "isPrime.1e" + magnitude, new Operation() {
+				public long run(int index) {
+					return Primality.isPrime(numbers[index & (INPUTS - 1)]) ? 1 : 0;
+				}
+			});
+			run(filter, "closestPrime.1e" + magnitude, new Operation() {
+				public long run(int index) {
+					return Primality.closestPrime(numbers[index & (INPUTS - 1)]);
+				}
+			});
+		}
+		System.out.println("(sink " + sink + ")");
+	}
+
+	/**
+	 * Returns INPUTS odd numbers spread over the interval [10^magnitude, 2*10^magnitude).
+	 */
+	private static long[] inputs(int magnitude) {
+		long low = 1;
+		for (int i = 0; i < magnitude; i++) {
+			low *= 10;
+		}
+		long[] numbers = new long[INPUTS];
+		long step = low / INPUTS;
+		long rest = low % INPUTS;
+		for (int i = 0; i < INPUTS; i++) {
+			// low + i * low / INPUTS, without overflow and also when low < INPUTS.
+			numbers[i] = (low + i * step + i * rest / INPUTS) | 1L;
+		}
+		return numbers;
+	}
+
+	/**
+	 * Runs the benchmark with the given name if it matches the filter and prints a line
+	 * with its results.
+	 */
+	private static void run(String filter, String name, Operation operation) {
+		if (!name.contains(filter)) return;
+		for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+			iterate(operation);
+		}
+		double[] times = new double[MEASURED_ITERATIONS];
+		long bytesBefore = allocatedBytes();
+		for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+			times[i] = iterate(operation);
+		}
+		long bytes = allocatedBytes() - bytesBefore;
+		double mean = 0;
+		for (double time : times) {
+			mean += time;
+		}
+		mean /= times.length;
+		double variance = 0;
+		for (double time : times) {
+			variance += (time - mean) * (time - mean);
+		}
+		double error = Math.sqrt(variance / (times.length - 1));
+		String allocation = (bytes < 0) ? "n/a"
+				: String.format("%.3f", (double) bytes / ((long) MEASURED_ITERATIONS * OPERATIONS));
+		System.out.println(String.format("%-28s %12.2f %10.2f %12s", name, mean, error, allocation));
+	}
+
+	/**
+	 * Runs one iteration of the given operation and returns the mean time per operation
+	 * in nanoseconds.
+	 */
+	private static double iterate(Operation operation) {
+		long sum = 0;
+		long start = System.nanoTime();
+		for (int i = 0; i < OPERATIONS; i++) {
+			sum += operation.run(i);
+		}
+		long elapsed = System.nanoTime() - start;
+		sink += sum;
+		return (double) elapsed / OPERATIONS;
+	}
+
+	/**
+	 * Returns the number of bytes the current thread has allocated so far, or -1 if the
+	 * virtual machine does not count them.
+	 */
+	private static long allocatedBytes() {
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if (threads instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean) threads)
+					.getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,91 @@
+package rpg.utility;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * A utility class that saves the positions of a number of generators to a binary file
+ * and restores them from it.
+ * 
+ * The file holds a magic number, the number of generators and then the position of
+ * every generator as a long, in the order the generators were given. Restoring jumps
+ * every generator to its saved position, so it does not depend on how many IDs were
+ * generated before the checkpoint.
+ * 
+ * @author Robbe, Elias
+ */
+public final class IDGeneratorCheckpoint {
+	
+	/**
+	 * This class only offers static methods.
+	 */
+	private IDGeneratorCheckpoint(){
+	}
+	
+	/**
+	 * The number every checkpoint file starts with ("IDGC").
+	 */
+	private static final int MAGIC = 0x49444743;
+	
+	/**
+	 * Writes the positions of the given generators to the given file.
+	 * 
+	 * @param file
+	 * 		  The file to write to. An existing file is overwritten.
+	 * @param generators
+	 * 		  The generators to save.
+	 * @throws IOException
+	 * 		   The file could not be written.
+	 */
+	public static void save(File file, ResumableIDGenerator... generators) throws IOException {
+		try(DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(file)))){
+			out.writeInt(MAGIC);
+			out.writeInt(generators.length);
+			for(ResumableIDGenerator generator : generators){
+				out.writeLong(generator.getPosition());
+			}
+		}
+	}
+	
+	/**
+	 * Moves the given generators to the positions saved in the given file.
+	 * 
+	 * @param file
+	 * 		  The file to read from.
+	 * @param generators
+	 * 		  The generators to restore, in the order they were saved.
+	 * @effect | for each I: generators[I].skipTo(saved position I)
+	 * @throws IOException
+	 * 		   The file could not be read, is not a checkpoint, or holds a different
+	 * 		   number of generators. No generator is changed in that case.
+	 * @throws IllegalArgumentException
+	 * 		   A saved position lies outside the sequence of its generator.
+	 */
+	public static void restore(File file, ResumableIDGenerator... generators)
+			throws IOException, IllegalArgumentException
+	{
+		long[] positions = new long[generators.length];
+		try(DataInputStream in = new DataInputStream(
+				new BufferedInputStream(new FileInputStream(file)))){
+			if(in.readInt() != MAGIC)
+				throw new IOException("Not a generator checkpoint: " + file);
+			int count = in.readInt();
+			if(count != generators.length)
+				throw new IOException("Checkpoint holds " + count + " generators, expected "
+						+ generators.length);
+			for(int i = 0; i < count; i++){
+				positions[i] = in.readLong();
+			}
+		}
+		for(int i = 0; i < generators.length; i++){
+			generators[i].skipTo(positions[i]);
+		}
+	}
+}
@@ -0,0 +1,65 @@
+package rpg.utility;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class IDGeneratorCheckpointTest {
+
+	private File file;
+
+	@Before
+	public void setUp() throws IOException {
+		file = File.createTempFile("generators", ".bin");
+		file.deleteOnExit();
+	}
+
+	private ResumableIDGenerator[] createGenerators() {
+		return new ResumableIDGenerator[] {new PrimeGenerator(), new BinomialGenerator(),
+				new FibonacciGenerator(), new WeaponIDGenerator(), new ConcurrentPrimeGenerator()};
+	}
+
+	@Test
+	public void restoreContinuesSequences() throws IOException {
+		ResumableIDGenerator[] original = createGenerators();
+		for (int i = 0; i < original.length; i++) {
+			original[i].reserve(10 + 7 * i);
+		}
+		IDGeneratorCheckpoint.save(file, original);
+		assertEquals(8 + 8 * original.length, file.length());
+		ResumableIDGenerator[] restored = createGenerators();
+		IDGeneratorCheckpoint.restore(file, restored);
+		for (int i = 0; i < original.length; i++) {
+			assertEquals(original[i].getPosition(), restored[i].getPosition());
+			assertArrayEquals(original[i].reserve(100), restored[i].reserve(100));
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void restoreWrongCount() throws IOException {
+		IDGeneratorCheckpoint.save(file, new WeaponIDGenerator());
+		IDGeneratorCheckpoint.restore(file, new WeaponIDGenerator(), new WeaponIDGenerator());
+	}
+
+	@Test
+	public void primeTableRoundTrip() throws IOException {
+		PrimeGenerator computed = new PrimeGenerator(new PrimeTable());
+		computed.getPrime(200000);
+		computed.saveTable(file);
+		PrimeGenerator loaded = new PrimeGenerator(new PrimeTable());
+		loaded.loadTable(file);
+		assertEquals(computed.getPrimeCount(), loaded.getPrimeCount());
+		assertEquals(computed.getPrime(200000), loaded.getPrime(200000));
+		assertEquals(new PrimeGenerator().getPrime(500000), loaded.getPrime(500000));
+	}
+
+	@Test(expected = IOException.class)
+	public void loadTableFromCheckpoint() throws IOException {
+		IDGeneratorCheckpoint.save(file, new WeaponIDGenerator());
+		new PrimeGenerator().loadTable(file);
+	}
+}
@@ -0,0 +1,31 @@
+package rpg.utility;
+
+/**
+ * A thread-safe IDGenerator that numbers mobiles with the positive integers.
+ *
+ * @invar the generated ID is always positive.
+ * 		| (ID > 0)
+ * @author Robbe, Elias
+ */
+public class MobileIDGenerator extends ConcurrentIDGenerator {
+
+	/**
+	 * Returns the positive integer at the given position.
+	 *
+	 * @return | result == position + 1
+	 */
+	@Override
+	protected long getIDAt(long position) {
+		return position + 1;
+	}
+
+	/**
+	 * The sequence ends at the largest positive long.
+	 *
+	 * @return | result == Long.MAX_VALUE
+	 */
+	@Override
+	public long getSequenceLength() {
+		return Long.MAX_VALUE;
+	}
+}
@@ -0,0 +1,198 @@
+package rpg.utility;
+
+/**
+ * A utility class with a primality test for the full range of the java long type.
+ *
+ * Numbers below SMALL_LIMIT are looked up in a bitset of small primes. Larger numbers
+ * are first divided by a handful of small primes and then go through a deterministic
+ * Miller-Rabin test. The seven bases used are known to give an exact answer for every
+ * number below 2^64. The modular multiplications are done in Montgomery form, so no
+ * BigInteger is needed and the test does not allocate.
+ *
+ * None of the methods of this class have side effects.
+ *
+ * @author Robbe, Elias
+ */
+public final class Primality {
+
+	/**
+	 * This class only offers static methods.
+	 */
+	private Primality(){
+	}
+
+	/************************************************
+	 * Primality
+	 ************************************************/
+
+	/**
+	 * Checks whether the given number is a prime.
+	 *
+	 * @param number
+	 * 		  The number to check.
+	 * @return True if and only if the given number is larger than one and has no
+	 * 		   divisors other than one and itself.
+	 * 		   | result == (number > 1 &&
+	 * 		   | 	for each I in 2..number-1: number % I != 0)
+	 */
+	public static boolean isPrime(long number){
+		if(number < SMALL_LIMIT){
+			return number >= 2 && isSmallPrime((int) number);
+		}
+		if((number & 1L) == 0L) return false;
+		for(int p : TRIAL_PRIMES){
+			if(number % p == 0) return false;
+		}
+		return isStrongProbablePrime(number);
+	}
+
+	/**
+	 * Returns the prime that lies closest to the given number. The search starts at the
+	 * number itself and moves outward, so it only visits the gap around the number.
+	 *
+	 * @param number
+	 * 		  The number to search a prime for.
+	 * @return The given number if it is a prime.
+	 * 		   | if(isPrime(number)) then result == number
+	 * @return Otherwise the prime with the smallest distance to the number, the smaller
+	 * 		   one if there are two at the same distance.
+	 * 		   | isPrime(result) &&
+	 * 		   | for each P with isPrime(P):
+	 * 		   | 	Math.abs(P - number) >= Math.abs(result - number)
+	 * @return Two if the number is smaller than two.
+	 * 		   | if(number < 2) then result == 2
+	 */
+	public static long closestPrime(long number){
+		if(number <= 2) return 2;
+		for(long distance = 0;; distance++){
+			long lower = number - distance;
+			if(lower >= 2 && isPrime(lower)) return lower;
+			long higher = number + distance;
+			if(higher > 0 && isPrime(higher)) return higher;
+		}
+	}
+
+	/************************************************
+	 * Small primes
+	 ************************************************/
+
+	/**
+	 * Numbers below this limit are checked against the small prime bitset.
+	 */
+	private static final int SMALL_LIMIT = 1 << 16;
+
+	/**
+	 * Bitset with a bit set for every prime below SMALL_LIMIT.
+	 */
+	private static final long[] SMALL_PRIMES = new long[SMALL_LIMIT >>> 6];
+
+	static {
+		boolean[] composite = new boolean[SMALL_LIMIT];
+		for(int i = 2; i < SMALL_LIMIT; i++){
+			if(composite[i]) continue;
+			SMALL_PRIMES[i >>> 6] |= 1L << i;
+			for(long multiple = (long) i * i; multiple < SMALL_LIMIT; multiple += i){
+				composite[(int) multiple] = true;
+			}
+		}
+	}
+
+	/**
+	 * Checks whether the given number below SMALL_LIMIT is a prime.
+	 */
+	private static boolean isSmallPrime(int number){
+		return (SMALL_PRIMES[number >>> 6] & (1L << number)) != 0L;
+	}
+
+	/**
+	 * The primes used for trial division before running Miller-Rabin.
+	 */
+	private static final int[] TRIAL_PRIMES = {3, 5, 7, 11, 13, 17, 19, 23, 29, 31, 37};
+
+	/************************************************
+	 * Miller-Rabin
+	 ************************************************/
+
+	/**
+	 * Bases for which the strong probable prime test is exact for every number below 2^64.
+	 */
+	private static final long[] BASES = {2L, 325L, 9375L, 28178L, 450775L, 9780504L, 1795265022L};
+
+	/**
+	 * Runs the strong probable prime test for all bases in BASES.
+	 *
+	 * @pre The number is odd and larger than every base that matters, i.e. at least SMALL_LIMIT.
+	 * @return True if the number is a strong probable prime for all bases.
+	 */
+	private static boolean isStrongProbablePrime(long n){
+		long inverse = inverse(n);
+		long one = Long.remainderUnsigned(-n, n);
+		long minusOne = n - one;
+		long rSquared = one;
+		for(int i = 0; i < 64; i++){
+			rSquared = addMod(rSquared, rSquared, n);
+		}
+		long d = n - 1;
+		int s = Long.numberOfTrailingZeros(d);
+		d >>>= s;
+		WITNESS:
+		for(long base : BASES){
+			long a = base % n;
+			if(a == 0L) continue;
+			long x = powMod(montgomeryMultiply(a, rSquared, n, inverse), d, one, n, inverse);
+			if(x == one || x == minusOne) continue;
+			for(int r = 1; r < s; r++){
+				x = montgomeryMultiply(x, x, n, inverse);
+				if(x == minusOne) continue WITNESS;
+			}
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the inverse of the given odd number modulo 2^64, using Newton iteration.
+	 */
+	private static long inverse(long n){
+		long x = n;
+		for(int i = 0; i < 5; i++){
+			x *= 2 - n * x;
+		}
+		return x;
+	}
+
+	/**
+	 * Returns (a + b) mod n for a and b in [0, n).
+	 */
+	private static long addMod(long a, long b, long n){
+		long sum = a + b;
+		return (Long.compareUnsigned(sum, n) >= 0) ? sum - n : sum;
+	}
+
+	/**
+	 * Returns a * b / 2^64 mod n, for a and b in [0, n) and n odd and positive.
+	 */
+	private static long montgomeryMultiply(long a, long b, long n, long inverse){
+		long low = a * b;
+		long high = Math.multiplyHigh(a, b);
+		long m = low * inverse;
+		long mnHigh = Math.multiplyHigh(m, n) + ((m >> 63) & n);
+		long result = high - mnHigh;
+		return (result < 0) ? result + n : result;
+	}
+
+	/**
+	 * Raises the given Montgomery form to the given power.
+	 */
+	private static long powMod(long base, long exponent, long one, long n, long inverse){
+		long result = one;
+		while(exponent > 0){
+			if((exponent & 1L) == 1L){
+				result = montgomeryMultiply(result, base, n, inverse);
+			}
+			base = montgomeryMultiply(base, base, n, inverse);
+			exponent >>>= 1;
+		}
+		return result;
+	}
+}
@@ -0,0 +1,62 @@
+package rpg.utility;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class PrimalityTest {
+
+	@Test
+	public void smallNumbers() {
+		assertFalse(Primality.isPrime(-7));
+		assertFalse(Primality.isPrime(0));
+		assertFalse(Primality.isPrime(1));
+		assertTrue(Primality.isPrime(2));
+		assertTrue(Primality.isPrime(229));
+		assertFalse(Primality.isPrime(561));
+	}
+
+	@Test
+	public void agreesWithSieve() {
+		PrimeGenerator gen = new PrimeGenerator();
+		long next = gen.nextID();
+		for (long i = 0; i < 2000000; i++) {
+			if (i == next) {
+				assertTrue(Primality.isPrime(i));
+				next = gen.nextID();
+			} else {
+				assertFalse(Primality.isPrime(i));
+			}
+		}
+	}
+
+	@Test
+	public void largeNumbers() {
+		assertTrue(Primality.isPrime(2305843009213693951L));
+		assertTrue(Primality.isPrime(9223372036854775783L));
+		assertFalse(Primality.isPrime(Long.MAX_VALUE));
+		// Strong pseudoprimes to several of the smaller prime bases.
+		assertFalse(Primality.isPrime(3215031751L));
+		assertFalse(Primality.isPrime(3825123056546413051L));
+		assertFalse(Primality.isPrime(4294967297L));
+	}
+
+	@Test
+	public void closestPrime() {
+		assertEquals(2L, Primality.closestPrime(-5L));
+		assertEquals(7L, Primality.closestPrime(9L));
+		assertEquals(11L, Primality.closestPrime(11L));
+		assertEquals(23L, Primality.closestPrime(26L));
+		assertEquals(9223372036854775783L, Primality.closestPrime(Long.MAX_VALUE));
+	}
+
+	@Test
+	public void noSideEffects() {
+		PrimeGenerator gen = new PrimeGenerator(new PrimeTable());
+		gen.isPrime(1000003L);
+		gen.closestPrime(1000000L);
+		assertEquals(0, gen.getPosition());
+		assertEquals(1, gen.getPrimeCount());
+		assertEquals(2L, gen.nextID());
+	}
+}
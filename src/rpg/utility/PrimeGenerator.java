@@ -1,22 +1,59 @@
 package rpg.utility;
 
-import java.util.ArrayList;
+import java.io.File;
+import java.io.IOException;
 
-public class PrimeGenerator implements IDGenerator {
-	
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Raw;
+
+/**
+ * An iterator that generates consecutive primes.
+ *
+ * A prime generator is only a position in a table of primes. By default all generators
+ * share the table of the process, so the primes are computed and stored only once no
+ * matter how many generators there are.
+ *
+ * @author Robbe, Elias
+ */
+public class PrimeGenerator implements ResumableIDGenerator {
+
+	/**
+	 * The position of the next prime that will be returned by nextID().
+	 */
 	private int position;
-	
-	private ArrayList<Long> primeList = new ArrayList<Long>();
-	
+
+	/**
+	 * The table this generator reads its primes from.
+	 */
+	private final PrimeTable table;
+
 	/**
-	 * Iterator that generates consecutive primes.
+	 * Iterator that generates consecutive primes from the shared table.
+	 *
+	 * @effect | this(PrimeTable.getShared())
 	 */
-	
 	public PrimeGenerator(){
-		position = 0;
-		primeList.add(2L);
+		this(PrimeTable.getShared());
 	}
-	
+
+	/**
+	 * Iterator that generates consecutive primes from the given table.
+	 *
+	 * @param table
+	 * 		  The table to read the primes from.
+	 * @post The generator starts at the first prime.
+	 * 		 | new.getPosition() == 0
+	 * @throws IllegalArgumentException
+	 * 		   The table is not effective.
+	 * 		   | table == null
+	 */
+	public PrimeGenerator(PrimeTable table) throws IllegalArgumentException {
+		if(table == null)
+			throw new IllegalArgumentException("Non-effective prime table");
+		this.table = table;
+		this.position = 0;
+	}
+
 	@Override
 	public long generateID(){
 		if(!hasNextID()){
@@ -24,79 +61,154 @@ public class PrimeGenerator implements IDGenerator {
 		}
 		return nextID();
 	}
-	
+
 	/**
 	 * There are an infinite amount of prime numbers, so in theory this method should always be true.
-	 * Java's long primitive does have a finite size though, so 
+	 * Java's long primitive does have a finite size though, so
 	 */
-	
+
 	@Override
 	public boolean hasNextID() {
 		return true;
 	}
-	
-	
+
+
 	@Override
 	public long nextID() {
 		position++;
 		return getPrime(position - 1);
 	}
-	
-	public long getPrime(int position){
-		while(position > primeList.size() - 1){
-			primeList.add(generateNextPrime(primeList));
-		}
-		return primeList.get(position);
+
+	/**
+	 * Reserves the next primes at once. The table is extended once for the whole block,
+	 * after which the primes are copied out of it.
+	 *
+	 * @see IDGenerator#reserve(int)
+	 */
+	@Override
+	public long[] reserve(int count) throws IllegalArgumentException {
+		if(count < 0)
+			throw new IllegalArgumentException("Negative number of IDs: " + count);
+		long[] ids = new long[count];
+		table.copy(position, ids, 0, count);
+		position += count;
+		return ids;
+	}
+
+	/**
+	 * Returns the prime at the given position, counting from zero.
+	 *
+	 * @param position
+	 * 		  The index of the prime to return.
+	 * @effect The table is extended until it contains the prime at the given position.
+	 * @return The prime at the given position.
+	 * 		   | result == getTable().get(position)
+	 * @throws IndexOutOfBoundsException
+	 * 		   The given position is negative.
+	 * 		   | position < 0
+	 */
+	public long getPrime(int position) throws IndexOutOfBoundsException {
+		return table.get(position);
+	}
+
+	/**
+	 * Returns the position of the next prime that will be returned by nextID().
+	 */
+	@Basic @Raw @Override
+	public long getPosition(){
+		return this.position;
+	}
+
+	/**
+	 * Moves the generator to the given position. The table is only extended when the
+	 * next ID is asked, so this takes constant time.
+	 *
+	 * @post | new.getPosition() == position
+	 * @throws IllegalArgumentException
+	 * 		   The position can not index the table.
+	 * 		   | position < 0 || position > Integer.MAX_VALUE
+	 */
+	@Override
+	public void skipTo(long position) throws IllegalArgumentException {
+		if(position < 0 || position > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("Position outside the sequence: " + position);
+		this.position = (int) position;
+	}
+
+	/**
+	 * Returns the table this generator reads its primes from.
+	 */
+	@Basic @Raw
+	public PrimeTable getTable(){
+		return this.table;
 	}
-	
+
+	/**
+	 * Returns the number of primes that are currently in the table.
+	 *
+	 * @return | result == getTable().size()
+	 */
+	public int getPrimeCount(){
+		return table.size();
+	}
+
 	/**
 	 * Resets the position to the first known prime.
-	 * 
+	 *
 	 * @effect Resets the position
 	 * 		   position = 0
 	 */
 	public void reset(){
 		this.position = 0;
 	}
-	
-	/**
-	 * Generates the smallest prime larger than all primes in the given array.
-	 * @param previousPrimes
-	 * 			Array with a list of primes to check candidate primes against.
-	 * @pre previousPrimes has to be a complete list of primes. 
-	 * @return the next prime
-	 */
-	private long generateNextPrime(ArrayList<Long> previousPrimes){
-		long current = previousPrimes.get(previousPrimes.size()-1);
-		SEARCH:
-		while(true){
-			current++;
-			for(long p : previousPrimes){
-				if (current % p == 0) continue SEARCH;
-			}
-			return current;
-		}
-	}
-	
+
+	/**
+	 * Checks whether the given number is a prime. This does not consult or grow the
+	 * table of this generator.
+	 *
+	 * @param number
+	 * 		  The number to check.
+	 * @return True if the number is a prime.
+	 * 		   | result == Primality.isPrime(number)
+	 */
 	public boolean isPrime(long number){
-		System.out.println(number > primeList.get(position));
-		System.out.println(nextID());
-		while(number > getPrime(position)){
-			nextID();
-		}
-		return primeList.contains(number);
+		return Primality.isPrime(number);
 	}
-	
+
+	/**
+	 * Returns the prime closest to the given number. This does not consult or grow the
+	 * table of this generator.
+	 *
+	 * @param number
+	 * 		  The number to search a prime for.
+	 * @return The closest prime, the smaller one on a tie.
+	 * 		   | result == Primality.closestPrime(number)
+	 */
 	public long closestPrime(long number){
-		if(isPrime(number)) return number;
-		else{
-			int i = 0;
-			while(getPrime(i) < number){
-				i++;
-			}
-			long lower = getPrime(i - 1);
-			long higher = getPrime(i);
-			return ((number - lower) > (higher - number)) ? higher : lower;
-		}
+		return Primality.closestPrime(number);
+	}
+
+	/************************************************
+	 * Persistence
+	 ************************************************/
+
+	/**
+	 * Writes the table of primes computed so far to the given file, so a later run can
+	 * load it instead of sieving again. The position is not part of the table.
+	 *
+	 * @effect | getTable().save(file)
+	 */
+	public void saveTable(File file) throws IOException {
+		table.save(file);
+	}
+
+	/**
+	 * Loads a table of primes that was written by saveTable into the table of this
+	 * generator, through a memory-mapped read.
+	 *
+	 * @effect | getTable().load(file)
+	 */
+	public void loadTable(File file) throws IOException {
+		table.load(file);
 	}
 }
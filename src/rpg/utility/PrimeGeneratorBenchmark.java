@@ -0,0 +1,37 @@
+package rpg.utility;
+
+/**
+ * A small benchmark that measures how long a PrimeGenerator on a fresh table needs to reach
+ * the millionth and the ten millionth prime.
+ *
+ * Run it with a heap of at least 256 MB, the table of ten million primes alone
+ * takes 80 MB.
+ *
+ * @author Robbe, Elias
+ */
+public class PrimeGeneratorBenchmark {
+
+	/**
+	 * The positions of the primes that are timed, counting from one.
+	 */
+	private static final int[] TARGETS = {1000000, 10000000};
+
+	/**
+	 * The number of untimed runs before the measurement.
+	 */
+	private static final int WARMUP_RUNS = 3;
+
+	public static void main(String[] args) {
+		for (int i = 0; i < WARMUP_RUNS; i++) {
+			new PrimeGenerator(new PrimeTable()).getPrime(TARGETS[0] - 1);
+		}
+		for (int target : TARGETS) {
+			PrimeGenerator gen = new PrimeGenerator(new PrimeTable());
+			long start = System.nanoTime();
+			long prime = gen.getPrime(target - 1);
+			long elapsed = System.nanoTime() - start;
+			System.out.println(String.format("prime #%,d = %,d reached in %.1f ms",
+					target, prime, elapsed / 1e6));
+		}
+	}
+}
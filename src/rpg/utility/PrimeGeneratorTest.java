@@ -3,6 +3,9 @@ package rpg.utility;
 import static org.junit.Assert.*;
 import static org.junit.Assert.assertArrayEquals;
 
+import java.io.File;
+import java.io.IOException;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -53,4 +56,45 @@ public class PrimeGeneratorTest {
 	public void closestPrimeTest2(){
 		assertEquals(11L, gen.closestPrime(11L));
 	}
+	
+	@Test
+	public void millionthPrime(){
+		assertEquals(15485863L, gen.getPrime(999999));
+	}
+	
+	@Test
+	public void segmentBoundaryTest(){
+		// 65521 and 65537 lie on both sides of the end of the first segment.
+		assertTrue(gen.isPrime(65521));
+		assertFalse(gen.isPrime(65535));
+		assertTrue(gen.isPrime(65537));
+		assertEquals(65537L, gen.closestPrime(65536L));
+	}
+	
+	@Test
+	public void reserveTest(){
+		gen.nextID();
+		long[] block = gen.reserve(5);
+		assertArrayEquals(new long[]{3,5,7,11,13}, block);
+		assertEquals(17L, gen.nextID());
+		assertEquals(0, gen.reserve(0).length);
+	}
+	
+	@Test (expected = IllegalArgumentException.class)
+	public void reserveNegative(){
+		gen.reserve(-1);
+	}
+	
+	@Test
+	public void saveAndLoadUnsievedTable() throws IOException {
+		File file = File.createTempFile("primes", ".table");
+		try {
+			new PrimeGenerator(new PrimeTable()).saveTable(file);
+			PrimeGenerator loaded = new PrimeGenerator(new PrimeTable());
+			loaded.loadTable(file);
+			assertArrayEquals(new long[]{2,3,5,7,11}, loaded.reserve(5));
+		} finally {
+			file.delete();
+		}
+	}
 }
@@ -0,0 +1,378 @@
+package rpg.utility;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+import be.kuleuven.cs.som.annotate.Model;
+
+/**
+ * A table of consecutive primes that can be shared by any number of threads and
+ * generators.
+ *
+ * The primes are computed with a segmented sieve of Eratosthenes. The table is extended
+ * one segment at a time, where a segment covers SEGMENT_SIZE odd numbers and fits in the
+ * first level cache. The primes are stored in fixed-size chunks of a primitive array, so
+ * growing the table never copies primes that are already there.
+ *
+ * Reading a prime that is already in the table takes no lock: the number of primes is
+ * published through a volatile field after the primes themselves have been written.
+ * Extending the table is done by one thread at a time.
+ *
+ * @invar The primes in the table are the consecutive primes 2, 3, 5, ...
+ * 		  | for each I in 0..size()-1: get(I) is the I'th prime
+ * @author Robbe, Elias
+ */
+public class PrimeTable {
+
+	/**
+	 * The table shared by every generator that does not ask for its own one.
+	 */
+	private static final PrimeTable SHARED = new PrimeTable();
+
+	/**
+	 * Returns the table that is shared by the whole process.
+	 */
+	public static PrimeTable getShared(){
+		return SHARED;
+	}
+
+	/**
+	 * Creates a new table that only contains the prime 2.
+	 *
+	 * @post | new.size() == 1
+	 */
+	public PrimeTable(){
+		chunks = new long[INITIAL_CHUNKS][];
+		chunks[0] = new long[CHUNK_SIZE];
+		chunks[0][0] = 2L;
+		count = 1;
+	}
+
+	/************************************************
+	 * Reading
+	 ************************************************/
+
+	/**
+	 * The number of bits of an index that select the entry within a chunk.
+	 */
+	private static final int CHUNK_SHIFT = 16;
+
+	/**
+	 * The number of primes in one chunk.
+	 */
+	private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+	/**
+	 * The mask that selects the entry within a chunk from an index.
+	 */
+	private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+	/**
+	 * The number of chunk slots a new table starts with.
+	 */
+	private static final int INITIAL_CHUNKS = 16;
+
+	/**
+	 * The chunks of primes. The prime with index I is stored at
+	 * chunks[I >>> CHUNK_SHIFT][I & CHUNK_MASK].
+	 */
+	private volatile long[][] chunks;
+
+	/**
+	 * The number of primes that have been published. Written after the primes and
+	 * the chunks that hold them, so a reader that sees a count also sees those primes.
+	 */
+	private volatile int count;
+
+	/**
+	 * Returns the number of primes that are currently in the table.
+	 */
+	public int size(){
+		return count;
+	}
+
+	/**
+	 * Returns the prime with the given index, extending the table if needed.
+	 *
+	 * @param index
+	 * 		  The index of the prime, counting from zero.
+	 * @return The prime with the given index.
+	 * @throws IndexOutOfBoundsException
+	 * 		   The given index is negative.
+	 * 		   | index < 0
+	 */
+	public long get(int index) throws IndexOutOfBoundsException {
+		if(index >= count){
+			if(index < 0)
+				throw new IndexOutOfBoundsException("Negative prime index: " + index);
+			growTo(index + 1);
+		}
+		return chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+	}
+
+	/**
+	 * Copies a run of consecutive primes into the given array, extending the table once
+	 * for the whole run.
+	 *
+	 * @param index
+	 * 		  The index of the first prime to copy.
+	 * @param destination
+	 * 		  The array to copy to.
+	 * @param offset
+	 * 		  The index in the array of the first prime.
+	 * @param length
+	 * 		  The number of primes to copy.
+	 * @post | for each I in 0..length-1: destination[offset + I] == get(index + I)
+	 * @throws IndexOutOfBoundsException
+	 * 		   The given index or length is negative, or the run does not fit in the array.
+	 */
+	public void copy(int index, long[] destination, int offset, int length)
+			throws IndexOutOfBoundsException
+	{
+		if(index < 0 || length < 0 || offset < 0 || offset + length > destination.length)
+			throw new IndexOutOfBoundsException("Invalid run of primes");
+		if(length == 0) return;
+		if(index + length > count){
+			growTo(index + length);
+		}
+		long[][] current = chunks;
+		while(length > 0){
+			int within = index & CHUNK_MASK;
+			int run = Math.min(length, CHUNK_SIZE - within);
+			System.arraycopy(current[index >>> CHUNK_SHIFT], within, destination, offset, run);
+			index += run;
+			offset += run;
+			length -= run;
+		}
+	}
+
+	/**
+	 * Returns the number of bytes taken by the arrays of this table.
+	 */
+	public long getMemoryFootprint(){
+		long[][] current = chunks;
+		long bytes = 16L + 8L * current.length;
+		for(long[] chunk : current){
+			if(chunk != null)
+				bytes += 16L + 8L * chunk.length;
+		}
+		return bytes;
+	}
+
+	/************************************************
+	 * Segmented sieve
+	 ************************************************/
+
+	/**
+	 * The number of odd numbers that is sieved in one segment. One flag is kept per
+	 * odd number, so a segment takes 32 kB and stays in the first level cache.
+	 */
+	private static final int SEGMENT_SIZE = 1 << 15;
+
+	/**
+	 * All numbers strictly smaller than this bound have been sieved. This bound is
+	 * always even. Only accessed while holding the lock on this table.
+	 */
+	private long sievedUpTo = 2L;
+
+	/**
+	 * The composite flags of the segment that is being sieved, reused for every segment.
+	 * The flag at index I belongs to the odd number sievedUpTo + 2*I + 1. Only accessed
+	 * while holding the lock on this table.
+	 */
+	private final boolean[] segment = new boolean[SEGMENT_SIZE];
+
+	/**
+	 * The number of primes that have been written but not yet published. Only accessed
+	 * while holding the lock on this table.
+	 */
+	private int written = 1;
+
+	/**
+	 * Extends the table until it contains at least the given number of primes, and
+	 * publishes them.
+	 *
+	 * @param size
+	 * 		  The number of primes the table has to contain.
+	 * @post | new.size() >= size
+	 */
+	@Model
+	private synchronized void growTo(int size){
+		while(written < size){
+			sieveNextSegment();
+		}
+		count = written;
+	}
+
+	/**
+	 * Sieves the next segment of odd numbers and appends the primes it contains to the table.
+	 *
+	 * @pre The table contains every prime up to the square root of the end of the segment.
+	 * 		This holds because the first segment already reaches 2*SEGMENT_SIZE and the
+	 * 		segments are sieved in order.
+	 * @post Every prime smaller than the new sievedUpTo is in the table.
+	 * 		 | new.sievedUpTo == sievedUpTo + 2*SEGMENT_SIZE
+	 */
+	@Model
+	private void sieveNextSegment(){
+		long low = sievedUpTo;
+		long high = low + 2L * SEGMENT_SIZE;
+		Arrays.fill(segment, false);
+		if(low == 2L){
+			// 1 is stored at index 0 in the very first segment and is not a prime.
+			segment[0] = true;
+			low = 0L;
+			high = 2L * SEGMENT_SIZE;
+			sieveFirstSegment();
+		}
+		else {
+			long[][] current = chunks;
+			for(int i = 1; i < written; i++){
+				long p = current[i >>> CHUNK_SHIFT][i & CHUNK_MASK];
+				long square = p * p;
+				if(square >= high) break;
+				long start = Math.max(square, ((low + p - 1) / p) * p);
+				if((start & 1L) == 0L) start += p;
+				for(long multiple = start; multiple < high; multiple += 2 * p){
+					segment[(int) ((multiple - low) >>> 1)] = true;
+				}
+			}
+		}
+		for(int i = 0; i < SEGMENT_SIZE; i++){
+			if(!segment[i]){
+				append(low + 2L * i + 1);
+			}
+		}
+		sievedUpTo = high;
+	}
+
+	/**
+	 * Sieves the first segment with the odd primes it contains itself, since those
+	 * are not yet in the table.
+	 */
+	@Model
+	private void sieveFirstSegment(){
+		long high = 2L * SEGMENT_SIZE;
+		for(long p = 3; p * p < high; p += 2){
+			if(segment[(int) (p >>> 1)]) continue;
+			for(long multiple = p * p; multiple < high; multiple += 2 * p){
+				segment[(int) (multiple >>> 1)] = true;
+			}
+		}
+	}
+
+	/**
+	 * Writes the given prime behind the last written prime, adding a chunk if needed.
+	 * The prime is not visible to readers until the next publication.
+	 *
+	 * @param prime
+	 * 		  The prime to append.
+	 */
+	private void append(long prime){
+		int chunk = written >>> CHUNK_SHIFT;
+		long[][] current = chunks;
+		if(chunk == current.length){
+			current = Arrays.copyOf(current, current.length * 2);
+			chunks = current;
+		}
+		if(current[chunk] == null){
+			current[chunk] = new long[CHUNK_SIZE];
+		}
+		current[chunk][written & CHUNK_MASK] = prime;
+		written++;
+	}
+
+	/************************************************
+	 * Persistence
+	 ************************************************/
+
+	/**
+	 * The number every table file starts with ("PRMT").
+	 */
+	private static final int TABLE_MAGIC = 0x50524d54;
+
+	/**
+	 * The number of bytes in front of the primes in a table file.
+	 */
+	private static final int TABLE_HEADER_SIZE = 16;
+
+	/**
+	 * Writes the primes computed so far to the given file, so a later run can load them
+	 * instead of sieving again.
+	 *
+	 * @param file
+	 * 		  The file to write to. An existing file is overwritten.
+	 * @throws IOException
+	 * 		   The file could not be written.
+	 */
+	public synchronized void save(File file) throws IOException {
+		long size = TABLE_HEADER_SIZE + 8L * written;
+		try(RandomAccessFile out = new RandomAccessFile(file, "rw");
+				FileChannel channel = out.getChannel()){
+			out.setLength(size);
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+			buffer.putInt(TABLE_MAGIC);
+			buffer.putInt(written);
+			buffer.putLong(sievedUpTo);
+			LongBuffer longs = buffer.asLongBuffer();
+			for(int index = 0; index < written; index += CHUNK_SIZE){
+				longs.put(chunks[index >>> CHUNK_SHIFT], 0, Math.min(CHUNK_SIZE, written - index));
+			}
+			buffer.force();
+		}
+	}
+
+	/**
+	 * Loads primes that were written by save. The file is memory-mapped and the primes
+	 * the table does not contain yet are copied into it chunk by chunk, then published.
+	 *
+	 * @param file
+	 * 		  The file to read from.
+	 * @post | new.size() >= size()
+	 * @throws IOException
+	 * 		   The file could not be read or does not hold a table of primes.
+	 */
+	public synchronized void load(File file) throws IOException {
+		try(RandomAccessFile in = new RandomAccessFile(file, "r");
+				FileChannel channel = in.getChannel()){
+			long size = channel.size();
+			if(size < TABLE_HEADER_SIZE)
+				throw new IOException("Not a prime table: " + file);
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			if(buffer.getInt() != TABLE_MAGIC)
+				throw new IOException("Not a prime table: " + file);
+			int loaded = buffer.getInt();
+			long bound = buffer.getLong();
+			// A table saved before any sieving only holds 2, with the initial bound 2.
+			boolean unsieved = (loaded == 1 && bound == 2L);
+			if(loaded < 1 || size != TABLE_HEADER_SIZE + 8L * loaded
+					|| (!unsieved && bound % (2L * SEGMENT_SIZE) != 0))
+				throw new IOException("Corrupt prime table: " + file);
+			LongBuffer longs = buffer.asLongBuffer();
+			if(longs.get(0) != 2L || (!unsieved && longs.get(loaded - 1) >= bound))
+				throw new IOException("Corrupt prime table: " + file);
+			if(loaded <= written) return;
+			longs.position(written);
+			while(written < loaded){
+				int chunk = written >>> CHUNK_SHIFT;
+				if(chunk == chunks.length){
+					chunks = Arrays.copyOf(chunks, chunks.length * 2);
+				}
+				if(chunks[chunk] == null){
+					chunks[chunk] = new long[CHUNK_SIZE];
+				}
+				int within = written & CHUNK_MASK;
+				int run = Math.min(loaded - written, CHUNK_SIZE - within);
+				longs.get(chunks[chunk], within, run);
+				written += run;
+			}
+			sievedUpTo = bound;
+			count = written;
+		}
+	}
+}
@@ -0,0 +1,72 @@
+package rpg.utility;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * A small benchmark that compares the shared prime table with the layouts it replaces:
+ * one private table per generator, and a list of boxed primes.
+ *
+ * It prints the memory taken by each layout and the average time of a random lookup
+ * in a table that already holds every prime that is asked.
+ *
+ * @author Robbe, Elias
+ */
+public class PrimeTableBenchmark {
+
+	/**
+	 * The number of primes every table holds.
+	 */
+	private static final int PRIMES = 1000000;
+
+	/**
+	 * The number of generators that would each keep a private table.
+	 */
+	private static final int GENERATORS = 4;
+
+	/**
+	 * The number of random lookups per measurement.
+	 */
+	private static final int LOOKUPS = 10000000;
+
+	/**
+	 * The estimated size of a boxed Long plus its reference in an ArrayList.
+	 */
+	private static final int BOXED_BYTES = 16 + 8;
+
+	public static void main(String[] args) {
+		PrimeTable shared = PrimeTable.getShared();
+		shared.get(PRIMES - 1);
+		PrimeTable fresh = new PrimeTable();
+		fresh.get(PRIMES - 1);
+		long perTable = fresh.getMemoryFootprint();
+		List<Long> boxed = new ArrayList<Long>(PRIMES);
+		for (int i = 0; i < PRIMES; i++) {
+			boxed.add(shared.get(i));
+		}
+
+		System.out.println(String.format("%,d primes, %d generators", PRIMES, GENERATORS));
+		System.out.println(String.format("  shared table:      %,12d bytes", shared.getMemoryFootprint()));
+		System.out.println(String.format("  private tables:    %,12d bytes", GENERATORS * perTable));
+		System.out.println(String.format("  boxed lists:       %,12d bytes", (long) GENERATORS * PRIMES * BOXED_BYTES));
+
+		for (int round = 0; round < 3; round++) {
+			long sum = 0;
+			SplittableRandom random = new SplittableRandom(round);
+			long start = System.nanoTime();
+			for (int i = 0; i < LOOKUPS; i++) {
+				sum += shared.get(random.nextInt(PRIMES));
+			}
+			long tableTime = System.nanoTime() - start;
+			random = new SplittableRandom(round);
+			start = System.nanoTime();
+			for (int i = 0; i < LOOKUPS; i++) {
+				sum -= boxed.get(random.nextInt(PRIMES));
+			}
+			long boxedTime = System.nanoTime() - start;
+			System.out.println(String.format("  round %d: shared table %.1f ns/lookup, boxed list %.1f ns/lookup (check %d)",
+					round, (double) tableTime / LOOKUPS, (double) boxedTime / LOOKUPS, sum));
+		}
+	}
+}
@@ -0,0 +1,105 @@
+package rpg.utility;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class PrimeTableTest {
+
+	@Test
+	public void sharedByGenerators() {
+		PrimeGenerator first = new PrimeGenerator();
+		PrimeGenerator second = new PrimeGenerator();
+		assertSame(first.getTable(), second.getTable());
+		assertSame(PrimeTable.getShared(), first.getTable());
+		first.getPrime(100000);
+		assertTrue(second.getPrimeCount() > 100000);
+	}
+
+	@Test
+	public void chunkBoundary() {
+		PrimeTable table = new PrimeTable();
+		// The first chunk holds the primes with index 0 to 65535.
+		assertEquals(821641L, table.get(65535));
+		assertEquals(821647L, table.get(65536));
+		long[] run = new long[4];
+		table.copy(65534, run, 0, 4);
+		assertArrayEquals(new long[]{821603L, 821641L, 821647L, 821651L}, run);
+	}
+
+	@Test (expected = IndexOutOfBoundsException.class)
+	public void negativeIndex() {
+		new PrimeTable().get(-1);
+	}
+
+	@Test
+	public void concurrentReaders() throws InterruptedException {
+		final PrimeTable table = new PrimeTable();
+		final long[] expected = new PrimeGenerator().reserve(200000);
+		final CountDownLatch start = new CountDownLatch(1);
+		final AtomicInteger mismatches = new AtomicInteger();
+		Thread[] threads = new Thread[8];
+		for (int t = 0; t < threads.length; t++) {
+			final int stride = t + 1;
+			threads[t] = new Thread(new Runnable() {
+				public void run() {
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+					for (int i = expected.length - stride; i >= 0; i -= stride * 97) {
+						if (table.get(i) != expected[i]) mismatches.incrementAndGet();
+					}
+					for (int i = 0; i < expected.length; i += stride) {
+						if (table.get(i) != expected[i]) mismatches.incrementAndGet();
+					}
+				}
+			});
+			threads[t].start();
+		}
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertEquals(0, mismatches.get());
+	}
+
+	@Test
+	public void saveAndLoadFreshTable() throws IOException {
+		File file = File.createTempFile("primes", ".table");
+		try {
+			new PrimeTable().save(file);
+			PrimeTable loaded = new PrimeTable();
+			loaded.load(file);
+			assertEquals(1, loaded.size());
+			assertEquals(2L, loaded.get(0));
+			assertEquals(821647L, loaded.get(65536));
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	public void saveAndLoadSievedTable() throws IOException {
+		File file = File.createTempFile("primes", ".table");
+		try {
+			PrimeTable table = new PrimeTable();
+			table.get(100000);
+			table.save(file);
+			PrimeTable loaded = new PrimeTable();
+			loaded.load(file);
+			assertEquals(table.size(), loaded.size());
+			assertEquals(table.get(100000), loaded.get(100000));
+			int next = table.size();
+			assertEquals(table.get(next), loaded.get(next));
+		} finally {
+			file.delete();
+		}
+	}
+}
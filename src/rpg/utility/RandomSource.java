@@ -0,0 +1,109 @@
+package rpg.utility;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * An interface for the sources of all random numbers used in combat and looting.
+ *
+ * A mobile draws its rolls from the random source it was given, so a simulation that
+ * hands every mobile a seeded source can be replayed exactly.
+ *
+ * @author Robbe, Elias
+ */
+public interface RandomSource {
+
+	/**
+	 * Returns a pseudorandom number between zero, inclusive, and the given bound, exclusive.
+	 *
+	 * @param bound
+	 * 		  The upper bound, exclusive.
+	 * @return | 0 <= result && result < bound
+	 * @throws IllegalArgumentException
+	 * 		   The bound is not positive.
+	 * 		   | bound <= 0
+	 */
+	public int nextInt(int bound) throws IllegalArgumentException;
+
+	/**
+	 * Returns a pseudorandom number between the given origin, inclusive, and the given
+	 * bound, exclusive.
+	 *
+	 * @return | origin <= result && result < bound
+	 * @throws IllegalArgumentException
+	 * 		   The origin is not smaller than the bound.
+	 * 		   | origin >= bound
+	 */
+	public default int nextInt(int origin, int bound) throws IllegalArgumentException {
+		if(origin >= bound)
+			throw new IllegalArgumentException("Empty range: " + origin + ".." + bound);
+		return origin + nextInt(bound - origin);
+	}
+
+	/**
+	 * Returns a pseudorandom boolean.
+	 */
+	public default boolean nextBoolean(){
+		return nextInt(2) == 1;
+	}
+
+	/**
+	 * Fills the given array with pseudorandom numbers between the given origin, inclusive,
+	 * and the given bound, exclusive. Implementations may draw the numbers in a cheaper way
+	 * than one by one, so they need not be the same as those of as many calls of
+	 * nextInt(origin, bound).
+	 *
+	 * @post | for each I in 0..rolls.length-1:
+	 * 		 | 	origin <= rolls[I] && rolls[I] < bound
+	 * @throws IllegalArgumentException
+	 * 		   The origin is not smaller than the bound.
+	 * 		   | origin >= bound
+	 */
+	public default void fill(int[] rolls, int origin, int bound) throws IllegalArgumentException {
+		for(int i = 0; i < rolls.length; i++){
+			rolls[i] = nextInt(origin, bound);
+		}
+	}
+
+	/**
+	 * Returns a new source whose numbers are independent of those of this source, for use
+	 * by another thread or task.
+	 */
+	public RandomSource split();
+
+	/**
+	 * Returns the unseeded source that draws from the ThreadLocalRandom of the calling
+	 * thread. It is the source of every mobile that was not given one.
+	 */
+	public static RandomSource threadLocal(){
+		return ThreadLocalSource.INSTANCE;
+	}
+
+	/**
+	 * The random source of the ThreadLocalRandom of the calling thread.
+	 */
+	final class ThreadLocalSource implements RandomSource {
+
+		private static final ThreadLocalSource INSTANCE = new ThreadLocalSource();
+
+		private ThreadLocalSource(){
+		}
+
+		@Override
+		public int nextInt(int bound) throws IllegalArgumentException {
+			return ThreadLocalRandom.current().nextInt(bound);
+		}
+
+		@Override
+		public int nextInt(int origin, int bound) throws IllegalArgumentException {
+			return ThreadLocalRandom.current().nextInt(origin, bound);
+		}
+
+		/**
+		 * Every thread already has its own ThreadLocalRandom, so this source is its own split.
+		 */
+		@Override
+		public RandomSource split(){
+			return this;
+		}
+	}
+}
@@ -0,0 +1,44 @@
+package rpg.utility;
+
+/**
+ * A small benchmark that measures the time of one combat roll of 0 to 100 for every
+ * kind of random source.
+ *
+ * Run it once per source, with the index of the source as argument, so the call of
+ * nextInt stays monomorphic as it is in a simulation.
+ *
+ * @author Robbe, Elias
+ */
+public class RandomSourceBenchmark {
+
+	/**
+	 * The number of rolls per measurement.
+	 */
+	private static final int ROLLS = 50000000;
+
+	/**
+	 * The number of times every source is measured; the first rounds warm up the JIT.
+	 */
+	private static final int ROUNDS = 5;
+
+	public static void main(String[] args) {
+		String[] names = {"thread local", "splittable", "buffered"};
+		RandomSource[] sources = {
+				RandomSource.threadLocal(),
+				new SplittableRandomSource(1L),
+				new BufferedRandomSource(new SplittableRandomSource(1L), 0, 101)};
+		int s = (args.length > 0) ? Integer.parseInt(args[0]) : 2;
+		RandomSource source = sources[s];
+		long sink = 0;
+		for (int round = 0; round < ROUNDS; round++) {
+			long start = System.nanoTime();
+			for (int i = 0; i < ROLLS; i++) {
+				sink += source.nextInt(0, 101);
+			}
+			long elapsed = System.nanoTime() - start;
+			System.out.println(String.format("round %d %-13s %.2f ns/roll",
+					round, names[s], (double) elapsed / ROLLS));
+		}
+		System.out.println("(sink " + sink + ")");
+	}
+}
@@ -0,0 +1,76 @@
+package rpg.utility;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class RandomSourceTest {
+
+	@Test
+	public void sameSeedSameNumbers() {
+		RandomSource first = new SplittableRandomSource(11L);
+		RandomSource second = new SplittableRandomSource(11L);
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(first.nextInt(0, 101), second.nextInt(0, 101));
+		}
+	}
+
+	@Test
+	public void fillIsUniform() {
+		int[] rolls = new int[1010000];
+		new SplittableRandomSource(3L).fill(rolls, 0, 101);
+		int[] counts = new int[101];
+		for (int roll : rolls) {
+			counts[roll]++;
+		}
+		for (int count : counts) {
+			assertTrue(Math.abs(count - 10000) < 500);
+		}
+	}
+
+	@Test
+	public void bufferedMatchesFill() {
+		RandomSource buffered = new BufferedRandomSource(new SplittableRandomSource(8L), 0, 101, 64);
+		RandomSource source = new SplittableRandomSource(8L);
+		int[] block = new int[64];
+		for (int b = 0; b < 10; b++) {
+			source.fill(block, 0, 101);
+			for (int roll : block) {
+				assertEquals(roll, buffered.nextInt(0, 101));
+			}
+		}
+	}
+
+	@Test
+	public void bufferedOtherRange() {
+		RandomSource buffered = new BufferedRandomSource(new SplittableRandomSource(8L), 0, 101);
+		for (int i = 0; i < 1000; i++) {
+			int roll = buffered.nextInt(0, 6);
+			assertTrue(roll >= 0 && roll < 6);
+		}
+	}
+
+	@Test
+	public void splitIsIndependent() {
+		SplittableRandomSource source = new SplittableRandomSource(1L);
+		RandomSource split = source.split();
+		int same = 0;
+		for (int i = 0; i < 1000; i++) {
+			if (source.nextInt(1 << 30) == split.nextInt(1 << 30)) same++;
+		}
+		assertTrue(same < 5);
+	}
+
+	@Test
+	public void threadLocalRange() {
+		for (int i = 0; i < 1000; i++) {
+			int roll = RandomSource.threadLocal().nextInt(0, 101);
+			assertTrue(roll >= 0 && roll <= 100);
+		}
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void emptyRange() {
+		new SplittableRandomSource(1L).nextInt(5, 5);
+	}
+}
@@ -0,0 +1,31 @@
+package rpg.utility;
+
+/**
+ * An interface for IDGenerators whose whole state is their position in the sequence.
+ * 
+ * Such a generator can be saved as a single number and resumed later by jumping back
+ * to that position, without generating the IDs in between again.
+ * 
+ * @author Robbe, Elias
+ */
+public interface ResumableIDGenerator extends IDGenerator {
+	
+	/**
+	 * Returns the number of IDs generated since the last reset.
+	 * 
+	 * @return The position of the next ID in the sequence.
+	 */
+	public long getPosition();
+	
+	/**
+	 * Moves the generator to the given position, as if the given number of IDs had
+	 * been generated since the last reset.
+	 * 
+	 * @param position
+	 * 		  The new position.
+	 * @post | new.getPosition() == position
+	 * @throws IllegalArgumentException
+	 * 		   The position lies outside the sequence of this generator.
+	 */
+	public void skipTo(long position) throws IllegalArgumentException;
+}
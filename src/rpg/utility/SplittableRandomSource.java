@@ -0,0 +1,97 @@
+package rpg.utility;
+
+import java.util.SplittableRandom;
+
+/**
+ * A seeded random source backed by a SplittableRandom.
+ *
+ * Two sources with the same seed return the same numbers. A source is not thread-safe;
+ * a parallel task should split off its own source.
+ *
+ * @author Robbe, Elias
+ */
+public class SplittableRandomSource implements RandomSource {
+
+	/**
+	 * Creates a source with the given seed.
+	 *
+	 * @param seed
+	 * 		  The seed of the source.
+	 */
+	public SplittableRandomSource(long seed){
+		this(new SplittableRandom(seed));
+	}
+
+	/**
+	 * Creates a source that draws from the given generator.
+	 *
+	 * @param random
+	 * 		  The generator to draw from.
+	 * @throws IllegalArgumentException
+	 * 		   The generator is not effective.
+	 * 		   | random == null
+	 */
+	public SplittableRandomSource(SplittableRandom random) throws IllegalArgumentException {
+		if(random == null)
+			throw new IllegalArgumentException("Non-effective random generator");
+		this.random = random;
+	}
+
+	/**
+	 * The generator this source draws from.
+	 */
+	private final SplittableRandom random;
+
+	@Override
+	public int nextInt(int bound) throws IllegalArgumentException {
+		return random.nextInt(bound);
+	}
+
+	@Override
+	public int nextInt(int origin, int bound) throws IllegalArgumentException {
+		return random.nextInt(origin, bound);
+	}
+
+	@Override
+	public boolean nextBoolean(){
+		return random.nextBoolean();
+	}
+
+	/**
+	 * Fills the array with two rolls per drawn long. Each half of the long is mapped to the
+	 * range with a multiplication instead of a division, and the few values that would make
+	 * the rolls uneven are drawn again, so every roll is exactly uniform.
+	 */
+	@Override
+	public void fill(int[] rolls, int origin, int bound) throws IllegalArgumentException {
+		if(origin >= bound)
+			throw new IllegalArgumentException("Empty range: " + origin + ".." + bound);
+		long range = (long) bound - origin;
+		if(range > Integer.MAX_VALUE){
+			RandomSource.super.fill(rolls, origin, bound);
+			return;
+		}
+		// The values of one half below this threshold would be mapped unevenly.
+		long threshold = (1L << 32) % range;
+		int i = 0;
+		while(i < rolls.length){
+			long bits = random.nextLong();
+			long product = (bits >>> 32) * range;
+			if((product & 0xFFFFFFFFL) >= threshold){
+				rolls[i++] = origin + (int) (product >>> 32);
+			}
+			product = (bits & 0xFFFFFFFFL) * range;
+			if(i < rolls.length && (product & 0xFFFFFFFFL) >= threshold){
+				rolls[i++] = origin + (int) (product >>> 32);
+			}
+		}
+	}
+
+	/**
+	 * @return A source that draws from a generator split off the generator of this source.
+	 */
+	@Override
+	public SplittableRandomSource split(){
+		return new SplittableRandomSource(random.split());
+	}
+}
@@ -1,6 +1,6 @@
 package rpg.utility;
 
-public class WeaponIDGenerator implements IDGenerator {
+public class WeaponIDGenerator implements ResumableIDGenerator {
 
 	private long counter;
 	
@@ -47,10 +47,56 @@ public class WeaponIDGenerator implements IDGenerator {
 	
 	@Override
 	public boolean hasNextID() {
-		// TODO Auto-generated method stub
-		return false;
+		return counter < MAX_COUNTER;
+	}
+	
+	/**
+	 * The largest counter for which counter*6 still fits in a long.
+	 */
+	private static final long MAX_COUNTER = Long.MAX_VALUE / 6;
+	
+	/**
+	 * Reserves the next multiples of six at once, restarting the sequence when it overflows.
+	 * 
+	 * @see IDGenerator#reserve(int)
+	 */
+	@Override
+	public long[] reserve(int count) throws IllegalArgumentException {
+		if(count < 0)
+			throw new IllegalArgumentException("Negative number of IDs: " + count);
+		long[] ids = new long[count];
+		for(int i = 0; i < count; i++){
+			if(counter == MAX_COUNTER)
+				counter = 0;
+			counter++;
+			ids[i] = counter*6;
+		}
+		return ids;
 	}
 
+	/**
+	 * Returns the number of IDs generated since the last reset.
+	 */
+	@Override
+	public long getPosition() {
+		return counter;
+	}
+	
+	/**
+	 * Moves the generator to the given position.
+	 * 
+	 * @effect The counter is set to the given position.
+	 * @throws IllegalArgumentException
+	 * 		   The position lies outside the sequence.
+	 * 		   | position < 0 || position > Long.MAX_VALUE / 6
+	 */
+	@Override
+	public void skipTo(long position) throws IllegalArgumentException {
+		if(position < 0 || position > MAX_COUNTER)
+			throw new IllegalArgumentException("Position outside the sequence: " + position);
+		this.counter = position;
+	}
+	
 	/**
 	 * Resets the generator to it's initial state. nextID() will generate
 	 * an ID as if the generator was just initialised.
@@ -16,19 +16,24 @@ import java.math.*;
 @Value
 public enum Unit {
 	
-	kg("kilogram"), g("gram"),lbs("pound");    
+	kg("kilogram", "1000000"), g("gram", "1000"),lbs("pound", "453592.37");    
 	
 	/**
 	 * Initialize this unit with the given unit.
 	 *
 	 * @param unit
 	 * 		  The unit for this new unit.
+	 * @param milligrams
+	 * 		  The number of milligrams in one of this new unit.
 	 * @post The unit for this new unit is equal to the given unit.
 	 * 		 | new.getUnit() == unit	
+	 * @post The number of milligrams in this new unit is equal to the given one.
+	 * 		 | new.getMilligrams().equals(new BigDecimal(milligrams))
 	 */
 	@Raw
-	private Unit(String unit){
+	private Unit(String unit, String milligrams){
 		this.unit = unit;
+		this.milligrams = new BigDecimal(milligrams);
 	}
 	
 	/**
@@ -39,6 +44,18 @@ public enum Unit {
 		return this.unit;
 	}
 	
+	/**
+	 * Return the number of milligrams in one of this unit.
+	 * 
+	 * @note The milligram is the common base unit in which weights of different
+	 * 		 units can be added and compared without a conversion table. The pound
+	 * 		 is the exact international pound of 0.45359237 kg.
+	 */
+	@Basic @Raw @Immutable
+	public BigDecimal getMilligrams(){
+		return this.milligrams;
+	}
+	
 	/**
 	 * Return the value of 1 unit to the other unit.
 	 * 
@@ -127,4 +144,9 @@ public enum Unit {
 	 */
 	private final String unit;
 	
+	/**
+	 * A variable storing the number of milligrams in one of this unit.
+	 */
+	private final BigDecimal milligrams;
+	
 }
@@ -56,6 +56,7 @@ public class Weight implements Comparable<Weight> {
 			numeral = numeral.round(getContextForScale2(numeral));
 		this.numeral = numeral;
 		this.unit = unit;
+		this.milligrams = toMilligrams(numeral, unit);
 	}
 	
 	/**
@@ -188,6 +189,50 @@ public class Weight implements Comparable<Weight> {
 	 */
 	private final Unit unit;
 	
+	/************************************************
+	 * Milligrams
+	 ************************************************/
+	
+	/**
+	 * Return this weight as a whole number of milligrams.
+	 * 
+	 * @return The numeral of this weight multiplied with the number of milligrams
+	 * 		   in its unit, rounded half up to a whole number and limited to the
+	 * 		   range of a long.
+	 * 		   | result == toMilligrams(getNumeral(), getUnit())
+	 */
+	@Basic @Raw @Immutable
+	public long getMilligrams(){
+		return this.milligrams;
+	}
+	
+	/**
+	 * Return the given numeral in the given unit as a whole number of milligrams.
+	 * 
+	 * @param numeral
+	 * 		  The numeral to convert.
+	 * @param unit
+	 * 		  The unit of the numeral.
+	 * @return The numeral multiplied with the milligrams in the unit, rounded half up.
+	 * 		   Weights beyond the range of a long are limited to Long.MAX_VALUE or
+	 * 		   Long.MIN_VALUE.
+	 * 		   | let exact = numeral.multiply(unit.getMilligrams()).setScale(0, RoundingMode.HALF_UP)
+	 * 		   | in if (exact.unscaledValue().bitLength() < 64) then result == exact.longValue()
+	 */
+	@Model
+	private static long toMilligrams(BigDecimal numeral, Unit unit) {
+		BigDecimal exact = numeral.multiply(unit.getMilligrams())
+				.setScale(0, RoundingMode.HALF_UP);
+		if (exact.unscaledValue().bitLength() >= 64)
+			return (exact.signum() > 0) ? Long.MAX_VALUE : Long.MIN_VALUE;
+		return exact.longValue();
+	}
+	
+	/**
+	 * Variable referencing this weight in whole milligrams.
+	 */
+	private final long milligrams;
+	
 	/************************************************
 	 * Utility
 	 ************************************************/